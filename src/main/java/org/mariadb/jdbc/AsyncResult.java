@@ -0,0 +1,179 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc;
+
+import org.mariadb.jdbc.internal.protocol.AsyncReadDispatcher;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Result of an asynchronous query, see {@link AsyncStatement}.
+ * Result can be waited for with get() methods, or received by callback. Callbacks are run by driver callback threads,
+ * never by threads reading query results.
+ * Query being already sent, it cannot be cancelled (use Statement.cancel() to kill a running query).
+ *
+ * @param <T> result type
+ */
+public class AsyncResult<T> implements Future<T> {
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final Executor callbackExecutor;
+    private List<AsyncCallback<? super T>> callbacks = new ArrayList<>();
+    private T value;
+    private SQLException exception;
+
+    AsyncResult() {
+        this(AsyncReadDispatcher.getCallbackExecutor());
+    }
+
+    AsyncResult(Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Add a callback, notified when query completes, or immediately if query is already completed.
+     *
+     * @param callback callback
+     * @return this
+     */
+    public AsyncResult<T> addCallback(AsyncCallback<? super T> callback) {
+        synchronized (this) {
+            if (callbacks != null) {
+                callbacks.add(callback);
+                return this;
+            }
+        }
+        notify(callback);
+        return this;
+    }
+
+    void complete(T value) {
+        this.value = value;
+        finish();
+    }
+
+    void fail(SQLException exception) {
+        this.exception = exception;
+        finish();
+    }
+
+    private void finish() {
+        List<AsyncCallback<? super T>> toNotify;
+        synchronized (this) {
+            toNotify = callbacks;
+            callbacks = null;
+        }
+        done.countDown();
+        for (AsyncCallback<? super T> callback : toNotify) {
+            notify(callback);
+        }
+    }
+
+    private void notify(final AsyncCallback<? super T> callback) {
+        callbackExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (exception != null) {
+                    callback.onFailure(exception);
+                } else {
+                    callback.onSuccess(value);
+                }
+            }
+        });
+    }
+
+    /**
+     * Asynchronous query cannot be cancelled once sent.
+     *
+     * @param mayInterruptIfRunning not used
+     * @return false
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return false;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    @Override
+    public T get() throws InterruptedException, ExecutionException {
+        done.await();
+        return value();
+    }
+
+    @Override
+    public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        if (!done.await(timeout, unit)) {
+            throw new TimeoutException("Query result not received after " + timeout + " " + unit);
+        }
+        return value();
+    }
+
+    private T value() throws ExecutionException {
+        if (exception != null) throw new ExecutionException(exception);
+        return value;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * Batch access to a result set, decoding whole fetched batches into primitive column arrays.
+ * Obtained with <code>resultSet.unwrap(MariaDbColumnarResultSet.class)</code>.
+ *
+ * <p>Returned arrays are reused : their content is only valid until next call to {@link #nextBatch()},
+ * and may be longer than batch size.</p>
+ */
+public interface MariaDbColumnarResultSet {
+
+    /**
+     * Move to next batch of rows. Batch contain the remaining rows already fetched
+     * (all rows for a non streaming result set, up to fetch size rows for a streaming one),
+     * limited to 1024 rows.
+     * Cursor is then positioned on the last row of the batch.
+     *
+     * @return number of rows in batch, 0 if there is no more rows
+     * @throws SQLException if result set is closed or if any connection error occur
+     */
+    int nextBatch() throws SQLException;
+
+    /**
+     * Number of rows in current batch.
+     *
+     * @return batch size
+     */
+    int getBatchSize();
+
+    /**
+     * Decode column values of current batch as int. NULL values are decoded as 0.
+     *
+     * @param columnIndex column index (first column is 1)
+     * @return column values
+     * @throws SQLException if index is invalid or if a value cannot be converted
+     */
+    int[] getIntColumn(int columnIndex) throws SQLException;
+
+    /**
+     * Decode column values of current batch as long. NULL values are decoded as 0.
+     *
+     * @param columnIndex column index (first column is 1)
+     * @return column values
+     * @throws SQLException if index is invalid or if a value cannot be converted
+     */
+    long[] getLongColumn(int columnIndex) throws SQLException;
+
+    /**
+     * Decode column values of current batch as double. NULL values are decoded as 0.
+     *
+     * @param columnIndex column index (first column is 1)
+     * @return column values
+     * @throws SQLException if index is invalid or if a value cannot be converted
+     */
+    double[] getDoubleColumn(int columnIndex) throws SQLException;
+
+    /**
+     * NULL bitmap of current batch : bit <code>row % 64</code> of word <code>row / 64</code> is set
+     * when value of that row is NULL.
+     *
+     * @param columnIndex column index (first column is 1)
+     * @return null bitmap
+     * @throws SQLException if index is invalid
+     */
+    long[] getNullBitmap(int columnIndex) throws SQLException;
+
+}
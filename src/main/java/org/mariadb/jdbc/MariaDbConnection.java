@@ -68,7 +68,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 
-public final class MariaDbConnection implements Connection {
+public final class MariaDbConnection implements Connection, AsyncStatement {
     public final ReentrantLock lock;
     /**
      * the protocol to communicate with.
@@ -191,6 +191,51 @@ public final class MariaDbConnection implements Connection {
         return new MariaDbStatement(this, ResultSet.TYPE_FORWARD_ONLY);
     }
 
+    /**
+     * Send a select query using a new statement, result set being read asynchronously.
+     * Statement is closed when result set is closed.
+     *
+     * @param sql the query to send to the server
+     * @return future result set
+     * @throws SQLException if query cannot be sent
+     */
+    public AsyncResult<ResultSet> executeQueryAsync(String sql) throws SQLException {
+        MariaDbStatement statement = (MariaDbStatement) createStatement();
+        statement.closeOnCompletion();
+        return statement.executeQueryAsync(sql);
+    }
+
+    /**
+     * Send an update query using a new statement, update count being read asynchronously.
+     * Statement is closed when result is available.
+     *
+     * @param sql the update query
+     * @return future update count
+     * @throws SQLException if query cannot be sent
+     */
+    public AsyncResult<Long> executeUpdateAsync(String sql) throws SQLException {
+        final MariaDbStatement statement = (MariaDbStatement) createStatement();
+        return statement.executeUpdateAsync(sql).addCallback(new AsyncCallback<Long>() {
+            @Override
+            public void onSuccess(Long updateCount) {
+                closeQuietly();
+            }
+
+            @Override
+            public void onFailure(SQLException sqlException) {
+                closeQuietly();
+            }
+
+            private void closeQuietly() {
+                try {
+                    statement.close();
+                } catch (SQLException sqlException) {
+                    //eat exception
+                }
+            }
+        });
+    }
+
     /**
      * Creates a <code>Statement</code> object that will generate <code>ResultSet</code> objects with the given type and concurrency. This method is
      * the same as the <code>createStatement</code> method above, but it allows the default result set type and concurrency to be overridden. The
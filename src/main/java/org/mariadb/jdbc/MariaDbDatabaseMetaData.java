@@ -51,6 +51,7 @@ package org.mariadb.jdbc;
 
 import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
 import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
+import org.mariadb.jdbc.internal.queryresults.resultset.RowArena;
 import org.mariadb.jdbc.internal.util.Utils;
 import org.mariadb.jdbc.internal.util.constant.Version;
 import org.mariadb.jdbc.internal.util.dao.Identifier;
@@ -2436,21 +2437,21 @@ public class MariaDbDatabaseMetaData implements DatabaseMetaData {
         columns[3] = ColumnInformation.create("DESCRIPTION", MariaDbType.STRING);
 
 
-        List<byte[][]> rows = new ArrayList<>(3);
-        rows.add(new byte[][] {
+        RowArena rows = new RowArena(4, 3);
+        rows.addRow(new byte[][] {
                 "ApplicationName".getBytes(),
                 new byte[] {(byte) 49, (byte) 54, (byte) 55, (byte) 55, (byte) 55, (byte) 50, (byte) 49, (byte) 53},  //16Mb
                 new byte[]{},
                 "The name of the application currently utilizing the connection".getBytes()
         });
-        rows.add(new byte[][] {
+        rows.addRow(new byte[][] {
                 "ClientUser".getBytes(),
                 new byte[] {(byte) 49, (byte) 54, (byte) 55, (byte) 55, (byte) 55, (byte) 50, (byte) 49, (byte) 53},  //16Mb
                 new byte[]{},
                 ("The name of the user that the application using the connection is performing work for. "
                         + "This may not be the same as the user name that was used in establishing the connection.").getBytes()
         });
-        rows.add(new byte[][] {
+        rows.addRow(new byte[][] {
                 "ClientHostname".getBytes(),
                 new byte[] {(byte) 49, (byte) 54, (byte) 55, (byte) 55, (byte) 55, (byte) 50, (byte) 49, (byte) 53},  //16Mb
                 new byte[]{},
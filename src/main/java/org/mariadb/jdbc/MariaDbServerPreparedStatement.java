@@ -264,6 +264,7 @@ public class MariaDbServerPreparedStatement extends AbstractPrepareStatement imp
             try {
                 internalResult = new Results(this, 0, true, queryParameterSize, true, resultSetScrollType,
                         connection.getAutoIncrementIncrement());
+                internalResult.setServerPrepareResult(serverPrepareResult);
                 executeBatchInternal(internalResult, queryParameterSize);
             } catch (QueryException queryException) {
                 exception = queryException;
@@ -395,6 +396,7 @@ public class MariaDbServerPreparedStatement extends AbstractPrepareStatement imp
                 batchResultSet = null;
                 Results internalResults = new Results(this, fetchSize, false,1, true, resultSetScrollType,
                         connection.getAutoIncrementIncrement());
+                internalResults.setServerPrepareResult(serverPrepareResult);
                 ParameterHolder[] parameterHolders = currentParameterHolder.values().toArray(new ParameterHolder[0]);
                 if (serverPrepareResult != null) {
                     serverPrepareResult.resetParameterTypeHeader();
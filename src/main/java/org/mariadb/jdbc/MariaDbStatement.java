@@ -51,6 +51,7 @@ package org.mariadb.jdbc;
 
 import org.mariadb.jdbc.internal.logging.Logger;
 import org.mariadb.jdbc.internal.logging.LoggerFactory;
+import org.mariadb.jdbc.internal.protocol.AsyncQueryListener;
 import org.mariadb.jdbc.internal.protocol.Protocol;
 import org.mariadb.jdbc.internal.queryresults.*;
 import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
@@ -70,7 +71,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.locks.ReentrantLock;
 
 
-public class MariaDbStatement implements Statement, Cloneable {
+public class MariaDbStatement implements Statement, Cloneable, AsyncStatement {
     private static Logger logger = LoggerFactory.getLogger(MariaDbStatement.class);
     //timeout scheduler
     private static final ScheduledExecutorService timeoutScheduler = SchedulerServiceProviderHolder.getTimeoutScheduler();
@@ -235,6 +236,10 @@ public class MariaDbStatement implements Statement, Cloneable {
      * @throws SQLException the error description
      */
     protected boolean executeInternal(String sql, int fetchSize) throws SQLException {
+        return executeInternal(sql, fetchSize, null);
+    }
+
+    private boolean executeInternal(String sql, int fetchSize, RowHandler rowHandler) throws SQLException {
         executing = true;
         QueryException exception = null;
         lock.lock();
@@ -243,6 +248,7 @@ public class MariaDbStatement implements Statement, Cloneable {
             batchResultSet = null;
             Results internalResults = new Results(this, fetchSize, false, 1, false, resultSetScrollType,
                     connection.getAutoIncrementIncrement());
+            internalResults.setRowHandler(rowHandler);
             protocol.executeQuery(protocol.isMasterConnection(), internalResults,
                     Utils.nativeSql(sql, connection.noBackslashEscapes));
             internalResults.commandEnd();
@@ -406,6 +412,118 @@ public class MariaDbStatement implements Statement, Cloneable {
         return MariaSelectResultSet.createEmptyResultSet();
     }
 
+    /**
+     * Executes a select query, pushing each row to handler while it is read from the socket.
+     * No rows are accumulated and resultSet of this statement stay empty.
+     *
+     * @param sql        the query to send to the server
+     * @param rowHandler row callback
+     * @return number of rows handled
+     * @throws SQLException if something went wrong, or if handler has thrown an exception
+     */
+    public long executeQuery(String sql, RowHandler rowHandler) throws SQLException {
+        if (rowHandler == null) {
+            throw new SQLException("Row handler cannot be null");
+        }
+        executeInternal(sql, fetchSize, rowHandler);
+        return results.getHandledRows();
+    }
+
+
+    /**
+     * Send a select query, result set being read asynchronously when server response is available.
+     *
+     * @param sql the query to send to the server
+     * @return future result set
+     * @throws SQLException if query cannot be sent
+     */
+    public AsyncResult<ResultSet> executeQueryAsync(String sql) throws SQLException {
+        AsyncListener<ResultSet> listener = new AsyncListener<ResultSet>() {
+            @Override
+            protected ResultSet value(Results internalResults) {
+                ResultSet resultSet = internalResults.getResultSet();
+                return (resultSet != null) ? resultSet : MariaSelectResultSet.createEmptyResultSet();
+            }
+        };
+        executeAsync(sql, listener);
+        return listener.asyncResult;
+    }
+
+    /**
+     * Send an update query, update count being read asynchronously when server response is available.
+     *
+     * @param sql the update query.
+     * @return future update count
+     * @throws SQLException if query cannot be sent
+     */
+    public AsyncResult<Long> executeUpdateAsync(String sql) throws SQLException {
+        AsyncListener<Long> listener = new AsyncListener<Long>() {
+            @Override
+            protected Long value(Results internalResults) {
+                if (internalResults.getResultSet() != null || internalResults.getCmdInformation() == null) return 0L;
+                return (long) internalResults.getCmdInformation().getUpdateCount();
+            }
+        };
+        executeAsync(sql, listener);
+        return listener.asyncResult;
+    }
+
+    private void executeAsync(String sql, AsyncListener<?> listener) throws SQLException {
+        lock.lock();
+        try {
+            if (closed) {
+                throw new SQLException("execute() is called on closed statement");
+            }
+            protocol.prolog(results, maxRows, protocol.getProxy() != null, connection, this);
+            batchResultSet = null;
+            Results internalResults = new Results(this, 0, false, 1, false, resultSetScrollType,
+                    connection.getAutoIncrementIncrement());
+            protocol.executeQueryAsync(protocol.isMasterConnection(), internalResults,
+                    Utils.nativeSql(sql, connection.noBackslashEscapes), listener);
+        } catch (QueryException e) {
+            ExceptionMapper.throwAndLogException(e, connection, this, logger);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Complete asynchronous result when query result has been read.
+     * Called by read thread holding connection lock, so results are published under lock.
+     *
+     * @param <T> result type
+     */
+    private abstract class AsyncListener<T> implements AsyncQueryListener {
+        private final AsyncResult<T> asyncResult = new AsyncResult<>();
+
+        protected abstract T value(Results internalResults);
+
+        @Override
+        public void onResult(Results internalResults) {
+            T value;
+            lock.lock();
+            try {
+                internalResults.commandEnd();
+                results = internalResults;
+                value = value(internalResults);
+            } finally {
+                lock.unlock();
+            }
+            asyncResult.complete(value);
+        }
+
+        @Override
+        public void onError(QueryException queryException) {
+            lock.lock();
+            try {
+                ExceptionMapper.throwAndLogException(queryException, connection, MariaDbStatement.this, logger);
+            } catch (SQLException sqlException) {
+                asyncResult.fail(sqlException);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
 
     /**
      * Executes an update.
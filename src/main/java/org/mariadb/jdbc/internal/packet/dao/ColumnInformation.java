@@ -220,6 +220,43 @@ public class ColumnInformation {
         }
     }
 
+    /**
+     * Indicate if column definition packet is identical to another column definition packet.
+     *
+     * @param other other column information
+     * @return true if both definitions are identical
+     */
+    public boolean hasSameDefinition(ColumnInformation other) {
+        if (buffer == null || other.buffer == null || buffer.limit != other.buffer.limit) {
+            return false;
+        }
+        byte[] buf = buffer.buf;
+        byte[] otherBuf = other.buffer.buf;
+        for (int i = 0; i < buffer.limit; i++) {
+            if (buf[i] != otherBuf[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash code of column definition packet, consistent with hasSameDefinition().
+     *
+     * @return hash code
+     */
+    public int definitionHashCode() {
+        if (buffer == null) {
+            return 0;
+        }
+        int hash = 1;
+        byte[] buf = buffer.buf;
+        for (int i = 0; i < buffer.limit; i++) {
+            hash = 31 * hash + buf[i];
+        }
+        return hash;
+    }
+
     public String getCatalog() {
         return null;
     }
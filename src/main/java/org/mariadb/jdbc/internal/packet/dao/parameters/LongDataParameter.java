@@ -50,15 +50,57 @@ OF SUCH DAMAGE.
 
 package org.mariadb.jdbc.internal.packet.dao.parameters;
 
+import org.mariadb.jdbc.internal.packet.Packet;
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 
 import java.io.IOException;
 
 public abstract class LongDataParameter implements ParameterHolder {
+    //big chunks (server reallocate array each send)
+    protected static final int MAX_CHUNK_SIZE = 1024 * 1024;
+    //command + statement id + parameter id
+    protected static final int LONG_DATA_HEADER_SIZE = 7;
 
     public abstract void sendComLongData(int statementId, short parameterId, PacketOutputStream writer) throws IOException, QueryException;
 
+    /**
+     * Data size of each COM_STMT_SEND_LONG_DATA packet.
+     * Whole parameter can exceed max_allowed_packet, but each packet must not.
+     *
+     * @param writer writer
+     * @return chunk size
+     */
+    protected static int chunkSize(PacketOutputStream writer) {
+        int maxAllowedPacket = writer.getMaxAllowedPacket();
+        if (maxAllowedPacket <= 0) return MAX_CHUNK_SIZE;
+        //with compression, 4 additional bytes are counted
+        return Math.max(1, Math.min(MAX_CHUNK_SIZE, maxAllowedPacket - LONG_DATA_HEADER_SIZE - 5));
+    }
+
+    /**
+     * Send a COM_STMT_SEND_LONG_DATA packet.
+     *
+     * @param statementId statement id
+     * @param parameterId parameter number
+     * @param writer      writer
+     * @param array       array with data starting at position 6 (first bytes are used for ids)
+     * @param len         data length
+     * @throws IOException    if any connection error occur
+     * @throws QueryException if packet size is to big according to server max_allowed_size
+     */
+    protected static void sendChunk(int statementId, short parameterId, PacketOutputStream writer, byte[] array, int len)
+            throws IOException, QueryException {
+        writer.startPacket(0);
+        array[0] = (byte) (statementId & 0xff);
+        array[1] = (byte) (statementId >>> 8);
+        array[2] = (byte) (statementId >>> 16);
+        array[3] = (byte) (statementId >>> 24);
+        array[4] = (byte) (parameterId & 0xff);
+        array[5] = (byte) (parameterId >>> 8);
+        writer.sendDirect(array, 0, len + 6, Packet.COM_STMT_SEND_LONG_DATA);
+    }
+
     public boolean isLongData() {
         return true;
     }
@@ -51,6 +51,7 @@ OF SUCH DAMAGE.
 package org.mariadb.jdbc.internal.packet.dao.parameters;
 
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
+import org.mariadb.jdbc.internal.stream.PayloadSegment;
 
 import java.io.*;
 import java.util.ArrayList;
@@ -80,6 +81,20 @@ public class ParameterWriter {
         }
     }
 
+    private static long escapedLength(byte[] bytes, boolean noBackslashEscapes) {
+        long length = bytes.length;
+        if (noBackslashEscapes) {
+            for (byte value : bytes) {
+                if ('\'' == value) length++;
+            }
+        } else {
+            for (byte value : bytes) {
+                if (value == '\'' || value == '\\' || value == '"' || value == 0) length++;
+            }
+        }
+        return length;
+    }
+
     private static void writeBytesEscapedUnsafe(PacketOutputStream out, byte[] bytes, int count, boolean noBackslashEscapes) {
         if (noBackslashEscapes) {
             for (int i = 0; i < count; i++) {
@@ -107,7 +122,12 @@ public class ParameterWriter {
      */
     public static void write(OutputStream out, byte[] bytes, boolean noBackslashEscapes) throws IOException {
         out.write(BINARY_INTRODUCER);
-        writeBytesEscaped(out, bytes, bytes.length, noBackslashEscapes);
+        if (out instanceof PacketOutputStream && ((PacketOutputStream) out).canWriteSegment(bytes.length)) {
+            //big array are escaped when sent, not copied into packet buffer
+            ((PacketOutputStream) out).writeSegment(new EscapedBytesSegment(bytes, noBackslashEscapes));
+        } else {
+            writeBytesEscaped(out, bytes, bytes.length, noBackslashEscapes);
+        }
         out.write(QUOTE);
     }
 
@@ -377,4 +397,26 @@ public class ParameterWriter {
         }
     }
 
+    /**
+     * Byte array escaped when written to socket. Escaped length is computed at creation.
+     */
+    private static final class EscapedBytesSegment implements PayloadSegment {
+        private final byte[] bytes;
+        private final boolean noBackslashEscapes;
+        private final long length;
+
+        private EscapedBytesSegment(byte[] bytes, boolean noBackslashEscapes) {
+            this.bytes = bytes;
+            this.noBackslashEscapes = noBackslashEscapes;
+            this.length = escapedLength(bytes, noBackslashEscapes);
+        }
+
+        public long length() {
+            return length;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            writeBytesEscaped(out, bytes, bytes.length, noBackslashEscapes);
+        }
+    }
 }
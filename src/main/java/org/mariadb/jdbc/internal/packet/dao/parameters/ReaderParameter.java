@@ -49,7 +49,6 @@ OF SUCH DAMAGE.
 
 package org.mariadb.jdbc.internal.packet.dao.parameters;
 
-import org.mariadb.jdbc.internal.packet.Packet;
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
 import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
@@ -58,7 +57,6 @@ import java.io.*;
 import java.nio.charset.StandardCharsets;
 
 public class ReaderParameter extends LongDataParameter {
-    private static final int BUF_SIZE = 1024 * 1024 + 4; //big buffer (server reallocate array each send)
     private static final int CHAR_BUF_SIZE = 4096;
     private Reader reader;
     private long length;
@@ -121,7 +119,8 @@ public class ReaderParameter extends LongDataParameter {
 
     /**
      * Send reader in one or many COM_STMT_LONG_DATA.
-     * (reading is using a big buffer to avoid having a lot of packet, because server will allocate/deallocate array each send)
+     * Reader is read by chunk, bounded by max_allowed_packet, so whole value is never loaded in memory.
+     * (chunks are filled as much as possible to avoid having a lot of packet, because server will allocate/deallocate array each send)
      *
      * @param statementId statement id
      * @param parameterId parameter number
@@ -130,52 +129,49 @@ public class ReaderParameter extends LongDataParameter {
      * @throws QueryException if query size is to big according to server max_allowed_size
      */
     public void sendComLongData(int statementId, short parameterId, PacketOutputStream writer) throws IOException, QueryException {
-
-        byte[] arr = new byte[BUF_SIZE];
-        char[] charBuffer = new char[CHAR_BUF_SIZE];
-        int len;
-        int position;
-        long remainingReadLength = length;
-
-        while (remainingReadLength > 0) {
-            writer.startPacket(0);
-            //write statement id
-            arr[0] = (byte) (statementId & 0xff);
-            arr[1] = (byte) (statementId >>> 8);
-            arr[2] = (byte) (statementId >>> 16);
-            arr[3] = (byte) (statementId >>> 24);
-
-            //write parameter number
-            arr[4] = (byte) (parameterId & 0xff);
-            arr[5] = (byte) (parameterId >>> 8);
-
-            position = 6;
-
-            len = 0;
-            //write part of reader
-            //will read until stream is finished, or nearly complete the buffer
-            //(we cannot guess the exact size of characters in byte, but max size is * 3)
-            if (length == Long.MAX_VALUE) {
-                while (position + 3 * CHAR_BUF_SIZE < BUF_SIZE && (len = reader.read(charBuffer)) > 0) {
-                    byte[] bytes = new String(charBuffer, 0, len).getBytes("UTF-8");
-                    System.arraycopy(bytes, 0, arr, position, bytes.length);
-                    position += bytes.length;
-                }
-            } else {
-                while (position + 3 * CHAR_BUF_SIZE < BUF_SIZE
-                        && (len = reader.read(charBuffer, 0, Math.min((int) remainingReadLength, CHAR_BUF_SIZE))) > 0) {
-                    byte[] bytes = new String(charBuffer, 0, len).getBytes("UTF-8");
-                    System.arraycopy(bytes, 0, arr, position, bytes.length);
-                    position += bytes.length;
-                    remainingReadLength -= len;
+        int chunkSize = chunkSize(writer);
+        //we cannot guess the exact size of characters in byte, but max size is * 3
+        int maxChars = Math.max(1, Math.min(CHAR_BUF_SIZE, chunkSize / 3 - 1));
+        char[] charBuffer = new char[maxChars + 1];
+        byte[] arr = writer.acquireArray(chunkSize + 6);
+        try {
+            long remainingReadLength = length;
+            int pendingChars = 0;
+            boolean endOfReader = false;
+
+            while (!endOfReader) {
+                int position = 6;
+                //will read until reader is finished, or nearly complete the chunk
+                while (position + 3 * (maxChars + 1) <= chunkSize + 6) {
+                    int len = (remainingReadLength > 0)
+                            ? reader.read(charBuffer, pendingChars, (int) Math.min(remainingReadLength, maxChars)) : -1;
+                    if (len == -1) {
+                        endOfReader = true;
+                        len = 0;
+                    } else {
+                        remainingReadLength -= len;
+                    }
+
+                    int chars = pendingChars + len;
+                    pendingChars = 0;
+                    //keep high surrogate with its low surrogate, that will be read next time
+                    if (!endOfReader && chars > 0 && Character.isHighSurrogate(charBuffer[chars - 1])) {
+                        chars--;
+                        pendingChars = 1;
+                    }
+                    if (chars > 0) {
+                        byte[] bytes = new String(charBuffer, 0, chars).getBytes(StandardCharsets.UTF_8);
+                        System.arraycopy(bytes, 0, arr, position, bytes.length);
+                        position += bytes.length;
+                    }
+                    if (pendingChars == 1) charBuffer[0] = charBuffer[chars];
+                    if (endOfReader) break;
                 }
-            }
 
-            if (position > 6) {
-                writer.sendDirect(arr, 0, position, Packet.COM_STMT_SEND_LONG_DATA);
-            } else {
-                if (len == -1) break;
+                if (position > 6) sendChunk(statementId, parameterId, writer, arr, position - 6);
             }
+        } finally {
+            writer.releaseArray(arr);
         }
     }
 
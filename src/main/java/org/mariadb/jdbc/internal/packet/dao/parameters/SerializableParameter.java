@@ -50,7 +50,6 @@ OF SUCH DAMAGE.
 package org.mariadb.jdbc.internal.packet.dao.parameters;
 
 import org.mariadb.jdbc.internal.MariaDbType;
-import org.mariadb.jdbc.internal.packet.Packet;
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 
@@ -111,7 +110,8 @@ public class SerializableParameter extends LongDataParameter {
 
     /**
      * Send data in one or many COM_STMT_LONG_DATA.
-     * (Data is read is using a big buffer to avoid having a lot of packet, because server will allocate/deallocate array each send)
+     * (Data is send by chunk bounded by max_allowed_packet, big enough to avoid having a lot of packet,
+     * because server will allocate/deallocate array each send)
      *
      * @param statementId statement id
      * @param parameterId parameter number
@@ -120,16 +120,20 @@ public class SerializableParameter extends LongDataParameter {
      * @throws QueryException if query size is to big according to server max_allowed_size
      */
     public void sendComLongData(int statementId, short parameterId, PacketOutputStream writer) throws IOException, QueryException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        ObjectOutputStream oos = new ObjectOutputStream(baos);
-        oos.writeObject(object);
-
-        writer.startPacket(0);
-        writer.buffer.put(Packet.COM_STMT_SEND_LONG_DATA);
-        writer.writeInt(statementId);
-        writer.buffer.putShort(parameterId);
-        writer.write(baos.toByteArray());
-        writer.finishPacketWithoutRelease(true);
+        if (loadedStream == null) writeObjectToBytes();
+        int chunkSize = chunkSize(writer);
+        byte[] array = writer.acquireArray(Math.min(chunkSize, loadedStream.length) + 6);
+        try {
+            int position = 0;
+            do {
+                int len = Math.min(chunkSize, loadedStream.length - position);
+                System.arraycopy(loadedStream, position, array, 6, len);
+                sendChunk(statementId, parameterId, writer, array, len);
+                position += len;
+            } while (position < loadedStream.length);
+        } finally {
+            writer.releaseArray(array);
+        }
     }
 
     @Override
@@ -50,7 +50,6 @@ OF SUCH DAMAGE.
 package org.mariadb.jdbc.internal.packet.dao.parameters;
 
 import org.mariadb.jdbc.internal.MariaDbType;
-import org.mariadb.jdbc.internal.packet.Packet;
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 
@@ -60,8 +59,6 @@ import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 
 public class StreamParameter extends LongDataParameter {
-    private static final int BUF_SIZE = 1024 * 1024 + 4; //big buffer (server reallocate array each send)
-
     private InputStream is;
     private long length;
     private boolean noBackslashEscapes;
@@ -119,7 +116,8 @@ public class StreamParameter extends LongDataParameter {
 
     /**
      * Send stream in one or many COM_STMT_LONG_DATA.
-     * (stream read is using a big buffer to avoid having a lot of packet, because server will allocate/deallocate array each send)
+     * Stream is read by chunk, bounded by max_allowed_packet, so whole value is never loaded in memory.
+     * (chunks are filled as much as possible to avoid having a lot of packet, because server will allocate/deallocate array each send)
      *
      * @param statementId statement id
      * @param parameterId parameter number
@@ -128,36 +126,29 @@ public class StreamParameter extends LongDataParameter {
      * @throws QueryException if query size is to big according to server max_allowed_size
      */
     public void sendComLongData(int statementId, short parameterId, PacketOutputStream writer) throws IOException, QueryException {
-        byte[] array = new byte[BUF_SIZE];
-        int len;
-        if (length == Long.MAX_VALUE) {
-            while ((len = is.read(array, 6, BUF_SIZE - 6)) > 0) {
-                sendComPacket(statementId, parameterId, writer, array, len);
-            }
-        } else {
+        int chunkSize = chunkSize(writer);
+        byte[] array = writer.acquireArray(chunkSize + 6);
+        try {
             long remainingReadLength = length;
-            while (remainingReadLength > 0) {
-                len = is.read(array, 6, Math.min((int) remainingReadLength, BUF_SIZE - 6));
-                if (len == -1) return;
-                sendComPacket(statementId, parameterId, writer, array, len);
-                remainingReadLength -= len;
+            boolean endOfStream = false;
+            while (!endOfStream && remainingReadLength > 0) {
+                int position = 6;
+                while (position < chunkSize + 6 && remainingReadLength > 0) {
+                    int len = is.read(array, position, (int) Math.min(remainingReadLength, chunkSize + 6 - position));
+                    if (len == -1) {
+                        endOfStream = true;
+                        break;
+                    }
+                    position += len;
+                    remainingReadLength -= len;
+                }
+                if (position > 6) sendChunk(statementId, parameterId, writer, array, position - 6);
             }
+        } finally {
+            writer.releaseArray(array);
         }
     }
 
-    private void sendComPacket(int statementId, short parameterId, PacketOutputStream writer, byte[] array, int len)
-            throws IOException, QueryException {
-        writer.startPacket(0);
-        array[0] = (byte) (statementId & 0xff);
-        array[1] = (byte) (statementId >>> 8);
-        array[2] = (byte) (statementId >>> 16);
-        array[3] = (byte) (statementId >>> 24);
-        array[4] = (byte) (parameterId & 0xff);
-        array[5] = (byte) (parameterId >>> 8);
-        writer.sendDirect(array, 0, len + 6, Packet.COM_STMT_SEND_LONG_DATA);
-    }
-
-
     @Override
     public String toString() {
         try {
@@ -55,6 +55,7 @@ import org.mariadb.jdbc.internal.logging.LoggerFactory;
 import org.mariadb.jdbc.internal.stream.MariaDbInputStream;
 import org.mariadb.jdbc.internal.util.Utils;
 import org.mariadb.jdbc.internal.util.buffer.Buffer;
+import org.mariadb.jdbc.internal.util.buffer.BufferPool;
 import java.io.EOFException;
 import java.io.IOException;
 
@@ -68,6 +69,8 @@ public class ReadPacketFetcher {
 
     private byte[] headerBuffer = new byte[4];
     private byte[] reusableBuffer = new byte[AVOID_CREATE_BUFFER_LENGTH];
+    private BufferPool bufferPool;
+    private byte[] pooledBuffer;
 
     /**
      * Reader utility to fetch mysql packet.
@@ -79,6 +82,15 @@ public class ReadPacketFetcher {
         this.maxQuerySizeToLog = maxQuerySizeToLog;
     }
 
+    /**
+     * Use a shared pool for reusable buffers bigger than AVOID_CREATE_BUFFER_LENGTH.
+     *
+     * @param bufferPool buffer pool
+     */
+    public void setBufferPool(BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
     /**
      * Get next packet length.
      *
@@ -143,6 +155,10 @@ public class ReadPacketFetcher {
         } else {
             if (lastReusableArray != null && lastReusableArray.length > length) {
                 rawBytes = lastReusableArray;
+            } else if (bufferPool != null) {
+                //last array content is not used anymore
+                releaseBuffer(lastReusableArray);
+                rawBytes = bufferPool.acquire(length);
             } else {
                 rawBytes = new byte[length];
             }
@@ -185,7 +201,14 @@ public class ReadPacketFetcher {
         byte[] rawBytes;
 
         if (length < ReadPacketFetcher.AVOID_CREATE_BUFFER_LENGTH) {
+            releasePooledBuffer();
             rawBytes = reusableBuffer;
+        } else if (bufferPool != null) {
+            if (pooledBuffer == null || pooledBuffer.length < length) {
+                releasePooledBuffer();
+                pooledBuffer = bufferPool.acquire(length);
+            }
+            rawBytes = pooledBuffer;
         } else {
             rawBytes = new byte[length];
         }
@@ -214,7 +237,35 @@ public class ReadPacketFetcher {
     }
     
     
+    /**
+     * Give back reusable buffer to pool : its content is not used anymore once a smaller packet is read.
+     */
+    private void releasePooledBuffer() {
+        if (pooledBuffer != null) {
+            bufferPool.release(pooledBuffer);
+            pooledBuffer = null;
+        }
+    }
+
+    /**
+     * Give back pooled buffer once a result has been read, so a connection doesn't keep a big array while idle.
+     * Buffers previously returned by {@link #getReusableBuffer()} must not be used afterward.
+     */
+    public void releaseBuffers() {
+        releasePooledBuffer();
+    }
+
+    /**
+     * Give back an array returned by {@link #getReusableBuffer(int, byte[])} to pool, when it's not used anymore.
+     *
+     * @param array array (can be null)
+     */
+    public void releaseBuffer(byte[] array) {
+        if (bufferPool != null && array != reusableBuffer) bufferPool.release(array);
+    }
+
     public void close() throws IOException {
+        releasePooledBuffer();
         inputStream.close();
     }
 
@@ -51,9 +51,11 @@ package org.mariadb.jdbc.internal.packet.result;
 
 import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
 import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
+import org.mariadb.jdbc.internal.queryresults.resultset.RowArena;
 import org.mariadb.jdbc.internal.stream.MariaDbInputStream;
 import org.mariadb.jdbc.internal.util.buffer.Buffer;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -61,6 +63,7 @@ import java.io.InputStream;
 public class BinaryRowPacket implements RowPacket {
     private final ColumnInformation[] columnInformation;
     private final int columnInformationLength;
+    private byte[] nullBitsBuffer;
 
     /**
      * Constructor.
@@ -114,19 +117,27 @@ public class BinaryRowPacket implements RowPacket {
      *
      * @param packetFetcher packetFetcher
      * @param buffer        current buffer
-     * @return read data
+     * @param arena         row storage
      * @throws IOException if any connection error occur
      */
-    public byte[][] getRow(ReadPacketFetcher packetFetcher, Buffer buffer) throws IOException {
-        byte[][] valueObjects = new byte[columnInformationLength][];
+    public void appendRow(ReadPacketFetcher packetFetcher, Buffer buffer, RowArena arena) throws IOException {
+        if (arena.isLazy()) {
+            arena.appendRawRow(packetFetcher, buffer);
+            return;
+        }
         buffer.skipByte(); //stream header
         int nullCount = (columnInformationLength + 9) / 8;
-        byte[] nullBitsBuffer = buffer.readRawBytes(nullCount);
+        if (nullBitsBuffer == null || nullBitsBuffer.length < nullCount) {
+            nullBitsBuffer = new byte[nullCount];
+        }
+        System.arraycopy(buffer.buf, buffer.position, nullBitsBuffer, 0, nullCount);
+        buffer.skipBytes(nullCount);
+        arena.startRow(buffer.remaining());
 
         for (int i = 0; i < columnInformationLength; i++) {
             if ((nullBitsBuffer[(i + 2) / 8] & (1 << ((i + 2) % 8))) > 0) {
                 //field is null
-                valueObjects[i] = null;
+                arena.appendNull();
             } else {
                 switch (columnInformation[i].getType()) {
                     case VARCHAR:
@@ -147,68 +158,79 @@ public class BinaryRowPacket implements RowPacket {
                     case DATETIME:
                     case TIMESTAMP:
                         long length = appendPacketIfNeeded(buffer, packetFetcher);
-                        valueObjects[i] = buffer.getLengthEncodedBytesWithLength(length);
+                        appendValue(buffer, arena, length);
                         break;
 
                     case BIGINT:
+                    case DOUBLE:
                         appendPacketIfNeeded(buffer, packetFetcher, 8);
-                        valueObjects[i] = buffer.getLengthEncodedBytesWithLength(8);
+                        appendValue(buffer, arena, 8);
                         break;
 
                     case INTEGER:
                     case MEDIUMINT:
+                    case FLOAT:
                         appendPacketIfNeeded(buffer, packetFetcher, 4);
-                        valueObjects[i] = buffer.getLengthEncodedBytesWithLength(4);
+                        appendValue(buffer, arena, 4);
                         break;
 
                     case SMALLINT:
                     case YEAR:
                         appendPacketIfNeeded(buffer, packetFetcher, 2);
-                        valueObjects[i] = buffer.getLengthEncodedBytesWithLength(2);
+                        appendValue(buffer, arena, 2);
                         break;
 
                     case TINYINT:
                         appendPacketIfNeeded(buffer, packetFetcher, 1);
-                        valueObjects[i] = buffer.getLengthEncodedBytesWithLength(1);
+                        appendValue(buffer, arena, 1);
                         break;
 
-                    case DOUBLE:
-                        appendPacketIfNeeded(buffer, packetFetcher, 8);
-                        valueObjects[i] = buffer.getLengthEncodedBytesWithLength(8);
-                        break;
-
-                    case FLOAT:
-                        appendPacketIfNeeded(buffer, packetFetcher, 4);
-                        valueObjects[i] = buffer.getLengthEncodedBytesWithLength(4);
-                        break;
                     default:
                         appendPacketIfNeeded(buffer, packetFetcher);
-                        valueObjects[i] = null;
+                        arena.appendNull();
                         break;
                 }
             }
         }
-        return valueObjects;
+        arena.endRow();
+    }
+
+    private void appendValue(Buffer buffer, RowArena arena, long length) {
+        if (length < 0) {
+            arena.appendNull();
+        } else {
+            arena.append(buffer.buf, buffer.position, (int) length);
+            buffer.position += (int) length;
+        }
     }
 
     /**
-     * Read text row stream. (to fetch Resulset.next() datas)
+     * Read binary row stream. (to fetch Resulset.next() datas)
      *
      * @param packetFetcher packetFetcher
-     * @param inputStream inputStream
-     * @return datas object
+     * @param inputStream   inputStream
+     * @param remaining     remaining packet length
+     * @param read          first packet byte
+     * @param arena         row storage
      * @throws IOException if any connection error occur
      */
-    public byte[][] getRow(ReadPacketFetcher packetFetcher, MariaDbInputStream inputStream, int remaining, int read) throws IOException {
-        byte[][] valueObjects = new byte[columnInformationLength][];
+    public void appendRow(ReadPacketFetcher packetFetcher, MariaDbInputStream inputStream, int remaining, int read, RowArena arena)
+            throws IOException {
+        if (arena.isLazy()) {
+            arena.appendRawRow(read, inputStream, remaining);
+            return;
+        }
         int toReadLen;
         int nullCount = (columnInformationLength + 9) / 8;
-        byte[] nullBitsBuffer = packetFetcher.readLength(nullCount);
+        readNullBitmap(inputStream, nullCount);
         remaining -= nullCount;
+        //row data length is always less than packet length
+        arena.startRow(remaining);
+
         for (int i = 0; i < columnInformationLength; i++) {
             if ((nullBitsBuffer[(i + 2) / 8] & (1 << ((i + 2) % 8))) > 0) {
                 //field is null
-                valueObjects[i] = null;
+                arena.appendNull();
             } else {
                 switch (columnInformation[i].getType()) {
                     case VARCHAR:
@@ -259,44 +281,146 @@ public class BinaryRowPacket implements RowPacket {
                                 toReadLen = read;
                         }
                         if (toReadLen == -1) {
-                            valueObjects[i] = null;
-                        } else if (toReadLen == 0) {
-                            valueObjects[i] = new byte[0];
+                            arena.appendNull();
                         } else {
-                            valueObjects[i] = packetFetcher.readLength(toReadLen);
+                            arena.append(inputStream, toReadLen);
                             remaining -= toReadLen;
                         }
                         break;
 
                     case BIGINT:
                     case DOUBLE:
-                        valueObjects[i] = packetFetcher.readLength(8);
+                        arena.append(inputStream, 8);
                         remaining -= 8;
                         break;
 
                     case INTEGER:
                     case MEDIUMINT:
                     case FLOAT:
-                        valueObjects[i] = packetFetcher.readLength(4);
+                        arena.append(inputStream, 4);
                         remaining -= 4;
                         break;
 
                     case SMALLINT:
                     case YEAR:
-                        valueObjects[i] = packetFetcher.readLength(2);
+                        arena.append(inputStream, 2);
                         remaining -= 2;
                         break;
 
                     case TINYINT:
-                        valueObjects[i] = new byte[]{(byte) inputStream.read()};
+                        arena.append((byte) inputStream.read());
                         remaining -= 1;
                         break;
                     default:
-                        valueObjects[i] = null;
+                        arena.appendNull();
                         break;
                 }
             }
         }
-        return valueObjects;
+        arena.endRow();
+    }
+
+    /**
+     * Compute column boundaries of a binary row stored in raw packet format.
+     *
+     * @param buf     array containing row
+     * @param start   row start offset
+     * @param end     row end offset
+     * @param offsets column value offsets (output)
+     * @param lengths column value lengths, -1 for NULL value (output)
+     */
+    public void sliceRow(byte[] buf, int start, int end, int[] offsets, int[] lengths) {
+        int nullBitsPosition = start + 1; //skip stream header
+        int pos = nullBitsPosition + (columnInformationLength + 9) / 8;
+        for (int i = 0; i < columnInformationLength; i++) {
+            if ((buf[nullBitsPosition + (i + 2) / 8] & (1 << ((i + 2) % 8))) > 0) {
+                //field is null
+                lengths[i] = -1;
+                continue;
+            }
+            int length;
+            switch (columnInformation[i].getType()) {
+                case VARCHAR:
+                case BIT:
+                case ENUM:
+                case SET:
+                case TINYBLOB:
+                case MEDIUMBLOB:
+                case LONGBLOB:
+                case BLOB:
+                case VARSTRING:
+                case STRING:
+                case GEOMETRY:
+                case OLDDECIMAL:
+                case DECIMAL:
+                case TIME:
+                case DATE:
+                case DATETIME:
+                case TIMESTAMP:
+                    length = buf[pos++] & 0xff;
+                    switch (length) {
+                        case 251:
+                            length = -1;
+                            break;
+                        case 252:
+                            length = (buf[pos] & 0xff) + ((buf[pos + 1] & 0xff) << 8);
+                            pos += 2;
+                            break;
+                        case 253:
+                            length = (buf[pos] & 0xff) + ((buf[pos + 1] & 0xff) << 8) + ((buf[pos + 2] & 0xff) << 16);
+                            pos += 3;
+                            break;
+                        case 254:
+                            length = (buf[pos] & 0xff) + ((buf[pos + 1] & 0xff) << 8) + ((buf[pos + 2] & 0xff) << 16)
+                                    + ((buf[pos + 3] & 0xff) << 24);
+                            pos += 8;
+                            break;
+                        default:
+                            //length on 1 byte
+                    }
+                    break;
+
+                case BIGINT:
+                case DOUBLE:
+                    length = 8;
+                    break;
+
+                case INTEGER:
+                case MEDIUMINT:
+                case FLOAT:
+                    length = 4;
+                    break;
+
+                case SMALLINT:
+                case YEAR:
+                    length = 2;
+                    break;
+
+                case TINYINT:
+                    length = 1;
+                    break;
+
+                default:
+                    length = -1;
+                    break;
+            }
+            offsets[i] = pos;
+            lengths[i] = length;
+            if (length > 0) pos += length;
+        }
+    }
+
+    private void readNullBitmap(MariaDbInputStream inputStream, int nullCount) throws IOException {
+        if (nullBitsBuffer == null || nullBitsBuffer.length < nullCount) {
+            nullBitsBuffer = new byte[nullCount];
+        }
+        int off = 0;
+        while (off < nullCount) {
+            int count = inputStream.read(nullBitsBuffer, off, nullCount - off);
+            if (count <= 0) {
+                throw new EOFException("unexpected end of stream, read " + off + " bytes from " + nullCount);
+            }
+            off += count;
+        }
     }
 }
\ No newline at end of file
@@ -51,6 +51,7 @@ OF SUCH DAMAGE.
 
 
 import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
+import org.mariadb.jdbc.internal.queryresults.resultset.RowArena;
 import org.mariadb.jdbc.internal.stream.MariaDbInputStream;
 import org.mariadb.jdbc.internal.util.buffer.Buffer;
 
@@ -59,7 +60,19 @@ import java.io.InputStream;
 
 public interface RowPacket {
 
-    byte[][] getRow(ReadPacketFetcher packetFetcher, Buffer buffer) throws IOException;
-
-    byte[][] getRow(ReadPacketFetcher packetFetcher, MariaDbInputStream inputStream, int remaining, int read) throws IOException;
+    void appendRow(ReadPacketFetcher packetFetcher, Buffer buffer, RowArena arena) throws IOException;
+
+    void appendRow(ReadPacketFetcher packetFetcher, MariaDbInputStream inputStream, int remaining, int read, RowArena arena)
+            throws IOException;
+
+    /**
+     * Compute column boundaries of a row stored in raw packet format.
+     *
+     * @param buf     array containing row
+     * @param start   row start offset
+     * @param end     row end offset
+     * @param offsets column value offsets (output)
+     * @param lengths column value lengths, -1 for NULL value (output)
+     */
+    void sliceRow(byte[] buf, int start, int end, int[] offsets, int[] lengths);
 }
@@ -50,6 +50,7 @@ OF SUCH DAMAGE.
 package org.mariadb.jdbc.internal.packet.result;
 
 import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
+import org.mariadb.jdbc.internal.queryresults.resultset.RowArena;
 import org.mariadb.jdbc.internal.stream.MariaDbInputStream;
 import org.mariadb.jdbc.internal.util.buffer.Buffer;
 
@@ -75,19 +76,22 @@ public class TextRowPacket implements RowPacket {
      *
      * @param packetFetcher packetFetcher
      * @param buffer        current buffer
-     * @return datas object
+     * @param arena         row storage
      * @throws IOException if any connection error occur
      */
-    public byte[][] getRow(ReadPacketFetcher packetFetcher, Buffer buffer) throws IOException {
-
-        byte[][] valueObjects = new byte[columnInformationLength][];
+    public void appendRow(ReadPacketFetcher packetFetcher, Buffer buffer, RowArena arena) throws IOException {
+        if (arena.isLazy()) {
+            arena.appendRawRow(packetFetcher, buffer);
+            return;
+        }
+        arena.startRow(buffer.remaining());
         for (int i = 0; i < columnInformationLength; i++) {
             while (buffer.remaining() == 0) {
                 buffer.appendPacket(packetFetcher.getPacket());
             }
             long valueLen = buffer.getLengthEncodedBinary();
             if (valueLen == -1) {
-                valueObjects[i] = null;
+                arena.appendNull();
             } else {
                 if (buffer.remaining() < valueLen) {
                     buffer.grow((int) valueLen);
@@ -95,24 +99,31 @@ public class TextRowPacket implements RowPacket {
                         buffer.appendPacket(packetFetcher.getPacket());
                     }
                 }
-                valueObjects[i] = buffer.readRawBytes((int) valueLen);
+                arena.append(buffer.buf, buffer.position, (int) valueLen);
+                buffer.position += (int) valueLen;
             }
         }
-        return valueObjects;
+        arena.endRow();
     }
 
     /**
      * Read text row stream. (to fetch Resulset.next() datas)
      *
      * @param packetFetcher packetFetcher
-     * @param inputStream inputStream
-     * @return datas object
+     * @param inputStream   inputStream
+     * @param remaining     remaining packet length
+     * @param read          first packet byte
+     * @param arena         row storage
      * @throws IOException if any connection error occur
      */
-    public byte[][] getRow(ReadPacketFetcher packetFetcher, MariaDbInputStream inputStream, int remaining, int read) throws IOException {
-
-        byte[][] valueObjects = new byte[columnInformationLength][];
-        int position = 0;
+    public void appendRow(ReadPacketFetcher packetFetcher, MariaDbInputStream inputStream, int remaining, int read, RowArena arena)
+            throws IOException {
+        if (arena.isLazy()) {
+            arena.appendRawRow(read, inputStream, remaining);
+            return;
+        }
+        //row data length is always less than packet length
+        arena.startRow(remaining);
         int toReadLen;
 
         while (true) {
@@ -145,11 +156,9 @@ public class TextRowPacket implements RowPacket {
                     toReadLen = read;
             }
             if (toReadLen == -1) {
-                valueObjects[position++] = null;
-            } else if (toReadLen == 0) {
-                valueObjects[position++] = new byte[0];
+                arena.appendNull();
             } else {
-                valueObjects[position++] = packetFetcher.readLength(toReadLen);
+                arena.append(inputStream, toReadLen);
                 remaining -= toReadLen;
             }
             if (remaining <= 0) {
@@ -158,8 +167,50 @@ public class TextRowPacket implements RowPacket {
             read = inputStream.read() & 0xff;
             remaining -= 1;
         }
-        return valueObjects;
+        arena.endRow();
     }
 
+    /**
+     * Compute column boundaries of a text row stored in raw packet format.
+     *
+     * @param buf     array containing row
+     * @param start   row start offset
+     * @param end     row end offset
+     * @param offsets column value offsets (output)
+     * @param lengths column value lengths, -1 for NULL value (output)
+     */
+    public void sliceRow(byte[] buf, int start, int end, int[] offsets, int[] lengths) {
+        int pos = start;
+        for (int i = 0; i < columnInformationLength; i++) {
+            if (pos >= end) {
+                lengths[i] = -1;
+                continue;
+            }
+            int length = buf[pos++] & 0xff;
+            switch (length) {
+                case 251:
+                    length = -1;
+                    break;
+                case 252:
+                    length = (buf[pos] & 0xff) + ((buf[pos + 1] & 0xff) << 8);
+                    pos += 2;
+                    break;
+                case 253:
+                    length = (buf[pos] & 0xff) + ((buf[pos + 1] & 0xff) << 8) + ((buf[pos + 2] & 0xff) << 16);
+                    pos += 3;
+                    break;
+                case 254:
+                    length = (buf[pos] & 0xff) + ((buf[pos + 1] & 0xff) << 8) + ((buf[pos + 2] & 0xff) << 16)
+                            + ((buf[pos + 3] & 0xff) << 24);
+                    pos += 8;
+                    break;
+                default:
+                    //length on 1 byte
+            }
+            offsets[i] = pos;
+            lengths[i] = length;
+            if (length > 0) pos += length;
+        }
+    }
 
-}
\ No newline at end of file
+}
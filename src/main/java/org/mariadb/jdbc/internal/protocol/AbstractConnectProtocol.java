@@ -65,10 +65,14 @@ import org.mariadb.jdbc.internal.packet.send.*;
 import org.mariadb.jdbc.internal.protocol.authentication.AuthenticationProviderHolder;
 import org.mariadb.jdbc.internal.queryresults.Results;
 import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
+import org.mariadb.jdbc.internal.stream.ChannelInputStream;
+import org.mariadb.jdbc.internal.stream.ChannelOutputStream;
+import org.mariadb.jdbc.internal.stream.CompressionPolicy;
 import org.mariadb.jdbc.internal.stream.MariaDbBufferedInputStream;
 import org.mariadb.jdbc.internal.stream.MariaDbInputStream;
 import org.mariadb.jdbc.internal.util.*;
 import org.mariadb.jdbc.internal.util.buffer.Buffer;
+import org.mariadb.jdbc.internal.util.buffer.BufferPool;
 import org.mariadb.jdbc.internal.packet.read.ReadInitialConnectPacket;
 import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
 import org.mariadb.jdbc.internal.packet.Packet;
@@ -79,6 +83,7 @@ import org.mariadb.jdbc.internal.util.dao.QueryException;
 import org.mariadb.jdbc.internal.packet.result.*;
 import org.mariadb.jdbc.internal.stream.DecompressInputStream;
 import org.mariadb.jdbc.internal.stream.PacketOutputStream;
+import org.mariadb.jdbc.internal.stream.SocketChannelTransport;
 
 import javax.net.ssl.*;
 
@@ -98,6 +103,10 @@ import static org.mariadb.jdbc.internal.util.SqlStates.CONNECTION_EXCEPTION;
 
 public abstract class AbstractConnectProtocol implements Protocol {
     private static Logger logger = LoggerFactory.getLogger(AbstractConnectProtocol.class);
+    private static final String SERVER_DATA_QUERY = "SELECT @@max_allowed_packet , "
+            + "@@system_time_zone, "
+            + "@@time_zone, "
+            + "@@sql_mode";
     private final String username;
     private final String password;
     private boolean hostFailed;
@@ -113,6 +122,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
     protected final UrlParser urlParser;
     protected final Options options;
     protected Socket socket;
+    protected SocketChannelTransport channelTransport;
     protected PacketOutputStream writer;
     protected boolean readOnly = false;
     protected ReadPacketFetcher packetFetcher;
@@ -127,6 +137,8 @@ public abstract class AbstractConnectProtocol implements Protocol {
 
     public boolean hasWarnings = false;
     public Results activeStreamingResult = null;
+    private long skippedStreamingBytes;
+    private int killedStreamingQueries;
     public int dataTypeMappingFlags;
     public short serverStatus;
 
@@ -188,7 +200,7 @@ public abstract class AbstractConnectProtocol implements Protocol {
             if (options.cachePrepStmts) {
                 serverPrepareStatementCache.clear();
             }
-            close(packetFetcher, writer, socket);
+            close(packetFetcher, writer, socket, channelTransport);
         } catch (Exception e) {
             // socket is closed, so it is ok to ignore exception
         } finally {
@@ -198,15 +210,21 @@ public abstract class AbstractConnectProtocol implements Protocol {
         }
     }
 
-    protected static void close(ReadPacketFetcher fetcher, PacketOutputStream packetOutputStream, Socket socket) throws QueryException {
+    protected static void close(ReadPacketFetcher fetcher, PacketOutputStream packetOutputStream, Socket socket,
+                                SocketChannelTransport channelTransport) throws QueryException {
         SendClosePacket closePacket = new SendClosePacket();
         try {
             try {
                 closePacket.send(packetOutputStream);
                 socket.shutdownOutput();
                 socket.setSoTimeout(3);
-                InputStream is = socket.getInputStream();
-                while (is.read() != -1) {
+                if (channelTransport != null) {
+                    //socket streams cannot be used with a non-blocking channel
+                    channelTransport.drain();
+                } else {
+                    InputStream is = socket.getInputStream();
+                    while (is.read() != -1) {
+                    }
                 }
             } catch (Throwable t) {
                 //eat exception
@@ -383,14 +401,23 @@ public abstract class AbstractConnectProtocol implements Protocol {
 
             if (options.useCompression) {
                 writer.setUseCompression(true);
-                packetFetcher = new ReadPacketFetcher(new DecompressInputStream(socket.getInputStream()), options.maxQuerySizeToLog);
+                writer.setParallelCompression(AbstractQueryProtocol.readScheduler, options.compressionThreads);
+                writer.setAdaptiveCompression(options.adaptiveCompression);
+                //channel stream (and its pooled buffer) used during handshake is kept
+                InputStream socketInputStream = (channelTransport != null)
+                        ? (InputStream) packetFetcher.getInputStream() : socket.getInputStream();
+                packetFetcher = new ReadPacketFetcher(new DecompressInputStream(socketInputStream), options.maxQuerySizeToLog);
+            }
+            if (options.useBufferPool) {
+                BufferPool bufferPool = BufferPool.getInstance(options.bufferPoolMaxRetainedBytes);
+                writer.setBufferPool(bufferPool);
+                packetFetcher.setBufferPool(bufferPool);
             }
             connected = true;
 
             writer.forceCleanupBuffer();
 
-            loadServerData();
-            setSessionOptions();
+            initializeSession();
             writer.setMaxAllowedPacket(Integer.parseInt(serverData.get("max_allowed_packet")));
 
             createDatabaseIfNotExist();
@@ -411,6 +438,13 @@ public abstract class AbstractConnectProtocol implements Protocol {
     }
 
     private void ensureClosingSocketOnException() {
+        if (channelTransport != null) {
+            try {
+                channelTransport.close();
+            } catch (IOException ioe) {
+                //eat exception
+            }
+        }
         if (socket != null) {
             try {
                 socket.close();
@@ -429,7 +463,55 @@ public abstract class AbstractConnectProtocol implements Protocol {
         return !this.connected;
     }
 
-    private void setSessionOptions()  throws QueryException {
+    /**
+     * Initialize session : session options and server variables loading.
+     * Queries are all sent before reading any response, so connection initialization cost a single round trip.
+     * Queries must not have side effects outside session, since they are all executed even if one fails.
+     *
+     * @throws QueryException if any query fail
+     */
+    private void initializeSession() throws QueryException {
+        List<String> queries = new ArrayList<>(2);
+        queries.add("set session " + sessionOptions());
+        //server variables are read after session options, since time_zone may have been changed
+        queries.add(SERVER_DATA_QUERY);
+
+        try {
+            for (String sql : queries) {
+                writer.send(sql, Packet.COM_QUERY);
+            }
+        } catch (IOException ioException) {
+            throw new QueryException("Could not send query: " + ioException.getMessage(), -1, CONNECTION_EXCEPTION, ioException);
+        }
+
+        //read all responses, even after an error, to keep connection state consistent
+        QueryException queryException = null;
+        Results serverDataResults = null;
+        for (int i = 0; i < queries.size(); i++) {
+            Results results = new Results(1);
+            try {
+                moreResults = false;
+                getResult(results);
+                results.commandEnd();
+                if (i == queries.size() - 1) serverDataResults = results;
+            } catch (QueryException exception) {
+                //connection error : next responses cannot be read
+                if (exception.getSqlState() != null && exception.getSqlState().startsWith("08")) throw exception;
+                //server data query error is handled by fallback
+                if (queryException == null && i < queries.size() - 1) {
+                    queryException = exception;
+                    if (options.dumpQueriesOnException || queryException.getErrorCode() == 1064) {
+                        queryException.setMessage(queryException.getMessage() + "\nQuery is : " + queries.get(i));
+                    }
+                }
+            }
+        }
+        if (queryException != null) throw queryException;
+
+        loadServerData(serverDataResults);
+    }
+
+    private String sessionOptions() {
         // In JDBC, connection must start in autocommit mode
         // [CONJ-269] we cannot rely on serverStatus & ServerStatus.AUTOCOMMIT before this command to avoid this command.
         // if autocommit=0 is set on server configuration, DB always send Autocommit on serverStatus flag
@@ -437,33 +519,31 @@ public abstract class AbstractConnectProtocol implements Protocol {
         String sessionOption = "autocommit=1";
 
         if (options.jdbcCompliantTruncation) {
-            if (serverData.get("sql_mode") == null || "".equals(serverData.get("sql_mode"))) {
-                sessionOption += ",sql_mode='STRICT_TRANS_TABLES'";
-            } else {
-                if (!serverData.get("sql_mode").contains("STRICT_TRANS_TABLES")) {
-                    sessionOption += ",sql_mode='" + serverData.get("sql_mode") + ",STRICT_TRANS_TABLES'";
-                }
-            }
+            //current sql_mode is evaluated by server, avoiding a query to read it before
+            sessionOption += ",sql_mode=IF(FIND_IN_SET('STRICT_TRANS_TABLES', @@sql_mode) > 0, @@sql_mode, "
+                    + "CONCAT_WS(',', NULLIF(@@sql_mode, ''), 'STRICT_TRANS_TABLES'))";
         }
         if (options.sessionVariables != null) {
             sessionOption += "," + options.sessionVariables;
         }
-        executeQuery("set session " + sessionOption);
-
-
-        if (options.sessionVariables != null && options.sessionVariables.contains("time_zone")) {
-            //reload session variables, since, time_zone may have change
-            loadServerData();
-        }
+        return sessionOption;
     }
 
     private void handleConnectionPhases() throws QueryException {
         MariaDbInputStream reader = null;
         try {
-            reader = new MariaDbBufferedInputStream(socket.getInputStream(), 16384);
+            if (socket.getChannel() != null) {
+                channelTransport = new SocketChannelTransport(socket.getChannel());
+                reader = new ChannelInputStream(channelTransport, 16384);
+                writer = new PacketOutputStream(new ChannelOutputStream(channelTransport, 65536),
+                        options.profileSql || options.slowQueryThresholdNanos != null, options.maxQuerySizeToLog);
+            } else {
+                channelTransport = null;
+                reader = new MariaDbBufferedInputStream(socket.getInputStream(), 16384);
+                writer = new PacketOutputStream(socket.getOutputStream(),
+                        options.profileSql || options.slowQueryThresholdNanos != null, options.maxQuerySizeToLog);
+            }
             packetFetcher = new ReadPacketFetcher(reader, options.maxQuerySizeToLog);
-            writer = new PacketOutputStream(socket.getOutputStream(),
-                    options.profileSql || options.slowQueryThresholdNanos != null, options.maxQuerySizeToLog);
 
             final ReadInitialConnectPacket greetingPacket = new ReadInitialConnectPacket(packetFetcher);
             this.serverThreadId = greetingPacket.getServerThreadId();
@@ -618,10 +698,11 @@ public abstract class AbstractConnectProtocol implements Protocol {
 
     /**
      * If createDB is true, then just try to create the database and to use it.
+     * Executed only once session has been initialized successfully.
      * @throws QueryException if connection failed
      */
     private void createDatabaseIfNotExist() throws QueryException {
-        if (checkIfMaster() && options.createDatabaseIfNotExist) {
+        if (options.createDatabaseIfNotExist && checkIfMaster()) {
             // Try to create the database if it does not exist
             String quotedDb = MariaDbConnection.quoteIdentifier(this.database);
             executeQuery("CREATE DATABASE IF NOT EXISTS " + quotedDb);
@@ -667,45 +748,41 @@ public abstract class AbstractConnectProtocol implements Protocol {
 
     }
 
-    private void loadServerData() throws QueryException {
+    private void loadServerData(Results results) throws QueryException {
         serverData = new TreeMap<>();
         try {
-            Results results = new Results(1);
-            executeQuery(true, results, "SELECT @@max_allowed_packet , "
-                            + "@@system_time_zone, "
-                            + "@@time_zone, "
-                            + "@@sql_mode");
-            results.commandEnd();
-            MariaSelectResultSet resultSet = results.getResultSet();
-            resultSet.next();
-
-            serverData.put("max_allowed_packet", resultSet.getString(1));
-            serverData.put("system_time_zone", resultSet.getString(2));
-            serverData.put("time_zone", resultSet.getString(3));
-            serverData.put("sql_mode", resultSet.getString(4));
+            if (results != null) {
+                MariaSelectResultSet resultSet = results.getResultSet();
+                resultSet.next();
 
+                serverData.put("max_allowed_packet", resultSet.getString(1));
+                serverData.put("system_time_zone", resultSet.getString(2));
+                serverData.put("time_zone", resultSet.getString(3));
+                serverData.put("sql_mode", resultSet.getString(4));
+                return;
+            }
         } catch (SQLException sqle) {
+            //eat exception, using fallback
+        }
 
-            //fallback in case of galera non primary nodes that permit only show / set command
-            try {
-                Results results = new Results(1);
-                executeQuery(true, results, "SHOW VARIABLES WHERE Variable_name in ("
-                        + "'max_allowed_packet', "
-                        + "'system_time_zone', "
-                        + "'time_zone', "
-                        + "'sql_mode'"
-                        + ")");
-                results.commandEnd();
-                MariaSelectResultSet resultSet = results.getResultSet();
-                while (resultSet.next()) {
-                    logger.debug("server data " + resultSet.getString(1) + " : " + resultSet.getString(2));
-                    serverData.put(resultSet.getString(1), resultSet.getString(2));
-                }
-            } catch (SQLException sqlee) {
-                throw new QueryException("could not load system variables", -1, CONNECTION_EXCEPTION, sqlee);
+        //fallback in case of galera non primary nodes that permit only show / set command
+        try {
+            Results showResults = new Results(1);
+            executeQuery(true, showResults, "SHOW VARIABLES WHERE Variable_name in ("
+                    + "'max_allowed_packet', "
+                    + "'system_time_zone', "
+                    + "'time_zone', "
+                    + "'sql_mode'"
+                    + ")");
+            showResults.commandEnd();
+            MariaSelectResultSet resultSet = showResults.getResultSet();
+            while (resultSet.next()) {
+                logger.debug("server data " + resultSet.getString(1) + " : " + resultSet.getString(2));
+                serverData.put(resultSet.getString(1), resultSet.getString(2));
             }
+        } catch (SQLException sqlee) {
+            throw new QueryException("could not load system variables", -1, CONNECTION_EXCEPTION, sqlee);
         }
-
     }
 
     public String getServerData(String code) {
@@ -1076,6 +1153,43 @@ public abstract class AbstractConnectProtocol implements Protocol {
         this.activeStreamingResult = activeStreamingResult;
     }
 
+    /**
+     * Record rows discarded when a streaming result is closed before being fully read.
+     *
+     * @param skippedBytes number of bytes discarded
+     * @param killed       has query been killed to end result early
+     */
+    public void addSkippedStreamingResult(long skippedBytes, boolean killed) {
+        this.skippedStreamingBytes += skippedBytes;
+        if (killed) this.killedStreamingQueries++;
+    }
+
+    /**
+     * SocketChannel transport, giving read and write system calls statistics.
+     *
+     * @return channel transport, or null if connection use socket streams
+     */
+    public SocketChannelTransport getChannelTransport() {
+        return channelTransport;
+    }
+
+    /**
+     * Adaptive compression decisions and statistics.
+     *
+     * @return compression policy, or null if adaptive compression is not used
+     */
+    public CompressionPolicy getCompressionPolicy() {
+        return writer.getCompressionPolicy();
+    }
+
+    public long getSkippedStreamingBytes() {
+        return skippedStreamingBytes;
+    }
+
+    public int getKilledStreamingQueries() {
+        return killedStreamingQueries;
+    }
+
     /**
      * Remove stream result and since totally fetched, set fetch size to 0.
      */
@@ -82,8 +82,12 @@ import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
@@ -91,6 +95,7 @@ import java.util.ServiceLoader;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
 import static org.mariadb.jdbc.internal.util.SqlStates.*;
@@ -102,7 +107,9 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
     private InputStream localInfileInputStream;
     private int maxRows;  /* max rows returned by a statement */
     private volatile int statementIdToRelease = -1;
-    private FutureTask activeFutureTask = null;
+    private FutureTask<?> activeFutureTask = null;
+    private volatile AsyncQueryTask activeAsyncQuery = null;
+    private final Condition asyncQueryRead;
     public static ThreadPoolExecutor readScheduler = null;
 
     /**
@@ -114,7 +121,9 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
 
     public AbstractQueryProtocol(final UrlParser urlParser, final ReentrantLock lock) {
         super(urlParser, lock);
-        if (options.useBatchMultiSend && readScheduler == null) {
+        asyncQueryRead = (lock != null) ? lock.newCondition() : null;
+        if ((options.useBatchMultiSend || options.prefetchStreamingResult || (options.useCompression && options.compressionThreads > 1))
+                && readScheduler == null) {
             synchronized (AbstractQueryProtocol.class) {
                 if (readScheduler == null) {
                     readScheduler = SchedulerServiceProviderHolder.getBulkScheduler();
@@ -180,6 +189,110 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
     }
 
 
+    /**
+     * Send query without waiting for its result. Result will be read by a read pool thread when socket has data
+     * (connection using SocketChannel), or immediately by a read pool thread otherwise, then listener is notified.
+     * Until then, any other command on this connection will wait for this result to be read.
+     *
+     * @param mustExecuteOnMaster was intended to be launched on master connection
+     * @param results             results
+     * @param sql                 sql
+     * @param listener            listener notified when result is read
+     * @throws QueryException if query cannot be sent
+     */
+    @Override
+    public void executeQueryAsync(boolean mustExecuteOnMaster, final Results results, final String sql,
+                                  final AsyncQueryListener listener) throws QueryException {
+        cmdPrologue();
+        lock.lock();
+        try {
+            try {
+                writer.send(sql, Packet.COM_QUERY);
+            } catch (MaxAllowedPacketException e) {
+                throw handleMaxAllowedFailover("Could not send query: " + e.getMessage(), e);
+            } catch (IOException e) {
+                throw new QueryException("Could not send query: " + e.getMessage(), -1, CONNECTION_EXCEPTION.getSqlState(), e);
+            }
+
+            AsyncQueryTask asyncQueryTask = new AsyncQueryTask(results, sql, listener);
+            activeAsyncQuery = asyncQueryTask;
+            try {
+                AsyncReadDispatcher.getInstance().dispatchWhenReadable(
+                        (channelTransport != null) ? channelTransport.getChannel() : null, asyncQueryTask);
+            } catch (IOException e) {
+                //no selector available : read result now
+                asyncQueryTask.run();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Result reading task of asynchronous query.
+     * Connection lock is held while reading, so no other command can use the connection before result is fully read.
+     */
+    private final class AsyncQueryTask implements Runnable {
+        private final Results results;
+        private final String sql;
+        private final AsyncQueryListener listener;
+
+        AsyncQueryTask(Results results, String sql, AsyncQueryListener listener) {
+            this.results = results;
+            this.sql = sql;
+            this.listener = listener;
+        }
+
+        @Override
+        public void run() {
+            lock.lock();
+            try {
+                if (activeAsyncQuery != this) return;
+                QueryException queryException = null;
+                try {
+                    getResult(results);
+                } catch (QueryException exception) {
+                    queryException = addQueryInfo(sql, exception);
+                } catch (RuntimeException exception) {
+                    queryException = new QueryException("Could not read query result: " + exception.getMessage(), -1,
+                            CONNECTION_EXCEPTION.getSqlState(), exception);
+                }
+                //result is read : listener can use connection
+                activeAsyncQuery = null;
+                if (queryException != null) {
+                    listener.onError(queryException);
+                } else {
+                    listener.onResult(results);
+                }
+            } finally {
+                activeAsyncQuery = null;
+                asyncQueryRead.signalAll();
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Wait for pending asynchronous query result to be read.
+     * Connection lock is released while waiting, permitting read task to acquire it.
+     *
+     * @throws QueryException if interrupted
+     */
+    private void waitAsyncQuery() throws QueryException {
+        lock.lock();
+        try {
+            while (activeAsyncQuery != null) {
+                asyncQueryRead.await();
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new QueryException("Interrupted reading asynchronous query result", -1,
+                    INTERRUPTED_EXCEPTION.getSqlState(), interruptedException);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Execute a unique clientPrepareQuery.
      *
@@ -749,6 +862,7 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         int seq = 2;
         InputStream is;
         writer.setCompressSeqNo(2);
+        boolean userStream = localInfileInputStream != null;
         if (localInfileInputStream == null) {
 
             if (!getUrlParser().getOptions().allowLocalInfile) {
@@ -787,11 +901,37 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
             is = localInfileInputStream;
             localInfileInputStream = null;
         }
-        writer.sendFile(is, seq);
+        if (is instanceof FileInputStream && writer.canTransferFile()
+                && canTransfer(userStream ? null : fileName, ((FileInputStream) is).getChannel())) {
+            //zero-copy : file content is send directly from file to socket
+            writer.sendFile(((FileInputStream) is).getChannel(), seq);
+        } else {
+            writer.sendFile(is, seq);
+        }
         is.close();
         getResult(results);
     }
 
+    /**
+     * Can file content be transferred directly to socket. Transfer relies on file size, so only regular files are
+     * transferred : pipes, devices or procfs files report no size and are read like streams.
+     *
+     * @param fileName file path, null if stream has been set by user
+     * @param channel  file channel
+     * @return true if file is regular and has data to send
+     * @throws IOException if file size cannot be read
+     */
+    private static boolean canTransfer(String fileName, FileChannel channel) throws IOException {
+        if (fileName != null) {
+            try {
+                if (!Files.isRegularFile(Paths.get(fileName))) return false;
+            } catch (InvalidPathException invalidPathException) {
+                return false;
+            }
+        }
+        return channel.size() > channel.position();
+    }
+
     @Override
     public boolean getAutocommit() {
         lock.lock();
@@ -1027,14 +1167,16 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
 
     @Override
     public void getResult(Results results) throws QueryException {
-
-        readPacket(results);
-
-        //load additional results
-        while (moreResults) {
+        try {
             readPacket(results);
-        }
 
+            //load additional results
+            while (moreResults) {
+                readPacket(results);
+            }
+        } finally {
+            packetFetcher.releaseBuffers();
+        }
     }
 
     /**
@@ -1269,12 +1411,29 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         return serverPrepareStatementCache.put(key, serverPrepareResult);
     }
 
+    /**
+     * Closes connection. Pending asynchronous query result is read before, so its listener is notified.
+     */
+    @Override
+    public void close() {
+        if (lock != null) {
+            try {
+                waitAsyncQuery();
+            } catch (QueryException queryException) {
+                //interrupted : close without waiting
+            }
+        }
+        super.close();
+    }
+
     private void cmdPrologue() throws QueryException {
         if (activeStreamingResult != null) {
             throw new QueryException("There is an open result set on the current connection, which must be "
                     + "closed prior to executing a query");
         }
 
+        if (activeAsyncQuery != null) waitAsyncQuery();
+
         if (activeFutureTask != null) {
             //wait for remaining batch result to be read, to ensure correct connection state
             try {
@@ -1355,7 +1514,7 @@ public class AbstractQueryProtocol extends AbstractConnectProtocol implements Pr
         return returningException;
     }
 
-    public void setActiveFutureTask(FutureTask activeFutureTask) {
+    public void setActiveFutureTask(FutureTask<?> activeFutureTask) {
         this.activeFutureTask = activeFutureTask;
     }
 
@@ -0,0 +1,218 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.protocol;
+
+import org.mariadb.jdbc.internal.logging.Logger;
+import org.mariadb.jdbc.internal.logging.LoggerFactory;
+import org.mariadb.jdbc.internal.util.scheduler.MariaDbThreadFactory;
+import org.mariadb.jdbc.internal.util.scheduler.SchedulerServiceProviderHolder;
+
+import java.io.IOException;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Run result reading tasks of asynchronous queries when connection socket has data to read.
+ * A few selector threads watch sockets of all connections waiting for a server response, so no thread is blocked
+ * while server executes queries. When data arrive, result is read and decoded by a shared read pool.
+ * JVM-wide instance, started on first asynchronous query.
+ */
+public class AsyncReadDispatcher {
+    private static Logger logger = LoggerFactory.getLogger(AsyncReadDispatcher.class);
+    private static volatile AsyncReadDispatcher instance;
+
+    private final SelectorLoop[] selectorLoops;
+    private final ExecutorService readExecutor;
+    private final AtomicInteger nextLoop = new AtomicInteger();
+
+    /**
+     * Create dispatcher and start selector threads.
+     *
+     * @param selectorThreads selector thread number
+     * @param readThreads     read pool thread number
+     * @throws IOException if selector cannot be opened
+     */
+    public AsyncReadDispatcher(int selectorThreads, int readThreads) throws IOException {
+        readExecutor = SchedulerServiceProviderHolder.getFixedSizeScheduler(readThreads, "async-read");
+        selectorLoops = new SelectorLoop[selectorThreads];
+        for (int i = 0; i < selectorThreads; i++) {
+            selectorLoops[i] = new SelectorLoop(Selector.open());
+            new MariaDbThreadFactory("async-selector").newThread(selectorLoops[i]).start();
+        }
+    }
+
+    /**
+     * Get JVM-wide dispatcher, creating it if needed.
+     *
+     * @return dispatcher
+     * @throws IOException if selector cannot be opened
+     */
+    public static AsyncReadDispatcher getInstance() throws IOException {
+        if (instance == null) {
+            synchronized (AsyncReadDispatcher.class) {
+                if (instance == null) {
+                    int processors = Runtime.getRuntime().availableProcessors();
+                    instance = new AsyncReadDispatcher(Math.max(1, Math.min(4, processors / 8)), Math.max(2, processors));
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get JVM-wide executor running user callbacks of asynchronous results, so a slow callback never delays
+     * result reading of other connections.
+     *
+     * @return callback executor
+     */
+    public static Executor getCallbackExecutor() {
+        return CallbackExecutorHolder.EXECUTOR;
+    }
+
+    private static final class CallbackExecutorHolder {
+        private static final ExecutorService EXECUTOR = SchedulerServiceProviderHolder.getFixedSizeScheduler(
+                Math.max(2, Runtime.getRuntime().availableProcessors()), "async-callback");
+    }
+
+    /**
+     * Run task when channel has data to read.
+     * Without channel (connection not using a SocketChannel), task is run immediately by the read pool, blocking
+     * a pool thread until server response.
+     *
+     * @param channel connection channel, may be null
+     * @param task    result reading task
+     */
+    public void dispatchWhenReadable(SocketChannel channel, Runnable task) {
+        if (channel == null) {
+            readExecutor.execute(task);
+            return;
+        }
+        selectorLoops[(nextLoop.getAndIncrement() & Integer.MAX_VALUE) % selectorLoops.length].register(channel, task);
+    }
+
+    private static final class Registration {
+        private final SocketChannel channel;
+        private final Runnable task;
+
+        private Registration(SocketChannel channel, Runnable task) {
+            this.channel = channel;
+            this.task = task;
+        }
+    }
+
+    private final class SelectorLoop implements Runnable {
+        private final Selector selector;
+        private final ConcurrentLinkedQueue<Registration> registrations = new ConcurrentLinkedQueue<>();
+
+        private SelectorLoop(Selector selector) {
+            this.selector = selector;
+        }
+
+        private void register(SocketChannel channel, Runnable task) {
+            registrations.add(new Registration(channel, task));
+            selector.wakeup();
+        }
+
+        /**
+         * Channel keys are kept between queries, with no interest when connection is not waiting for a response.
+         */
+        private void addRegistrations() {
+            Registration registration;
+            while ((registration = registrations.poll()) != null) {
+                try {
+                    SelectionKey key = registration.channel.keyFor(selector);
+                    if (key != null && key.isValid()) {
+                        key.attach(registration.task);
+                        key.interestOps(SelectionKey.OP_READ);
+                    } else {
+                        registration.channel.register(selector, SelectionKey.OP_READ, registration.task);
+                    }
+                } catch (ClosedChannelException | RuntimeException exception) {
+                    //connection closed : task will fail reading, reporting error
+                    readExecutor.execute(registration.task);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    selector.select();
+                    addRegistrations();
+                    Iterator<SelectionKey> iterator = selector.selectedKeys().iterator();
+                    while (iterator.hasNext()) {
+                        SelectionKey key = iterator.next();
+                        iterator.remove();
+                        Runnable task = (Runnable) key.attachment();
+                        key.attach(null);
+                        try {
+                            key.interestOps(0);
+                        } catch (CancelledKeyException cancelledKeyException) {
+                            //connection closed meanwhile, task will report error
+                        }
+                        if (task != null) readExecutor.execute(task);
+                    }
+                } catch (IOException | RuntimeException exception) {
+                    logger.error("Error in asynchronous read selector", exception);
+                }
+            }
+        }
+    }
+}
@@ -56,6 +56,8 @@ import org.mariadb.jdbc.UrlParser;
 import org.mariadb.jdbc.internal.failover.FailoverProxy;
 import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
 import org.mariadb.jdbc.internal.queryresults.Results;
+import org.mariadb.jdbc.internal.stream.CompressionPolicy;
+import org.mariadb.jdbc.internal.stream.SocketChannelTransport;
 import org.mariadb.jdbc.internal.util.Options;
 import org.mariadb.jdbc.internal.util.ServerPrepareStatementCache;
 import org.mariadb.jdbc.internal.util.dao.ClientPrepareResult;
@@ -139,6 +141,9 @@ public interface Protocol {
 
     void executeQuery(boolean mustExecuteOnMaster, Results results, final String sql, Charset charset) throws QueryException;
 
+    void executeQueryAsync(boolean mustExecuteOnMaster, Results results, final String sql, AsyncQueryListener listener)
+            throws QueryException;
+
     void executeQuery(boolean mustExecuteOnMaster, Results results, final ClientPrepareResult clientPrepareResult,
                       ParameterHolder[] parameters) throws QueryException;
 
@@ -256,10 +261,20 @@ public interface Protocol {
 
     void removeActiveStreamingResult();
 
+    void addSkippedStreamingResult(long skippedBytes, boolean killed);
+
+    long getSkippedStreamingBytes();
+
+    int getKilledStreamingQueries();
+
+    SocketChannelTransport getChannelTransport();
+
+    CompressionPolicy getCompressionPolicy();
+
     void resetStateAfterFailover(int maxRows, int transactionIsolationLevel, String database, boolean autocommit)
             throws QueryException;
 
-    void setActiveFutureTask(FutureTask activeFutureTask);
+    void setActiveFutureTask(FutureTask<?> activeFutureTask);
 
     boolean isServerMariaDb();
 }
\ No newline at end of file
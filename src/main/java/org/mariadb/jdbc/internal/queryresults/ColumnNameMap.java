@@ -53,17 +53,106 @@ package org.mariadb.jdbc.internal.queryresults;
 import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
 
 import java.sql.SQLException;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
-
+/**
+ * Case insensitive index of column names.
+ *
+ * <p>Index is immutable and built once for a column definition set : it can be shared by all resultSets with
+ * the same column definitions (see {@link #forColumns(ColumnInformation[])}). Lookup doesn't allocate.</p>
+ */
 public class ColumnNameMap {
-    Map<String, Integer> map;
-    Map<String, Integer> labelMap;
-    ColumnInformation[] columnInfo;
+    private static final int MAX_CACHED_DEFINITIONS = 256;
+
+    private static final Map<ColumnDefinitions, ColumnNameMap> cache =
+            new LinkedHashMap<ColumnDefinitions, ColumnNameMap>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ColumnDefinitions, ColumnNameMap> eldest) {
+                    return size() > MAX_CACHED_DEFINITIONS;
+                }
+            };
 
+    private final ColumnInformation[] columnInfo;
+    private final String[] keys;
+    private final int[] indexes;
+    private final int mask;
+
+    /**
+     * Build column name index.
+     * The specs in JDBC 4.0 specify that ResultSet.findColumn and ResultSet.getXXX(String name) should use column
+     * alias (AS in the query). If label is not found, original column name is used.
+     *
+     * @param columnInformations columns information
+     */
     public ColumnNameMap(ColumnInformation[] columnInformations) {
         this.columnInfo = columnInformations;
+        int columnCount = (columnInformations == null) ? 0 : columnInformations.length;
+
+        //each column has at most 4 keys : alias, table.alias, original name and table.original name
+        int capacity = 4;
+        while (capacity < columnCount * 8) {
+            capacity <<= 1;
+        }
+        this.keys = new String[capacity];
+        this.indexes = new int[capacity];
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < columnCount; i++) {
+            ColumnInformation ci = columnInformations[i];
+            String columnAlias = ci.getName();
+            add(columnAlias, i);
+            String tableName = ci.getTable();
+            if (tableName != null && !tableName.isEmpty()) {
+                add(tableName + "." + columnAlias, i);
+            }
+        }
+
+        for (int i = 0; i < columnCount; i++) {
+            ColumnInformation ci = columnInformations[i];
+            String columnName = ci.getOriginalName();
+            if (columnName.isEmpty()) {
+                // for name-less columns (there CAN be some), use their alias
+                columnName = ci.getName();
+            }
+            add(columnName, i);
+            String tableName = ci.getTable();
+            if (tableName != null && !tableName.isEmpty()) {
+                add(tableName + "." + columnName, i);
+            }
+        }
+    }
+
+    /**
+     * Get column name index for column definitions. Index is shared with previous resultSets having
+     * the same column definitions.
+     *
+     * @param columnInformations columns information
+     * @return column name index
+     */
+    public static ColumnNameMap forColumns(ColumnInformation[] columnInformations) {
+        ColumnDefinitions definitions = new ColumnDefinitions(columnInformations);
+        synchronized (cache) {
+            ColumnNameMap columnNameMap = cache.get(definitions);
+            if (columnNameMap != null) {
+                return columnNameMap;
+            }
+        }
+        ColumnNameMap columnNameMap = new ColumnNameMap(columnInformations);
+        synchronized (cache) {
+            cache.put(definitions, columnNameMap);
+        }
+        return columnNameMap;
+    }
+
+    /**
+     * Indicate if this index has been built for these column definitions.
+     *
+     * @param columnInformations columns information
+     * @return true if columns definitions are identical
+     */
+    public boolean isDefinedBy(ColumnInformation[] columnInformations) {
+        return ColumnDefinitions.sameDefinitions(columnInfo, columnInformations);
     }
 
     /**
@@ -73,68 +162,89 @@ public class ColumnNameMap {
      * @throws SQLException if no column info exists, or column is unknown
      */
     public int getIndex(String name) throws SQLException {
-        if (columnInfo == null) {
-            throw new SQLException("No such column :" + name);
+        if (name != null) {
+            int slot = hash(name) & mask;
+            String key;
+            while ((key = keys[slot]) != null) {
+                if (key.equalsIgnoreCase(name)) {
+                    return indexes[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
         }
-        // The specs in JDBC 4.0 specify that ResultSet.findColumn and
-        // ResultSet.getXXX(String name) should use column alias (AS in the query). If label is not found, we use 
-        // original table name.
-        Integer res = getLabelIndex(name);
-
+        throw new SQLException("No such column :" + name);
+    }
 
-        if (res != null) {
-            return res;
-        }
-        if (map == null) {
-            map = new HashMap<String, Integer>();
-            int counter = 0;
-            for (ColumnInformation ci : columnInfo) {
-                String columnName = ci.getOriginalName().toLowerCase();
-                if (columnName.equals("")) {
-                    // for name-less columns (there CAN be some), use their alias
-                    columnName = ci.getName().toLowerCase();
-                }
-                map.put(columnName, counter);
-                String tableName = ci.getTable().toLowerCase();
-                if (!tableName.equals("")) {
-                    map.put(tableName + "." + columnName, counter);
-                }
-                counter++;
+    /**
+     * Add key to index, if not already present.
+     */
+    private void add(String key, int index) {
+        int slot = hash(key) & mask;
+        String existing;
+        while ((existing = keys[slot]) != null) {
+            if (existing.equalsIgnoreCase(key)) {
+                return;
             }
+            slot = (slot + 1) & mask;
         }
-        res = map.get(name.toLowerCase());
+        keys[slot] = key;
+        indexes[slot] = index;
+    }
 
-        if (res == null) {
-            throw new SQLException("No such column :" + name);
+    /**
+     * Case insensitive hash, consistent with String.equalsIgnoreCase().
+     */
+    private static int hash(String value) {
+        int hash = 0;
+        for (int i = 0; i < value.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
         }
-        return res;
+        return hash ^ (hash >>> 16);
     }
 
-    private int getLabelIndex(String name) throws SQLException {
-        if (labelMap == null) {
-            labelMap = new HashMap<String, Integer>();
-            int counter = 0;
-            for (ColumnInformation ci : columnInfo) {
-                String columnAlias = ci.getName().toLowerCase();
-                if (!labelMap.containsKey(columnAlias)) {
-                    labelMap.put(columnAlias, counter);
+    /**
+     * Cache key : column definitions packets.
+     */
+    private static class ColumnDefinitions {
+        private final ColumnInformation[] columns;
+        private final int hash;
+
+        ColumnDefinitions(ColumnInformation[] columns) {
+            this.columns = columns;
+            int hashCode = 1;
+            if (columns != null) {
+                for (ColumnInformation column : columns) {
+                    hashCode = 31 * hashCode + column.definitionHashCode();
                 }
+            }
+            this.hash = hashCode;
+        }
 
-                if (ci.getTable() != null) {
-                    String tableName = ci.getTable().toLowerCase();
-                    if (!tableName.equals("")) {
-                        if (!labelMap.containsKey(tableName + "." + columnAlias)) {
-                            labelMap.put(tableName + "." + columnAlias, counter);
-                        }
-                    }
+        static boolean sameDefinitions(ColumnInformation[] columns, ColumnInformation[] otherColumns) {
+            if (columns == otherColumns) {
+                return true;
+            }
+            if (columns == null || otherColumns == null || columns.length != otherColumns.length) {
+                return false;
+            }
+            for (int i = 0; i < columns.length; i++) {
+                if (!columns[i].hasSameDefinition(otherColumns[i])) {
+                    return false;
                 }
-                counter++;
             }
+            return true;
         }
-        Integer res = labelMap.get(name.toLowerCase());
-        if (res == null) {
-            throw new SQLException("No such column :" + name);
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof ColumnDefinitions
+                    && hash == ((ColumnDefinitions) obj).hash
+                    && sameDefinitions(columns, ((ColumnDefinitions) obj).columns);
         }
-        return res;
     }
 }
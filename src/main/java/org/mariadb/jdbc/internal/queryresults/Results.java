@@ -49,10 +49,12 @@ OF SUCH DAMAGE.
 */
 
 import org.mariadb.jdbc.MariaDbStatement;
+import org.mariadb.jdbc.RowHandler;
 import org.mariadb.jdbc.internal.protocol.Protocol;
 import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
 import org.mariadb.jdbc.internal.util.ExceptionMapper;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.dao.ServerPrepareResult;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -73,6 +75,9 @@ public class Results {
     private boolean binaryFormat;
     private int resultSetScrollType;
     private int autoIncrement;
+    private ServerPrepareResult serverPrepareResult;
+    private RowHandler rowHandler;
+    private long handledRows;
 
     /**
      * Single Text query.
@@ -315,6 +320,40 @@ public class Results {
         return binaryFormat;
     }
 
+    public ServerPrepareResult getServerPrepareResult() {
+        return serverPrepareResult;
+    }
+
+    /**
+     * Set server prepared statement that produced these results, so resultSets can reuse its column name index.
+     *
+     * @param serverPrepareResult server prepare result
+     */
+    public void setServerPrepareResult(ServerPrepareResult serverPrepareResult) {
+        this.serverPrepareResult = serverPrepareResult;
+    }
+
+    public RowHandler getRowHandler() {
+        return rowHandler;
+    }
+
+    /**
+     * Set callback to push rows to, instead of storing them in resultSets.
+     *
+     * @param rowHandler row handler
+     */
+    public void setRowHandler(RowHandler rowHandler) {
+        this.rowHandler = rowHandler;
+    }
+
+    public long getHandledRows() {
+        return handledRows;
+    }
+
+    public void addHandledRow() {
+        handledRows++;
+    }
+
     public void removeFetchSize() {
         fetchSize = 0;
     }
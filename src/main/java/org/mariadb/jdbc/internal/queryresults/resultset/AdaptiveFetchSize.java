@@ -0,0 +1,190 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.queryresults.resultset;
+
+import org.mariadb.jdbc.internal.logging.Logger;
+import org.mariadb.jdbc.internal.logging.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compute streaming batch size from observed rows.
+ * Each batch size is the number of rows fitting in target batch memory, according to average row size, and limited
+ * to the number of rows application has been able to process in one second, so socket is read regularly
+ * even when rows processing is slow (server may otherwise end the connection, see net_write_timeout).
+ *
+ * <p>Batch statistics are available for instrumentation.</p>
+ *
+ * <p>Methods are synchronized : when prefetching, batches are read by a background thread while application
+ * thread records processing time.</p>
+ */
+public class AdaptiveFetchSize {
+    private static Logger logger = LoggerFactory.getLogger(AdaptiveFetchSize.class);
+
+    private static final long MAX_BATCH_CONSUME_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long targetBatchBytes;
+    private int fetchSize;
+    private double averageRowSize;
+    private long batchDeliveredNanos;
+    private int deliveredRows;
+    private int lastConsumedRows;
+
+    private int batchCount;
+    private int lastBatchRows;
+    private long lastBatchBytes;
+    private long lastBatchReadNanos;
+    private long lastBatchConsumeNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param initialFetchSize first batch size
+     * @param targetBatchBytes target row data size by batch
+     */
+    public AdaptiveFetchSize(int initialFetchSize, long targetBatchBytes) {
+        this.fetchSize = Math.max(1, initialFetchSize);
+        this.targetBatchBytes = Math.max(1, targetBatchBytes);
+    }
+
+    /**
+     * A new batch will be read.
+     *
+     * @return batch size to read
+     */
+    public synchronized int batchStarting() {
+        return fetchSize;
+    }
+
+    /**
+     * Application thread starts processing a new batch of rows.
+     *
+     * @param rows number of rows in batch
+     */
+    public synchronized void batchDelivered(int rows) {
+        deliveredRows = rows;
+        batchDeliveredNanos = System.nanoTime();
+    }
+
+    /**
+     * Application thread has processed all rows of delivered batch : record processing time.
+     * Must be called by application thread before waiting for next rows, since when prefetching, next batch is
+     * read in background while rows are processed, and reading time would otherwise hide processing time.
+     */
+    public synchronized void batchConsumed() {
+        if (batchDeliveredNanos != 0 && deliveredRows > 0) {
+            lastBatchConsumeNanos = System.nanoTime() - batchDeliveredNanos;
+            lastConsumedRows = deliveredRows;
+        }
+        batchDeliveredNanos = 0;
+    }
+
+    /**
+     * A batch has been read : compute next batch size.
+     *
+     * @param rows      number of rows read
+     * @param bytes     rows data size
+     * @param readNanos time spent reading batch
+     */
+    public synchronized void batchRead(int rows, long bytes, long readNanos) {
+        //processing speed of last batch application has processed
+        long consumedRowsLimit = Long.MAX_VALUE;
+        if (lastBatchConsumeNanos > 0 && lastConsumedRows > 0) {
+            double nanosByRow = (double) lastBatchConsumeNanos / lastConsumedRows;
+            consumedRowsLimit = (long) (MAX_BATCH_CONSUME_NANOS / nanosByRow);
+        }
+
+        batchCount++;
+        lastBatchRows = rows;
+        lastBatchBytes = bytes;
+        lastBatchReadNanos = readNanos;
+        if (rows > 0) {
+            double rowSize = (double) bytes / rows;
+            averageRowSize = (averageRowSize == 0) ? rowSize : (averageRowSize + rowSize) / 2;
+            long size = Math.min((long) (targetBatchBytes / Math.max(1, averageRowSize)), consumedRowsLimit);
+            fetchSize = (int) Math.max(1, Math.min(size, Integer.MAX_VALUE));
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("streaming batch " + batchCount + " : " + rows + " rows, " + bytes + " bytes, read in "
+                    + TimeUnit.NANOSECONDS.toMicros(readNanos) + "us, last processed batch took "
+                    + TimeUnit.NANOSECONDS.toMicros(lastBatchConsumeNanos) + "us. Next batch size : " + fetchSize);
+        }
+    }
+
+    public synchronized int getFetchSize() {
+        return fetchSize;
+    }
+
+    public synchronized int getBatchCount() {
+        return batchCount;
+    }
+
+    public synchronized int getLastBatchRows() {
+        return lastBatchRows;
+    }
+
+    public synchronized long getLastBatchBytes() {
+        return lastBatchBytes;
+    }
+
+    public synchronized long getLastBatchReadNanos() {
+        return lastBatchReadNanos;
+    }
+
+    public synchronized long getLastBatchConsumeNanos() {
+        return lastBatchConsumeNanos;
+    }
+
+    public synchronized double getAverageRowSize() {
+        return averageRowSize;
+    }
+}
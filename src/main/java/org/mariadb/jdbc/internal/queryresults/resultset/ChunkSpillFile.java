@@ -0,0 +1,210 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.queryresults.resultset;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Temporary file storing {@link RowArena} chunks when arena exceed its memory budget.
+ * Each spilled chunk is memory-mapped, and read back into a small set of heap buffers when accessed.
+ * Sequential scans load whole chunks, so following rows are then read from heap. Random access only copies
+ * the accessed row bytes, so cost is proportional to row size, not chunk size.
+ */
+class ChunkSpillFile {
+
+    private static final int CACHE_SIZE = 2;
+
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private long position;
+    private MappedByteBuffer[] mappedChunks = new MappedByteBuffer[16];
+
+    private final byte[][] cache = new byte[CACHE_SIZE][];
+    private final int[] cacheIndex = new int[CACHE_SIZE];
+    private final int[] cacheStart = new int[CACHE_SIZE];
+    private final int[] cacheEnd = new int[CACHE_SIZE];
+    private int nextCacheSlot;
+
+    private ChunkSpillFile(File file) throws IOException {
+        this.file = file;
+        this.randomAccessFile = new RandomAccessFile(file, "rw");
+        this.channel = randomAccessFile.getChannel();
+        resetCache();
+    }
+
+    /**
+     * Create a spill file in default temporary-file directory. File is deleted when closed, or on JVM exit.
+     *
+     * @return spill file
+     * @throws IOException if file cannot be created
+     */
+    public static ChunkSpillFile create() throws IOException {
+        File file = File.createTempFile("mariadb-resultset-", ".tmp");
+        file.deleteOnExit();
+        try {
+            return new ChunkSpillFile(file);
+        } catch (IOException ioe) {
+            file.delete();
+            throw ioe;
+        }
+    }
+
+    /**
+     * Write chunk data to file.
+     *
+     * @param chunkIndex chunk index in arena
+     * @param chunk      chunk
+     * @param length     used chunk length
+     * @throws IOException if any error occur writing file
+     */
+    public void write(int chunkIndex, byte[] chunk, int length) throws IOException {
+        ByteBuffer source = ByteBuffer.wrap(chunk, 0, length);
+        long start = position;
+        while (source.hasRemaining()) {
+            position += channel.write(source, position);
+        }
+        if (chunkIndex >= mappedChunks.length) {
+            MappedByteBuffer[] newMappedChunks = new MappedByteBuffer[Math.max(chunkIndex + 1, mappedChunks.length * 2)];
+            System.arraycopy(mappedChunks, 0, newMappedChunks, 0, mappedChunks.length);
+            mappedChunks = newMappedChunks;
+        }
+        mappedChunks[chunkIndex] = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+    }
+
+    /**
+     * Get spilled chunk data. Returned array has chunk layout, but only bytes from start to start + length
+     * are guaranteed to be loaded, unless whole chunk is asked.
+     * Returned array is only valid until next call for another range.
+     *
+     * @param chunkIndex chunk index in arena
+     * @param start      start of needed bytes in chunk
+     * @param length     needed bytes length
+     * @param wholeChunk load whole chunk (sequential access), or only needed bytes (random access)
+     * @return chunk data
+     */
+    public byte[] read(int chunkIndex, int start, int length, boolean wholeChunk) {
+        int slot = -1;
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            if (cacheIndex[i] == chunkIndex) {
+                if (cacheStart[i] <= start && start + length <= cacheEnd[i]) return cache[i];
+                slot = i;
+            }
+        }
+        if (slot < 0) {
+            slot = nextCacheSlot;
+            nextCacheSlot = (nextCacheSlot + 1) % CACHE_SIZE;
+        }
+
+        ByteBuffer mapped = mappedChunks[chunkIndex].duplicate();
+        int chunkLength = mapped.limit();
+        if (cache[slot] == null || cache[slot].length < chunkLength) {
+            cache[slot] = new byte[chunkLength];
+        }
+        int from = wholeChunk ? 0 : start;
+        int to = wholeChunk ? chunkLength : start + length;
+        mapped.position(from);
+        mapped.get(cache[slot], from, to - from);
+        cacheIndex[slot] = chunkIndex;
+        cacheStart[slot] = from;
+        cacheEnd[slot] = to;
+        return cache[slot];
+    }
+
+    /**
+     * Heap memory used by cached chunks.
+     *
+     * @return memory size
+     */
+    public long getCacheMemory() {
+        long size = 0;
+        for (byte[] data : cache) {
+            if (data != null) size += data.length;
+        }
+        return size;
+    }
+
+    /**
+     * Forget all spilled chunks, file space will be reused.
+     */
+    public void reset() {
+        position = 0;
+        mappedChunks = new MappedByteBuffer[16];
+        resetCache();
+    }
+
+    /**
+     * Close and delete file.
+     * Mapped buffers are only unmapped when garbage collected : on some OS, file deletion will then only occur on JVM exit.
+     */
+    public void close() {
+        mappedChunks = null;
+        for (int i = 0; i < CACHE_SIZE; i++) cache[i] = null;
+        try {
+            channel.close();
+            randomAccessFile.close();
+        } catch (IOException ioe) {
+            //eat
+        }
+        file.delete();
+    }
+
+    private void resetCache() {
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            cacheIndex[i] = -1;
+        }
+    }
+}
@@ -0,0 +1,482 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.queryresults.resultset;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * Decode date/time values of text protocol (YYYY-MM-DD, HH:MM:SS[.ffffff], YYYY-MM-DD HH:MM:SS[.ffffff])
+ * and binary protocol date structures directly from raw bytes, without SimpleDateFormat or Calendar.
+ *
+ * <p>Epoch milliseconds are computed from civil date arithmetic, with time zone offsets cached by local day,
+ * so a new Calendar is not needed for each value (Calendar is only used for days with a time zone transition
+ * and dates before 1900). Decoded fields are kept in this instance: a decoder is not
+ * thread safe and is meant to be used by a single result set.</p>
+ */
+public final class DateDecoder {
+
+    private static final long MILLIS_PER_DAY = 86400000L;
+
+    //before this year, Calendar is used for exact compatibility (julian calendar rules, local mean time offsets)
+    private static final int FIRST_DECODED_YEAR = 1900;
+
+    //must be a power of 2
+    private static final int CACHE_SIZE = 64;
+
+    //offset marker for days with a time zone transition
+    private static final int TRANSITION_DAY = Integer.MIN_VALUE;
+
+    private final TimeZone timeZone;
+    private final long[] cachedDays = new long[CACHE_SIZE];
+    private final int[] cachedOffsets = new int[CACHE_SIZE];
+    private Calendar fallbackCalendar;
+
+    private int year;
+    private int month;
+    private int day;
+    private int hour;
+    private int minute;
+    private int second;
+    private int nanos;
+    private int hourDigits;
+    private boolean negate;
+
+    /**
+     * Create decoder for a time zone.
+     *
+     * @param timeZone time zone used to convert local date/time to epoch milliseconds
+     */
+    public DateDecoder(TimeZone timeZone) {
+        this.timeZone = timeZone;
+        for (int i = 0; i < CACHE_SIZE; i++) {
+            cachedDays[i] = Long.MIN_VALUE;
+        }
+    }
+
+    public TimeZone getTimeZone() {
+        return timeZone;
+    }
+
+    /**
+     * Parse text protocol date or datetime value : "YYYY-MM-DD", "YYYY-MM-DD HH:MM:SS" or
+     * "YYYY-MM-DD HH:MM:SS.ffffff".
+     *
+     * @param buf    array containing value
+     * @param off    value offset
+     * @param length value length
+     * @throws ParseException if value has not a date format
+     */
+    public void parseDateTime(byte[] buf, int off, int length) throws ParseException {
+        clear();
+        if (length < 10 || buf[off + 4] != '-' || buf[off + 7] != '-') {
+            throw parseException(buf, off, length, "Timestamp");
+        }
+        year = digits(buf, off, 4, off, length);
+        month = digits(buf, off + 5, 2, off, length);
+        day = digits(buf, off + 8, 2, off, length);
+        if (length >= 19) {
+            if (buf[off + 13] != ':' || buf[off + 16] != ':') {
+                throw parseException(buf, off, length, "Timestamp");
+            }
+            hour = digits(buf, off + 11, 2, off, length);
+            minute = digits(buf, off + 14, 2, off, length);
+            second = digits(buf, off + 17, 2, off, length);
+            if (length > 19 && buf[off + 19] == '.') {
+                nanos = fraction(buf, off + 20, off, length);
+            }
+        }
+    }
+
+    /**
+     * Parse text protocol time value : "[-]HH:MM:SS[.ffffff]", hours may have more than 2 digits.
+     *
+     * @param buf    array containing value
+     * @param off    value offset
+     * @param length value length
+     * @throws ParseException if value has not a time format
+     */
+    public void parseTime(byte[] buf, int off, int length) throws ParseException {
+        clear();
+        year = 1970;
+        month = 1;
+        day = 1;
+        int pos = off;
+        int end = off + length;
+        if (pos < end && buf[pos] == '-') {
+            negate = true;
+            pos++;
+        }
+        int hourStart = pos;
+        while (pos < end && buf[pos] >= '0' && buf[pos] <= '9') {
+            hour = hour * 10 + buf[pos++] - '0';
+        }
+        hourDigits = pos - hourStart;
+        if (hourDigits == 0 || pos + 6 > end || buf[pos] != ':' || buf[pos + 3] != ':') {
+            throw parseException(buf, off, length, "Time");
+        }
+        minute = digits(buf, pos + 1, 2, off, length);
+        second = digits(buf, pos + 4, 2, off, length);
+        pos += 6;
+        if (pos < end && buf[pos] == '.') {
+            nanos = fraction(buf, pos + 1, off, length);
+        }
+        if (negate) {
+            hour = -hour;
+        }
+    }
+
+    /**
+     * Read binary protocol date/datetime structure (year, month, day, hour, minutes, seconds, microseconds).
+     * Empty value correspond to zero date.
+     *
+     * @param buf    array containing value
+     * @param off    value offset
+     * @param length value length (0, 2 for YEAR, 4, 7 or 11)
+     */
+    public void readBinaryDateTime(byte[] buf, int off, int length) {
+        clear();
+        if (length == 0) {
+            return;
+        }
+        year = (buf[off] & 0xff) | (buf[off + 1] & 0xff) << 8;
+        month = 1;
+        day = 1;
+        if (length >= 4) {
+            month = buf[off + 2];
+            day = buf[off + 3];
+        }
+        if (length > 4) {
+            hour = buf[off + 4];
+            minute = buf[off + 5];
+            second = buf[off + 6];
+            if (length > 7) {
+                nanos = readInt(buf, off + 7) * 1000;
+            }
+        }
+    }
+
+    /**
+     * Read binary protocol time structure (negative flag, days, hour, minutes, seconds, microseconds).
+     * Sign is applied to days and hours, like a lenient Calendar set to 1970-01-01 would.
+     *
+     * @param buf    array containing value
+     * @param off    value offset
+     * @param length value length (0, 8 or 12)
+     */
+    public void readBinaryTime(byte[] buf, int off, int length) {
+        clear();
+        year = 1970;
+        month = 1;
+        int days = 0;
+        if (length > 0) {
+            negate = (buf[off] & 0xff) == 0x01;
+        }
+        if (length > 4) {
+            days = readInt(buf, off + 1);
+        }
+        if (length > 7) {
+            hour = buf[off + 5];
+            minute = buf[off + 6];
+            second = buf[off + 7];
+        }
+        if (length > 8) {
+            nanos = readInt(buf, off + 8) * 1000;
+        }
+        day = (negate ? -days : days) + 1;
+        if (negate) {
+            hour = -hour;
+        }
+    }
+
+    /**
+     * Indicate if date part of last decoded value is "0000-00-00".
+     *
+     * @return true if zero date
+     */
+    public boolean isZeroDate() {
+        return year == 0 && month == 0 && day == 0;
+    }
+
+    /**
+     * Indicate if last decoded value is "0000-00-00 00:00:00".
+     *
+     * @return true if zero datetime
+     */
+    public boolean isZeroDateTime() {
+        return isZeroDate() && hour == 0 && minute == 0 && second == 0 && nanos == 0;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int getNanos() {
+        return nanos;
+    }
+
+    public int getHourDigits() {
+        return hourDigits;
+    }
+
+    public boolean isNegative() {
+        return negate;
+    }
+
+    /**
+     * Set decoded fields as if last value was a YEAR(2) value : 2 digits year are converted to 1970-2069.
+     */
+    public void expandTwoDigitYear() {
+        year += (year <= 69) ? 2000 : 1900;
+    }
+
+    /**
+     * Set decoded fields to the first day of a year (YEAR data type).
+     *
+     * @param year year value
+     */
+    public void setYear(int year) {
+        clear();
+        this.year = year;
+        this.month = 1;
+        this.day = 1;
+    }
+
+    /**
+     * Epoch milliseconds of last decoded value date part at midnight.
+     *
+     * @return epoch milliseconds
+     */
+    public long getDateMillis() {
+        return toEpochMillis(year, month, day, 0, 0, 0, 0);
+    }
+
+    /**
+     * Epoch milliseconds of last decoded value, truncated to milliseconds.
+     *
+     * @return epoch milliseconds
+     */
+    public long getMillis() {
+        return toEpochMillis(year, month, day, hour, minute, second, nanos / 1000000);
+    }
+
+    /**
+     * Epoch milliseconds of last decoded value, ignoring sub-seconds.
+     *
+     * @return epoch milliseconds
+     */
+    public long getSecondMillis() {
+        return toEpochMillis(year, month, day, hour, minute, second, 0);
+    }
+
+    /**
+     * Convert a local date/time in decoder time zone to epoch milliseconds.
+     * Fields are lenient, like a lenient Calendar : month 0 is december of previous year, hours may exceed 23.
+     *
+     * @param year   year
+     * @param month  month (1-12)
+     * @param day    day of month
+     * @param hour   hours
+     * @param minute minutes
+     * @param second seconds
+     * @param millis milliseconds
+     * @return epoch milliseconds
+     */
+    public long toEpochMillis(int year, int month, int day, int hour, int minute, int second, int millis) {
+        int monthIndex = month - 1;
+        int normalizedYear = year + floorDiv(monthIndex, 12);
+        int normalizedMonth = monthIndex - floorDiv(monthIndex, 12) * 12 + 1;
+        if (normalizedYear < FIRST_DECODED_YEAR) {
+            return calendarMillis(year, month, day, hour, minute, second, millis);
+        }
+        long localDay = daysFromCivil(normalizedYear, normalizedMonth) + day - 1;
+        long localMillis = localDay * MILLIS_PER_DAY
+                + ((hour * 60L + minute) * 60L + second) * 1000L + millis;
+        int offset = getDayOffset(floorDiv(localMillis, MILLIS_PER_DAY));
+        if (offset == TRANSITION_DAY) {
+            //daylight saving gap/overlap rules are left to Calendar
+            return calendarMillis(year, month, day, hour, minute, second, millis);
+        }
+        return localMillis - offset;
+    }
+
+    /**
+     * Get time zone offset of a local day, using cache.
+     * Days containing a time zone transition return TRANSITION_DAY.
+     *
+     * @param localDay local day since 1970-01-01
+     * @return time zone offset in milliseconds
+     */
+    private int getDayOffset(long localDay) {
+        int slot = (int) localDay & (CACHE_SIZE - 1);
+        if (cachedDays[slot] != localDay) {
+            long dayStart = localDay * MILLIS_PER_DAY;
+            int startOffset = computeOffset(dayStart);
+            //compare with next midnight to detect overlap ending a day
+            int endOffset = computeOffset(dayStart + MILLIS_PER_DAY);
+            cachedDays[slot] = localDay;
+            cachedOffsets[slot] = (startOffset == endOffset) ? startOffset : TRANSITION_DAY;
+        }
+        return cachedOffsets[slot];
+    }
+
+    /**
+     * Compute offset of a local time. Time in a daylight saving gap use offset in effect before transition,
+     * so a day beginning in a gap is detected as a transition day.
+     *
+     * @param localMillis local time in milliseconds
+     * @return time zone offset in milliseconds
+     */
+    private int computeOffset(long localMillis) {
+        int offset = timeZone.getOffset(localMillis - timeZone.getRawOffset());
+        int adjusted = timeZone.getOffset(localMillis - offset);
+        if (adjusted == offset || timeZone.getOffset(localMillis - adjusted) == adjusted) {
+            return adjusted;
+        }
+        return timeZone.getOffset(localMillis - Math.max(offset, adjusted));
+    }
+
+    private long calendarMillis(int year, int month, int day, int hour, int minute, int second, int millis) {
+        if (fallbackCalendar == null) {
+            fallbackCalendar = new GregorianCalendar(timeZone);
+        }
+        fallbackCalendar.clear();
+        fallbackCalendar.set(year, month - 1, day, hour, minute, second);
+        fallbackCalendar.set(Calendar.MILLISECOND, millis);
+        return fallbackCalendar.getTimeInMillis();
+    }
+
+    /**
+     * Number of days from 1970-01-01 to the first day of the month in proleptic gregorian calendar.
+     *
+     * @param year  year
+     * @param month month (1-12)
+     * @return number of days
+     */
+    static long daysFromCivil(int year, int month) {
+        int yr = (month <= 2) ? year - 1 : year;
+        long era = floorDiv(yr, 400);
+        long yearOfEra = yr - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static long floorDiv(long value, long divisor) {
+        long result = value / divisor;
+        return (value % divisor != 0 && value < 0) ? result - 1 : result;
+    }
+
+    private static int floorDiv(int value, int divisor) {
+        int result = value / divisor;
+        return (value % divisor != 0 && value < 0) ? result - 1 : result;
+    }
+
+    private void clear() {
+        year = 0;
+        month = 0;
+        day = 0;
+        hour = 0;
+        minute = 0;
+        second = 0;
+        nanos = 0;
+        hourDigits = 0;
+        negate = false;
+    }
+
+    private static int readInt(byte[] buf, int pos) {
+        return (buf[pos] & 0xff)
+                + ((buf[pos + 1] & 0xff) << 8)
+                + ((buf[pos + 2] & 0xff) << 16)
+                + ((buf[pos + 3] & 0xff) << 24);
+    }
+
+    private static int digits(byte[] buf, int pos, int count, int off, int length) throws ParseException {
+        int value = 0;
+        for (int i = pos; i < pos + count; i++) {
+            int digit = buf[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw parseException(buf, off, length, "date");
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Parse fractional seconds, up to nanoseconds. Missing digits are considered as zeros.
+     */
+    private static int fraction(byte[] buf, int pos, int off, int length) throws ParseException {
+        int end = off + length;
+        int value = 0;
+        for (int i = 0; i < 9; i++) {
+            int digit = 0;
+            if (pos + i < end) {
+                digit = buf[pos + i] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new ParseException("cannot parse subsecond part in timestamp string '"
+                            + new String(buf, off, length, StandardCharsets.UTF_8) + "'", pos + i - off);
+                }
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static ParseException parseException(byte[] buf, int off, int length, String type) {
+        return new ParseException("Value \"" + new String(buf, off, length, StandardCharsets.UTF_8)
+                + "\" cannot be parse as " + type, 0);
+    }
+
+}
@@ -59,6 +59,7 @@ import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
 import org.mariadb.jdbc.internal.packet.Packet;
 import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
 import org.mariadb.jdbc.internal.packet.result.*;
+import org.mariadb.jdbc.internal.protocol.AbstractQueryProtocol;
 import org.mariadb.jdbc.internal.protocol.Protocol;
 import org.mariadb.jdbc.internal.queryresults.ColumnNameMap;
 import org.mariadb.jdbc.internal.queryresults.Results;
@@ -69,6 +70,7 @@ import org.mariadb.jdbc.internal.util.Options;
 import org.mariadb.jdbc.internal.util.buffer.Buffer;
 import org.mariadb.jdbc.internal.util.constant.ServerStatus;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
+import org.mariadb.jdbc.internal.util.dao.ServerPrepareResult;
 
 import java.io.*;
 import java.math.BigDecimal;
@@ -79,15 +81,18 @@ import java.nio.charset.*;
 import java.sql.*;
 import java.sql.Date;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.regex.Pattern;
 
 import static org.mariadb.jdbc.internal.util.SqlStates.CONNECTION_EXCEPTION;
 
 @SuppressWarnings("deprecation")
-public class MariaSelectResultSet implements ResultSet {
+public class MariaSelectResultSet implements ResultSet, MariaDbColumnarResultSet {
     private static Logger logger = LoggerFactory.getLogger(MariaSelectResultSet.class);
 
     private static final ColumnInformation[] INSERT_ID_COLUMNS;
@@ -97,9 +102,12 @@ public class MariaSelectResultSet implements ResultSet {
         INSERT_ID_COLUMNS[0] = ColumnInformation.create("insert_id", MariaDbType.BIGINT);
     }
 
+    private static final long PREFETCH_LOCK_WAIT_MILLIS = 10;
+    //columnar batch row limit, so column arrays and row boundaries index stay small for big results
+    public static final int MAX_COLUMNAR_BATCH_ROWS = 1024;
+
     public static final int TINYINT1_IS_BIT = 1;
     public static final int YEAR_IS_DATE_TYPE = 2;
-    private static final Pattern isIntegerRegex = Pattern.compile("^-?\\d+\\.0+$");
 
     private Protocol protocol;
     private ReadPacketFetcher packetFetcher;
@@ -115,13 +123,28 @@ public class MariaSelectResultSet implements ResultSet {
     private int dataFetchTime;
     private boolean streaming;
     private int columnInformationLength;
-    private List<byte[][]> resultSet;
+    private RowArena resultSet;
     private int resultSetSize;
     private int fetchSize;
     private int resultSetScrollType;
     private int rowPointer;
     private ColumnNameMap columnNameMap;
     private Calendar cal;
+    private DateDecoder localDateDecoder;
+    private RowArena prefetchArena;
+    private AdaptiveFetchSize adaptiveFetchSize;
+    private FutureTask<Void> prefetchTask;
+    private volatile boolean prefetchCancelled;
+    private DateDecoder calendarDateDecoder;
+    private StringDictionary[] stringDictionaries;
+    private int batchStart;
+    private int batchEnd;
+    private int[][] intColumns;
+    private long[][] longColumns;
+    private double[][] doubleColumns;
+    private long[][] nullBitmaps;
+    private int[] columnOffsets;
+    private int[] columnLengths;
     private boolean lastGetWasNull;
     private int dataTypeMappingFlags;
     private Options options;
@@ -159,9 +182,15 @@ public class MariaSelectResultSet implements ResultSet {
             this.returnTableAlias = false;
         }
         this.columnsInformation = columnInformation;
-        this.columnNameMap = new ColumnNameMap(columnsInformation);
+        ServerPrepareResult serverPrepareResult = results.getServerPrepareResult();
+        this.columnNameMap = (serverPrepareResult != null)
+                ? serverPrepareResult.getColumnNameMap(columnsInformation)
+                : ColumnNameMap.forColumns(columnsInformation);
 
         this.columnInformationLength = columnInformation.length;
+        if (options != null && options.stringDictionaryDecoding) {
+            this.stringDictionaries = new StringDictionary[columnInformationLength];
+        }
         this.packetFetcher = fetcher;
         this.inputStream = packetFetcher.getInputStream();
         this.isEof = false;
@@ -173,20 +202,38 @@ public class MariaSelectResultSet implements ResultSet {
         }
         this.fetchSize = results.getFetchSize();
         this.resultSetScrollType = results.getResultSetScrollType();
-        this.resultSet = new ArrayList<>();
         this.resultSetSize = 0;
         this.dataFetchTime = 0;
         this.rowPointer = -1;
         this.callableResult = callableResult;
 
-        if (fetchSize == 0 || callableResult) {
+        RowPacket slicer = (options != null && options.lazyColumnDecoding) ? rowPacket : null;
+        RowHandler rowHandler = results.getRowHandler();
+        if (rowHandler != null && !callableResult) {
+            this.resultSet = new RowArena(columnInformationLength, 1, slicer);
+            handleAllRows(rowHandler, results);
+            streaming = false;
+        } else if (fetchSize == 0 || callableResult) {
+            this.resultSet = new RowArena(columnInformationLength, 10, slicer);
+            resultSet.setMemoryBudget(options == null ? 0 : options.resultSetMemoryBudget);
             fetchAllResults();
             streaming = false;
         } else {
             protocol.setActiveStreamingResult(results);
-            resultSet = new ArrayList<>(fetchSize);
+            resultSet = new RowArena(columnInformationLength, fetchSize, slicer);
+            resultSet.setRecycleChunks(resultSetScrollType == TYPE_FORWARD_ONLY);
+            resultSet.setMemoryBudget(options.resultSetMemoryBudget);
+            if (options.adaptiveFetchSize) {
+                adaptiveFetchSize = new AdaptiveFetchSize(fetchSize, options.adaptiveFetchTargetBytes);
+            }
             nextStreamingValue();
             streaming = true;
+            if (options.prefetchStreamingResult && resultSetScrollType == TYPE_FORWARD_ONLY
+                    && AbstractQueryProtocol.readScheduler != null) {
+                prefetchArena = new RowArena(columnInformationLength, fetchSize, slicer);
+                prefetchArena.setRecycleChunks(true);
+                startPrefetch();
+            }
         }
 
     }
@@ -195,12 +242,12 @@ public class MariaSelectResultSet implements ResultSet {
      * Create filled resultset.
      *
      * @param columnInformation   column information
-     * @param resultSet           resultset
+     * @param resultSet           rows
      * @param protocol            current protocol
      * @param resultSetScrollType one of the following <code>ResultSet</code> constants: <code>ResultSet.TYPE_FORWARD_ONLY</code>,
      *                            <code>ResultSet.TYPE_SCROLL_INSENSITIVE</code>, or <code>ResultSet.TYPE_SCROLL_SENSITIVE</code>
      */
-    public MariaSelectResultSet(ColumnInformation[] columnInformation, List<byte[][]> resultSet, Protocol protocol,
+    public MariaSelectResultSet(ColumnInformation[] columnInformation, RowArena resultSet, Protocol protocol,
                                 int resultSetScrollType) {
         this.statement = null;
         this.isClosed = false;
@@ -245,12 +292,13 @@ public class MariaSelectResultSet implements ResultSet {
         ColumnInformation[] columns = new ColumnInformation[1];
         columns[0] = ColumnInformation.create("insert_id", MariaDbType.BIGINT);
 
-        List<byte[][]> rows = new ArrayList<>();
+        RowArena rows = new RowArena(1, data.length);
         for (long rowData : data) {
             if (rowData != 0) {
-                byte[][] row = new byte[1][];
-                row[0] = String.valueOf(rowData).getBytes();
-                rows.add(row);
+                byte[] value = String.valueOf(rowData).getBytes();
+                rows.startRow(value.length);
+                rows.append(value, 0, value.length);
+                rows.endRow();
             }
         }
         if (findColumnReturnsOne) {
@@ -287,7 +335,7 @@ public class MariaSelectResultSet implements ResultSet {
 
         final byte[] boolTrue = {1};
         final byte[] boolFalse = {0};
-        List<byte[][]> rows = new ArrayList<>();
+        RowArena rows = new RowArena(columnNameLength, data.length);
         for (String[] rowData : data) {
             byte[][] row = new byte[columnNameLength][];
 
@@ -310,33 +358,71 @@ public class MariaSelectResultSet implements ResultSet {
                 }
                 row[i] = bytes;
             }
-            rows.add(row);
+            rows.addRow(row);
         }
         return new MariaSelectResultSet(columns, rows, protocol, TYPE_SCROLL_SENSITIVE);
     }
 
     public static MariaSelectResultSet createEmptyResultSet() {
-        return new MariaSelectResultSet(INSERT_ID_COLUMNS, new ArrayList<byte[][]>(), null,
+        return new MariaSelectResultSet(INSERT_ID_COLUMNS, new RowArena(1, 0), null,
                 TYPE_SCROLL_SENSITIVE);
     }
 
     private void fetchAllResults() throws IOException, QueryException {
 
-        final List<byte[][]> valueObjects = new ArrayList<>();
-        while (readNextValue(valueObjects)) {
+        while (readNextValue(resultSet)) {
             //fetch all results
         }
         dataFetchTime++;
-        resultSet = valueObjects;
         this.resultSetSize = resultSet.size();
     }
 
+    /**
+     * Push rows to handler as soon as read. Only current row is stored, resultSet is empty afterward.
+     * If handler throws an exception, remaining rows are skipped to keep connection state.
+     *
+     * @param rowHandler row handler
+     * @param results    results
+     * @throws IOException    if socket exception occur
+     * @throws QueryException if server return an unexpected error or if handler has thrown an exception
+     */
+    private void handleAllRows(RowHandler rowHandler, Results results) throws IOException, QueryException {
+        Exception handlerException = null;
+        while (readNextValue(resultSet)) {
+            if (handlerException == null) {
+                resultSetSize = 1;
+                rowPointer = 0;
+                try {
+                    rowHandler.handleRow(this);
+                    results.addHandledRow();
+                } catch (Exception exception) {
+                    handlerException = exception;
+                }
+            }
+            resultSet.clear();
+        }
+        dataFetchTime++;
+        resultSetSize = 0;
+        rowPointer = -1;
+
+        if (handlerException != null) {
+            String sqlState = (handlerException instanceof SQLException
+                    && ((SQLException) handlerException).getSQLState() != null)
+                    ? ((SQLException) handlerException).getSQLState() : "HY000";
+            int errorCode = (handlerException instanceof SQLException)
+                    ? ((SQLException) handlerException).getErrorCode() : -1;
+            throw new QueryException("Row handler error : " + handlerException.getMessage(), errorCode, sqlState,
+                    handlerException);
+        }
+    }
+
     /**
      * When protocol has a current Streaming result (this) fetch all to permit another query is executing.
      *
      * @throws SQLException if any error occur
      */
     public void fetchRemaining() throws SQLException {
+        stopPrefetch();
         try {
             try {
                 if (!isEof) {
@@ -369,11 +455,17 @@ public class MariaSelectResultSet implements ResultSet {
      * @throws QueryException if server return an unexpected error
      */
     private void nextStreamingValue() throws IOException, QueryException {
+        if (adaptiveFetchSize != null) adaptiveFetchSize.batchConsumed();
+        int initialSize = resultSet.size();
 
         //if resultSet can be back to some previous value
-        if (resultSetScrollType == TYPE_FORWARD_ONLY) resultSet.clear();
+        if (resultSetScrollType == TYPE_FORWARD_ONLY) {
+            resultSet.clear();
+            initialSize = 0;
+        }
 
         addStreamingValue();
+        if (adaptiveFetchSize != null) adaptiveFetchSize.batchDelivered(resultSetSize - initialSize);
     }
 
     /**
@@ -385,24 +477,211 @@ public class MariaSelectResultSet implements ResultSet {
     private void addStreamingValue() throws IOException, QueryException {
 
         //fetch maximum fetchSize results
-        int fetchSizeTmp = fetchSize;
-        while (fetchSizeTmp > 0 && readNextValue(resultSet)) {
+        readBatch(resultSet, Long.MAX_VALUE);
+        dataFetchTime++;
+        this.resultSetSize = resultSet.size();
+    }
+
+    /**
+     * Read next streaming batch into arena : at most fetchSize rows (or adaptive batch size when enabled)
+     * and until arena data reach maxBytes.
+     *
+     * @param arena    arena to fill
+     * @param maxBytes arena data size limit
+     * @throws IOException    if socket exception occur
+     * @throws QueryException if server return an unexpected error
+     */
+    private void readBatch(RowArena arena, long maxBytes) throws IOException, QueryException {
+        AdaptiveFetchSize adaptive = adaptiveFetchSize;
+        if (adaptive == null) {
+            int fetchSizeTmp = fetchSize;
+            while (fetchSizeTmp > 0 && arena.getDataSize() < maxBytes && readNextValue(arena)) {
+                fetchSizeTmp--;
+            }
+            return;
+        }
+
+        int initialRows = arena.size();
+        long initialBytes = arena.getDataSize();
+        int fetchSizeTmp = adaptive.batchStarting();
+        long start = System.nanoTime();
+        while (fetchSizeTmp > 0 && arena.getDataSize() < maxBytes && readNextValue(arena)) {
             fetchSizeTmp--;
         }
+        adaptive.batchRead(arena.size() - initialRows, arena.getDataSize() - initialBytes, System.nanoTime() - start);
+    }
+
+    /**
+     * Adaptive fetch size of streaming result-set, giving current batch size and last batch statistics.
+     *
+     * @return adaptive fetch size, or null if not streaming with option adaptiveFetchSize
+     */
+    public AdaptiveFetchSize getAdaptiveFetchSize() {
+        return adaptiveFetchSize;
+    }
+
+    /**
+     * Prefetch mode : start reading next rows in background, while current rows are processed.
+     * If no thread is available, next rows will be read when needed.
+     */
+    private void startPrefetch() {
+        if (isEof) return;
+        final ReentrantLock lock = protocol.getLock();
+        prefetchCancelled = false;
+        FutureTask<Void> task = new FutureTask<Void>(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                prefetch(lock);
+                return null;
+            }
+        });
+        try {
+            AbstractQueryProtocol.readScheduler.execute(task);
+            prefetchTask = task;
+        } catch (RejectedExecutionException rejected) {
+            //no thread available
+        }
+    }
+
+    /**
+     * Background read of next rows, at most fetchSize rows and prefetchBufferSize bytes.
+     * Connection lock is only waited with timeout, checking cancellation, since thread cancelling prefetch
+     * may already hold the lock.
+     *
+     * @param lock connection lock
+     * @throws IOException    if any connection error occur
+     * @throws QueryException if server return an error
+     * @throws InterruptedException if thread is interrupted waiting for lock
+     */
+    private void prefetch(ReentrantLock lock) throws IOException, QueryException, InterruptedException {
+        while (!lock.tryLock(PREFETCH_LOCK_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (prefetchCancelled) return;
+        }
+        try {
+            if (prefetchCancelled) return;
+            readBatch(prefetchArena, options.prefetchBufferSize);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wait for background read to finish.
+     *
+     * @throws IOException    if background read had a connection error
+     * @throws QueryException if background read had a server error
+     */
+    private void awaitPrefetch() throws IOException, QueryException {
+        FutureTask<Void> task = prefetchTask;
+        if (task == null) return;
+        prefetchTask = null;
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    task.get();
+                    return;
+                } catch (InterruptedException interruptedException) {
+                    //must wait anyway, connection cannot be used while background read is in progress
+                    interrupted = true;
+                }
+            }
+        } catch (ExecutionException executionException) {
+            Throwable cause = executionException.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof QueryException) throw (QueryException) cause;
+            throw new QueryException("Error reading streaming resultSet : " + cause.getMessage(), -1,
+                    CONNECTION_EXCEPTION, cause);
+        } finally {
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Prefetch mode : current rows have all been read, replace them by prefetched rows.
+     *
+     * @return true if there is a new row
+     * @throws SQLException if a connection error occur
+     */
+    private boolean nextPrefetchedRows() throws SQLException {
+        //processing time is measured here, since batches are read in background
+        if (adaptiveFetchSize != null) adaptiveFetchSize.batchConsumed();
+        try {
+            awaitPrefetch();
+            if (prefetchArena.size() == 0 && !isEof) {
+                //background read didn't occur
+                ReentrantLock lock = protocol.getLock();
+                lock.lock();
+                try {
+                    readBatch(prefetchArena, Long.MAX_VALUE);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (IOException ioe) {
+            throw new SQLException("Server has closed the connection. If result set contain huge amount of data, Server expects client to"
+                    + " read off the result set relatively fast. "
+                    + "In this case, please consider increasing net_wait_timeout session variable."
+                    + " / processing your result set faster (check Streaming result sets documentation for more information)", ioe);
+        } catch (QueryException queryException) {
+            throw new SQLException(queryException);
+        }
+
+        if (prefetchArena.size() == 0) {
+            //all data are reads and pointer is after last
+            rowPointer = resultSetSize;
+            return false;
+        }
+
+        RowArena consumed = resultSet;
+        resultSet = prefetchArena;
+        prefetchArena = consumed;
+        prefetchArena.clear();
         dataFetchTime++;
-        this.resultSetSize = resultSet.size();
+        resultSetSize = resultSet.size();
+        if (adaptiveFetchSize != null) adaptiveFetchSize.batchDelivered(resultSetSize);
+        startPrefetch();
+
+        rowPointer = 0;
+        return resultSetSize > 0;
+    }
+
+    /**
+     * Prefetch mode : wait for background read, and add prefetched rows to current rows, so resultSet state can be
+     * used safely. Prefetch starts again when current rows have all been read.
+     *
+     * @throws SQLException if background read had an error
+     */
+    private void stopPrefetch() throws SQLException {
+        if (prefetchArena == null) return;
+        prefetchCancelled = true;
+        try {
+            awaitPrefetch();
+        } catch (IOException ioe) {
+            throw new SQLException("Server has closed the connection. If result set contain huge amount of data, Server expects client to"
+                    + " read off the result set relatively fast. "
+                    + "In this case, please consider increasing net_wait_timeout session variable."
+                    + " / processing your result set faster (check Streaming result sets documentation for more information)", ioe);
+        } catch (QueryException queryException) {
+            throw new SQLException(queryException);
+        }
+        if (prefetchArena.size() > 0) {
+            resultSet.addRows(prefetchArena);
+            prefetchArena.clear();
+            resultSetSize = resultSet.size();
+        }
     }
 
 
     /**
      * Read next value.
      *
-     * @param values values
+     * @param values row storage
      * @return true if have a new value
      * @throws IOException    exception
      * @throws QueryException exception
      */
-    public boolean readNextValue(List<byte[][]> values) throws IOException, QueryException {
+    public boolean readNextValue(RowArena values) throws IOException, QueryException {
         int length = inputStream.readHeader();
         if (length < 0x00ffffff) {
             //There is only one packet.
@@ -417,8 +696,9 @@ public class MariaSelectResultSet implements ResultSet {
                 protocol.removeActiveStreamingResult();
                 protocol.setMoreResults(false);
                 Buffer buffer = packetFetcher.getReusableBuffer(remaining, lastReusableArray);
+                lastReusableArray = buffer.buf;
                 ErrorPacket errorPacket = new ErrorPacket(buffer, false);
-                lastReusableArray = null;
+                releaseReusableArray();
                 protocol = null;
                 packetFetcher = null;
                 inputStream = null;
@@ -432,6 +712,7 @@ public class MariaSelectResultSet implements ResultSet {
 
             if (read == 254 && remaining < 9) { //EOF packet
                 Buffer buffer = packetFetcher.getReusableBuffer(remaining, lastReusableArray);
+                lastReusableArray = buffer.buf;
                 protocol.setHasWarnings(((buffer.buf[0] & 0xff) + ((buffer.buf[1] & 0xff) << 8)) > 0);
 
                 //force the more packet value when this is a callable output result.
@@ -442,14 +723,14 @@ public class MariaSelectResultSet implements ResultSet {
                         || (((buffer.buf[2] & 0xff) + ((buffer.buf[3] & 0xff) << 8)) & ServerStatus.MORE_RESULTS_EXISTS) != 0);
                 isEof = true;
                 if (!protocol.hasMoreResults()) protocol.removeActiveStreamingResult();
+                releaseReusableArray();
                 protocol = null;
                 packetFetcher = null;
                 inputStream = null;
-                lastReusableArray = null;
                 return false;
             }
 
-            values.add(rowPacket.getRow(packetFetcher, inputStream, remaining, read));
+            rowPacket.appendRow(packetFetcher, inputStream, remaining, read, values);
             return true;
         }
 
@@ -462,7 +743,7 @@ public class MariaSelectResultSet implements ResultSet {
             protocol.removeActiveStreamingResult();
             protocol.setMoreResults(false);
             ErrorPacket errorPacket = new ErrorPacket(buffer);
-            lastReusableArray = null;
+            releaseReusableArray();
             protocol = null;
             packetFetcher = null;
             inputStream = null;
@@ -481,56 +762,130 @@ public class MariaSelectResultSet implements ResultSet {
             protocol.setMoreResults(callableResult
                     || (((buffer.buf[3] & 0xff) + ((buffer.buf[4] & 0xff) << 8)) & ServerStatus.MORE_RESULTS_EXISTS) != 0);
             if (!protocol.hasMoreResults()) protocol.removeActiveStreamingResult();
+            releaseReusableArray();
             protocol = null;
             packetFetcher = null;
             inputStream = null;
-            lastReusableArray = null;
             return false;
         }
-        values.add(rowPacket.getRow(packetFetcher, buffer));
+        rowPacket.appendRow(packetFetcher, buffer, values);
         return true;
     }
 
+    /**
+     * Discard remaining rows of a streaming resultSet. Packets payloads are skipped in bulk, only the terminating
+     * packet is parsed.
+     * When options streamingCloseKillBytes or streamingCloseKillTimeout thresholds are reached, query is killed
+     * so server ends the result early with an error, that is then ignored.
+     *
+     * @throws IOException    if socket exception occur
+     * @throws QueryException if server return an unexpected error
+     */
+    private void skipRemainingRows() throws IOException, QueryException {
+        final long killBytes = (options == null) ? 0 : options.streamingCloseKillBytes;
+        final long killNanos = (options == null) ? 0 : TimeUnit.MILLISECONDS.toNanos(options.streamingCloseKillTimeout);
+        final long startTime = System.nanoTime();
+        byte[] skipBuffer = new byte[8192];
+        long skippedBytes = 0;
+        boolean killed = false;
+        boolean continuation = false;
+
+        try {
+            while (!isEof) {
+                int length = inputStream.readHeader();
+                int remaining = length;
+                if (!continuation && length > 0) {
+                    int read = inputStream.read() & 0xff;
+                    remaining--;
+                    if (read == 255 || (read == 254 && length < 9)) {
+                        //last reusable array is released when closing, once buffer is parsed
+                        Buffer buffer = packetFetcher.getReusableBuffer(remaining, lastReusableArray);
+                        lastReusableArray = buffer.buf;
+                lastReusableArray = buffer.buf;
+                        isEof = true;
+                        if (read == 255) {
+                            protocol.removeActiveStreamingResult();
+                            protocol.setMoreResults(false);
+                            //error is expected when query has been killed
+                            if (!killed) {
+                                ErrorPacket errorPacket = new ErrorPacket(buffer, false);
+                                throw new QueryException(errorPacket.getMessage(), errorPacket.getErrorNumber(),
+                                        errorPacket.getSqlState());
+                            }
+                        } else {
+                            protocol.setHasWarnings(((buffer.buf[0] & 0xff) + ((buffer.buf[1] & 0xff) << 8)) > 0);
+                            protocol.setMoreResults(callableResult
+                                    || (((buffer.buf[2] & 0xff) + ((buffer.buf[3] & 0xff) << 8)) & ServerStatus.MORE_RESULTS_EXISTS) != 0);
+                            if (!protocol.hasMoreResults()) protocol.removeActiveStreamingResult();
+                        }
+                        break;
+                    }
+                }
+
+                while (remaining > 0) {
+                    int count = inputStream.read(skipBuffer, 0, Math.min(remaining, skipBuffer.length));
+                    if (count <= 0) {
+                        throw new EOFException("unexpected end of stream, read " + (length - remaining) + " bytes from " + length);
+                    }
+                    remaining -= count;
+                }
+                skippedBytes += length;
+                continuation = (length == 0x00ffffff);
+
+                if (!killed && ((killBytes > 0 && skippedBytes > killBytes)
+                        || (killNanos > 0 && System.nanoTime() - startTime > killNanos))) {
+                    killed = true;
+                    try {
+                        protocol.cancelCurrentQuery();
+                    } catch (Exception exception) {
+                        logger.warn("Could not kill query of closed streaming resultSet : " + exception.getMessage());
+                    }
+                }
+            }
+        } finally {
+            if (protocol != null) protocol.addSkippedStreamingResult(skippedBytes, killed);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Streaming resultSet closed : skipped " + skippedBytes + " bytes in "
+                        + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + "ms"
+                        + (killed ? ", query killed" : ""));
+            }
+        }
+    }
+
+    /**
+     * Give back last array used to read rows to buffer pool, once all rows are read.
+     */
+    private void releaseReusableArray() {
+        if (packetFetcher != null) packetFetcher.releaseBuffer(lastReusableArray);
+        lastReusableArray = null;
+    }
+
     /**
      * Close resultSet.
      */
     public void close() throws SQLException {
         isClosed = true;
+        if (prefetchArena != null) {
+            prefetchCancelled = true;
+            try {
+                awaitPrefetch();
+            } catch (Exception exception) {
+                //background read error : connection state is already set accordingly
+            }
+            prefetchArena.release();
+        }
         if (protocol != null) {
             ReentrantLock lock = protocol.getLock();
             lock.lock();
             try {
-                while (!isEof) {
-                    //fetch all results
-                    Buffer buffer = packetFetcher.getReusableBuffer();
-
-                    //is error Packet
-                    if (buffer.getByteAt(0) == Packet.ERROR) {
-                        protocol.removeActiveStreamingResult();
-                        protocol.setMoreResults(false);
-                        ErrorPacket errorPacket = new ErrorPacket(buffer);
-                        throw new QueryException(errorPacket.getMessage(), errorPacket.getErrorNumber(), errorPacket.getSqlState());
-                    }
-
-                    //is EOF stream
-                    if ((buffer.getByteAt(0) == Packet.EOF && buffer.limit < 9)) {
-                        final EndOfFilePacket endOfFilePacket = new EndOfFilePacket(buffer);
-
-                        protocol.setHasWarnings(endOfFilePacket.getWarningCount() > 0);
-                        protocol.setMoreResults(callableResult || (endOfFilePacket.getStatusFlags() & ServerStatus.MORE_RESULTS_EXISTS) != 0);
-                        if (!protocol.hasMoreResults()) protocol.removeActiveStreamingResult();
-
-                        lastReusableArray = null;
-                        isEof = true;
-                    }
-                }
-
+                if (!isEof) skipRemainingRows();
             } catch (IOException ioexception) {
                 ExceptionMapper.throwException(new QueryException("Could not close resultSet : "
                         + ioexception.getMessage(), -1, CONNECTION_EXCEPTION, ioexception), null, this.statement);
             } catch (QueryException queryException) {
                 ExceptionMapper.throwException(queryException, null, this.statement);
             } finally {
+                releaseReusableArray();
                 protocol = null;
                 packetFetcher = null;
                 inputStream = null;
@@ -539,12 +894,7 @@ public class MariaSelectResultSet implements ResultSet {
         }
 
         //clean releasing memory
-        for (byte[][] bytes : resultSet) {
-            for (int i = 0; i < bytes.length; i++) {
-                bytes[i] = null;
-            }
-        }
-        resultSet.clear();
+        resultSet.release();
 
         if (statement != null) {
             ((MariaDbStatement) statement).checkCloseOnCompletion(this);
@@ -559,6 +909,9 @@ public class MariaSelectResultSet implements ResultSet {
             rowPointer++;
             return true;
         } else {
+            if (prefetchArena != null) {
+                return nextPrefetchedRows();
+            }
             if (streaming && !isEof) {
                 ReentrantLock lock = protocol.getLock();
                 lock.lock();
@@ -594,20 +947,27 @@ public class MariaSelectResultSet implements ResultSet {
     }
 
     protected byte[] checkObjectRange(int position) throws SQLException {
+        checkRange(position);
+        return resultSet.getBytes(this.rowPointer, position - 1);
+    }
+
+    /**
+     * Check that row and column position are valid, and set lastGetWasNull according to value.
+     *
+     * @param position column position (1-based)
+     * @throws SQLException if position is invalid
+     */
+    private void checkRange(int position) throws SQLException {
         if (this.rowPointer < 0) {
             throwError("Current position is before the first row", ExceptionCode.INVALID_PARAMETER_VALUE);
         }
         if (this.rowPointer >= resultSetSize) {
             throwError("Current position is after the last row", ExceptionCode.INVALID_PARAMETER_VALUE);
         }
-        byte[][] row = resultSet.get(this.rowPointer);
-        if (position <= 0 || position > row.length) {
+        if (position <= 0 || position > columnInformationLength) {
             throwError("No such column: " + position, ExceptionCode.INVALID_PARAMETER_VALUE);
         }
-        byte[] vo = row[position - 1];
-
-        this.lastGetWasNull = isNull(vo, columnsInformation[position - 1].getType());
-        return vo;
+        this.lastGetWasNull = isNull(position - 1, columnsInformation[position - 1].getType());
     }
 
     private void throwError(String message, ExceptionCode exceptionCode) throws SQLException {
@@ -650,6 +1010,7 @@ public class MariaSelectResultSet implements ResultSet {
             return false;
 
         } else {
+            stopPrefetch();
 
             if (streaming && !isEof) {
 
@@ -690,6 +1051,10 @@ public class MariaSelectResultSet implements ResultSet {
     @Override
     public boolean isLast() throws SQLException {
         checkClose();
+        if (rowPointer < resultSetSize - 1) {
+            return false;
+        }
+        stopPrefetch();
         if (rowPointer < resultSetSize - 1) {
             return false;
         } else if (isEof) {
@@ -735,6 +1100,7 @@ public class MariaSelectResultSet implements ResultSet {
     @Override
     public void afterLast() throws SQLException {
         checkClose();
+        stopPrefetch();
         if (!isEof) {
             //load remaining results
             ReentrantLock lock = protocol.getLock();
@@ -768,6 +1134,7 @@ public class MariaSelectResultSet implements ResultSet {
     @Override
     public boolean last() throws SQLException {
         checkClose();
+        stopPrefetch();
         if (!isEof) {
             //load remaining results
             ReentrantLock lock = protocol.getLock();
@@ -810,6 +1177,7 @@ public class MariaSelectResultSet implements ResultSet {
         }
 
         //if streaming, must read additional results.
+        stopPrefetch();
         if (!isEof) {
             ReentrantLock lock = protocol.getLock();
             lock.lock();
@@ -898,6 +1266,8 @@ public class MariaSelectResultSet implements ResultSet {
     @Override
     public void setFetchSize(int fetchSize) throws SQLException {
         if (streaming && fetchSize == 0) {
+            stopPrefetch();
+            prefetchArena = null;
 
             try {
                 while (readNextValue(resultSet)) {
@@ -913,6 +1283,9 @@ public class MariaSelectResultSet implements ResultSet {
             dataFetchTime++;
 
         }
+        if (adaptiveFetchSize != null) {
+            adaptiveFetchSize = (fetchSize == 0) ? null : new AdaptiveFetchSize(fetchSize, options.adaptiveFetchTargetBytes);
+        }
         this.fetchSize = fetchSize;
     }
 
@@ -974,8 +1347,72 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public String getString(int columnIndex) throws SQLException {
-        byte[] rawByte = checkObjectRange(columnIndex);
-        return getString(rawByte, columnsInformation[columnIndex - 1], cal);
+        checkRange(columnIndex);
+        ColumnInformation columnInfo = columnsInformation[columnIndex - 1];
+        if (isRawString(columnInfo)) {
+            //decode directly from row storage
+            int length = resultSet.getLength(rowPointer, columnIndex - 1);
+            if (length < 0) {
+                return null;
+            }
+            if (stringDictionaries != null && isDictionaryString(columnInfo)) {
+                StringDictionary dictionary = stringDictionaries[columnIndex - 1];
+                if (dictionary == null) {
+                    dictionary = stringDictionaries[columnIndex - 1] = new StringDictionary();
+                }
+                return dictionary.decode(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1), length);
+            }
+            return new String(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1), length,
+                    StandardCharsets.UTF_8);
+        }
+        return getString(resultSet.getBytes(rowPointer, columnIndex - 1), columnInfo, cal);
+    }
+
+    /**
+     * Can column values be decoded using a dictionary : string value that will be returned as String by getObject().
+     *
+     * @param columnInfo column information
+     * @return true if dictionary can be used
+     */
+    private static boolean isDictionaryString(ColumnInformation columnInfo) {
+        switch (columnInfo.getType()) {
+            case VARCHAR:
+            case VARSTRING:
+            case STRING:
+                return !columnInfo.isBinary();
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Indicate if string value is the UTF-8 representation of raw bytes, without any transformation.
+     *
+     * @param columnInfo column information
+     * @return true if String can be created directly from raw bytes.
+     */
+    private boolean isRawString(ColumnInformation columnInfo) {
+        switch (columnInfo.getType()) {
+            case VARCHAR:
+            case VARSTRING:
+            case STRING:
+            case ENUM:
+            case SET:
+            case TINYBLOB:
+            case MEDIUMBLOB:
+            case LONGBLOB:
+            case BLOB:
+                return true;
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case MEDIUMINT:
+            case BIGINT:
+            case DATE:
+                return !isBinaryEncoded;
+            default:
+                return false;
+        }
     }
 
     /**
@@ -1112,7 +1549,14 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public int getInt(int columnIndex) throws SQLException {
-        return getInt(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1]);
+        //decode directly from row storage
+        checkRange(columnIndex);
+        int length = resultSet.getLength(rowPointer, columnIndex - 1);
+        if (length < 0) {
+            return 0;
+        }
+        return decodeInt(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1), length,
+                columnsInformation[columnIndex - 1]);
     }
 
     /**
@@ -1188,7 +1632,14 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public long getLong(int columnIndex) throws SQLException {
-        return getLong(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1]);
+        //decode directly from row storage
+        checkRange(columnIndex);
+        int length = resultSet.getLength(rowPointer, columnIndex - 1);
+        if (length < 0) {
+            return 0;
+        }
+        return decodeLong(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1), length,
+                columnsInformation[columnIndex - 1]);
     }
 
     /**
@@ -1276,7 +1727,20 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public float getFloat(int columnIndex) throws SQLException {
-        return getFloat(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1]);
+        //decode directly from row storage
+        checkRange(columnIndex);
+        int length = resultSet.getLength(rowPointer, columnIndex - 1);
+        if (length < 0) {
+            return 0;
+        }
+        ColumnInformation columnInfo = columnsInformation[columnIndex - 1];
+        if (!isBinaryEncoded) {
+            return parseFloat(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1), length, columnInfo);
+        }
+        if (columnInfo.getType() == MariaDbType.FLOAT) {
+            return Float.intBitsToFloat((int) readBinaryInt(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1), 4));
+        }
+        return getFloat(resultSet.getBytes(rowPointer, columnIndex - 1), columnInfo);
     }
 
     /**
@@ -1292,33 +1756,7 @@ public class MariaSelectResultSet implements ResultSet {
             return 0;
         }
         if (!this.isBinaryEncoded) {
-            switch (columnInfo.getType()) {
-                case BIT:
-                    return rawBytes[0];
-                case TINYINT:
-                case SMALLINT:
-                case YEAR:
-                case INTEGER:
-                case MEDIUMINT:
-                case FLOAT:
-                case DOUBLE:
-                case DECIMAL:
-                case VARSTRING:
-                case VARCHAR:
-                case STRING:
-                case OLDDECIMAL:
-                case BIGINT:
-                    try {
-                        return Float.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
-                    } catch (NumberFormatException nfe) {
-                        SQLException sqlException = new SQLException("Incorrect format \"" + new String(rawBytes, StandardCharsets.UTF_8)
-                                + "\" for getFloat for data field with type " + columnInfo.getType().getJavaTypeName(), "22003", 1264);
-                        sqlException.initCause(nfe);
-                        throw sqlException;
-                    }
-                default:
-                    throw new SQLException("getFloat not available for data field type " + columnInfo.getType().getJavaTypeName());
-            }
+            return parseFloat(rawBytes, 0, rawBytes.length, columnInfo);
         } else {
             long value;
             switch (columnInfo.getType()) {
@@ -1366,7 +1804,7 @@ public class MariaSelectResultSet implements ResultSet {
                 case STRING:
                 case OLDDECIMAL:
                     try {
-                        return Float.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
+                        return NumberParser.parseFloat(rawBytes, 0, rawBytes.length);
                     } catch (NumberFormatException nfe) {
                         SQLException sqlException = new SQLException("Incorrect format for getFloat for data field with type "
                                 + columnInfo.getType().getJavaTypeName(), "22003", 1264);
@@ -1376,14 +1814,47 @@ public class MariaSelectResultSet implements ResultSet {
                 default:
                     throw new SQLException("getFloat not available for data field type " + columnInfo.getType().getJavaTypeName());
             }
-            try {
-                return Float.valueOf(String.valueOf(value));
-            } catch (NumberFormatException nfe) {
-                SQLException sqlException = new SQLException("Incorrect format for getFloat for data field with type "
-                        + columnInfo.getType().getJavaTypeName(), "22003", 1264);
-                sqlException.initCause(nfe);
-                throw sqlException;
-            }
+            return (float) value;
+        }
+    }
+
+    /**
+     * Parse float from text protocol raw data.
+     *
+     * @param buf        array containing value
+     * @param off        value offset
+     * @param length     value length
+     * @param columnInfo current column information
+     * @return float
+     * @throws SQLException id any error occur
+     */
+    private float parseFloat(byte[] buf, int off, int length, ColumnInformation columnInfo) throws SQLException {
+        switch (columnInfo.getType()) {
+            case BIT:
+                return buf[off];
+            case TINYINT:
+            case SMALLINT:
+            case YEAR:
+            case INTEGER:
+            case MEDIUMINT:
+            case FLOAT:
+            case DOUBLE:
+            case DECIMAL:
+            case VARSTRING:
+            case VARCHAR:
+            case STRING:
+            case OLDDECIMAL:
+            case BIGINT:
+                try {
+                    return NumberParser.parseFloat(buf, off, length);
+                } catch (NumberFormatException nfe) {
+                    SQLException sqlException = new SQLException("Incorrect format \"" + new String(buf, off, length, StandardCharsets.UTF_8)
+                            + "\" for getFloat for data field with type " + columnInfo.getType().getJavaTypeName(), "22003", 1264);
+                    sqlException.initCause(nfe);
+                    throw sqlException;
+                }
+            default:
+                throw new SQLException("getFloat not available for data field type " + columnInfo.getType().getJavaTypeName());
         }
     }
 
@@ -1399,7 +1870,14 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public double getDouble(int columnIndex) throws SQLException {
-        return getDouble(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1]);
+        //decode directly from row storage
+        checkRange(columnIndex);
+        int length = resultSet.getLength(rowPointer, columnIndex - 1);
+        if (length < 0) {
+            return 0;
+        }
+        return decodeDouble(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1), length,
+                columnsInformation[columnIndex - 1]);
     }
 
 
@@ -1416,42 +1894,16 @@ public class MariaSelectResultSet implements ResultSet {
             return 0;
         }
         if (!this.isBinaryEncoded) {
+            return parseDouble(rawBytes, 0, rawBytes.length, columnInfo);
+        } else {
             switch (columnInfo.getType()) {
                 case BIT:
                     return rawBytes[0];
                 case TINYINT:
+                    return getTinyInt(rawBytes, columnInfo);
                 case SMALLINT:
                 case YEAR:
-                case INTEGER:
-                case MEDIUMINT:
-                case FLOAT:
-                case DOUBLE:
-                case DECIMAL:
-                case VARSTRING:
-                case VARCHAR:
-                case STRING:
-                case OLDDECIMAL:
-                case BIGINT:
-                    try {
-                        return Double.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
-                    } catch (NumberFormatException nfe) {
-                        SQLException sqlException = new SQLException("Incorrect format \"" + new String(rawBytes, StandardCharsets.UTF_8)
-                                + "\" for getDouble for data field with type " + columnInfo.getType().getJavaTypeName(), "22003", 1264);
-                        sqlException.initCause(nfe);
-                        throw sqlException;
-                    }
-                default:
-                    throw new SQLException("getDouble not available for data field type " + columnInfo.getType().getJavaTypeName());
-            }
-        } else {
-            switch (columnInfo.getType()) {
-                case BIT:
-                    return rawBytes[0];
-                case TINYINT:
-                    return getTinyInt(rawBytes, columnInfo);
-                case SMALLINT:
-                case YEAR:
-                    return getSmallInt(rawBytes, columnInfo);
+                    return getSmallInt(rawBytes, columnInfo);
                 case INTEGER:
                 case MEDIUMINT:
                     return getMediumInt(rawBytes, columnInfo);
@@ -1491,7 +1943,7 @@ public class MariaSelectResultSet implements ResultSet {
                 case STRING:
                 case OLDDECIMAL:
                     try {
-                        return Double.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
+                        return NumberParser.parseDouble(rawBytes, 0, rawBytes.length);
                     } catch (NumberFormatException nfe) {
                         SQLException sqlException = new SQLException("Incorrect format for getDouble for data field with type "
                                 + columnInfo.getType().getJavaTypeName(), "22003", 1264);
@@ -1504,6 +1956,46 @@ public class MariaSelectResultSet implements ResultSet {
         }
     }
 
+    /**
+     * Parse double from text protocol raw data.
+     *
+     * @param buf        array containing value
+     * @param off        value offset
+     * @param length     value length
+     * @param columnInfo current column information
+     * @return double
+     * @throws SQLException id any error occur
+     */
+    private double parseDouble(byte[] buf, int off, int length, ColumnInformation columnInfo) throws SQLException {
+        switch (columnInfo.getType()) {
+            case BIT:
+                return buf[off];
+            case TINYINT:
+            case SMALLINT:
+            case YEAR:
+            case INTEGER:
+            case MEDIUMINT:
+            case FLOAT:
+            case DOUBLE:
+            case DECIMAL:
+            case VARSTRING:
+            case VARCHAR:
+            case STRING:
+            case OLDDECIMAL:
+            case BIGINT:
+                try {
+                    return NumberParser.parseDouble(buf, off, length);
+                } catch (NumberFormatException nfe) {
+                    SQLException sqlException = new SQLException("Incorrect format \"" + new String(buf, off, length, StandardCharsets.UTF_8)
+                            + "\" for getDouble for data field with type " + columnInfo.getType().getJavaTypeName(), "22003", 1264);
+                    sqlException.initCause(nfe);
+                    throw sqlException;
+                }
+            default:
+                throw new SQLException("getDouble not available for data field type " + columnInfo.getType().getJavaTypeName());
+        }
+    }
+
     /**
      * {inheritDoc}.
      */
@@ -1522,6 +2014,15 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+        if (!isBinaryEncoded) {
+            //parse directly from row storage
+            checkRange(columnIndex);
+            int length = resultSet.getLength(rowPointer, columnIndex - 1);
+            if (length < 0) {
+                return null;
+            }
+            return NumberParser.parseBigDecimal(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1), length);
+        }
         return getBigDecimal(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1]);
     }
 
@@ -1546,7 +2047,7 @@ public class MariaSelectResultSet implements ResultSet {
             return null;
         }
         if (!this.isBinaryEncoded) {
-            return new BigDecimal(new String(rawBytes, StandardCharsets.UTF_8));
+            return NumberParser.parseBigDecimal(rawBytes, 0, rawBytes.length);
         } else {
             switch (columnInfo.getType()) {
                 case BIT:
@@ -1582,7 +2083,7 @@ public class MariaSelectResultSet implements ResultSet {
                 case DOUBLE:
                     return BigDecimal.valueOf(getDouble(rawBytes, columnInfo));
                 default:
-                    return new BigDecimal(new String(rawBytes, StandardCharsets.UTF_8));
+                    return NumberParser.parseBigDecimal(rawBytes, 0, rawBytes.length);
             }
         }
 
@@ -1606,8 +2107,14 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public Date getDate(int columnIndex) throws SQLException {
+        checkRange(columnIndex);
+        int length = resultSet.getLength(rowPointer, columnIndex - 1);
+        if (length < 0) {
+            return null;
+        }
         try {
-            return getDate(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1], cal);
+            return getDate(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1), length,
+                    columnsInformation[columnIndex - 1], cal);
         } catch (ParseException e) {
             throw ExceptionMapper.getSqlException("Could not parse column as date, was: \""
                     + getString(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1])
@@ -1626,8 +2133,14 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public Date getDate(int columnIndex, Calendar cal) throws SQLException {
+        checkRange(columnIndex);
+        int length = resultSet.getLength(rowPointer, columnIndex - 1);
+        if (length < 0) {
+            return null;
+        }
         try {
-            return getDate(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1], cal);
+            return getDate(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1), length,
+                    columnsInformation[columnIndex - 1], cal);
         } catch (ParseException e) {
             throw ExceptionMapper.getSqlException("Could not parse as date");
         }
@@ -1640,7 +2153,6 @@ public class MariaSelectResultSet implements ResultSet {
         return getDate(findColumn(columnLabel), cal);
     }
 
-
     /**
      * Get date from raw data.
      *
@@ -1654,53 +2166,69 @@ public class MariaSelectResultSet implements ResultSet {
         if (rawBytes == null) {
             return null;
         }
+        return getDate(rawBytes, 0, rawBytes.length, columnInfo, cal);
+    }
 
-        if (!this.isBinaryEncoded) {
-            String rawValue = new String(rawBytes, StandardCharsets.UTF_8);
-            String zeroDate = "0000-00-00";
-
-            if (rawValue.equals(zeroDate)) {
-                return null;
-            }
-
-            SimpleDateFormat sdf;
-            switch (columnInfo.getType()) {
-                case TIMESTAMP:
-                case DATETIME:
-                    Timestamp timestamp = getTimestamp(rawBytes, columnInfo, cal);
-                    if (timestamp == null) return null;
-                    return new Date(timestamp.getTime());
-                case TIME:
-                    Time time = getTime(rawBytes, columnInfo, cal);
-                    if (time == null) return null;
-                    return new Date(time.getTime());
-                case DATE:
-                    return new Date(
-                            Integer.parseInt(rawValue.substring(0, 4)) - 1900,
-                            Integer.parseInt(rawValue.substring(5, 7)) - 1,
-                            Integer.parseInt(rawValue.substring(8, 10))
-                    );
-                case YEAR:
-                    int year = Integer.parseInt(rawValue);
-                    if (rawBytes.length == 2 && columnInfo.getLength() == 2) {
-                        if (year <= 69) {
-                            year += 2000;
-                        } else {
-                            year += 1900;
-                        }
-                    }
+    /**
+     * Get date from raw data.
+     *
+     * @param buf        array containing value
+     * @param off        value offset
+     * @param length     value length
+     * @param columnInfo current column information
+     * @param cal        session calendar
+     * @return date
+     * @throws ParseException if raw data cannot be parse
+     */
+    private Date getDate(byte[] buf, int off, int length, ColumnInformation columnInfo, Calendar cal)
+            throws ParseException {
+        if (this.isBinaryEncoded) {
+            return binaryDate(buf, off, length, columnInfo, cal);
+        }
 
-                    return new Date(year - 1900, 0, 1);
-                default:
-                    sdf = new SimpleDateFormat("yyyy-MM-dd");
-                    if (cal != null) {
-                        sdf.setCalendar(cal);
-                    }
-            }
-            java.util.Date utilDate = sdf.parse(rawValue);
-            return new Date(utilDate.getTime());
-        } else {
-            return binaryDate(rawBytes, columnInfo, cal);
+        DateDecoder decoder;
+        switch (columnInfo.getType()) {
+            case TIMESTAMP:
+            case DATETIME:
+                if (isZeroDate(buf, off, length)) {
+                    return null;
+                }
+                Timestamp timestamp = getTimestamp(buf, off, length, columnInfo, cal);
+                if (timestamp == null) return null;
+                return new Date(timestamp.getTime());
+            case TIME:
+                if (isZeroDate(buf, off, length)) {
+                    return null;
+                }
+                Time time = getTime(buf, off, length, columnInfo, cal);
+                if (time == null) return null;
+                return new Date(time.getTime());
+            case DATE:
+                decoder = getDateDecoder(null);
+                decoder.parseDateTime(buf, off, length);
+                if (decoder.isZeroDate()) {
+                    return null;
+                }
+                return new Date(decoder.getDateMillis());
+            case YEAR:
+                decoder = getDateDecoder(null);
+                try {
+                    decoder.setYear((int) NumberParser.parseLong(buf, off, length));
+                } catch (NumberFormatException nfe) {
+                    throw new ParseException("Value \"" + new String(buf, off, length, StandardCharsets.UTF_8)
+                            + "\" cannot be parse as year", 0);
+                }
+                if (length == 2 && columnInfo.getLength() == 2) {
+                    decoder.expandTwoDigitYear();
+                }
+                return new Date(decoder.getDateMillis());
+            default:
+                decoder = getDateDecoder(cal);
+                decoder.parseDateTime(buf, off, length);
+                if (decoder.isZeroDateTime()) {
+                    return null;
+                }
+                return new Date(decoder.getDateMillis());
         }
     }
 
@@ -1708,8 +2236,14 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public Time getTime(int columnIndex) throws SQLException {
+        checkRange(columnIndex);
+        int length = resultSet.getLength(rowPointer, columnIndex - 1);
+        if (length < 0) {
+            return null;
+        }
         try {
-            return getTime(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1], cal);
+            return getTime(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1), length,
+                    columnsInformation[columnIndex - 1], cal);
         } catch (ParseException e) {
             throw ExceptionMapper.getSqlException("Could not parse column as time, was: \""
                     + getString(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1])
@@ -1729,8 +2263,14 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public Time getTime(int columnIndex, Calendar cal) throws SQLException {
+        checkRange(columnIndex);
+        int length = resultSet.getLength(rowPointer, columnIndex - 1);
+        if (length < 0) {
+            return null;
+        }
         try {
-            return getTime(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1], cal);
+            return getTime(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1), length,
+                    columnsInformation[columnIndex - 1], cal);
         } catch (ParseException e) {
             throw ExceptionMapper.getSqlException("Could not parse time", e);
         }
@@ -1756,50 +2296,43 @@ public class MariaSelectResultSet implements ResultSet {
         if (rawBytes == null) {
             return null;
         }
-        String raw = new String(rawBytes, StandardCharsets.UTF_8);
-        String zeroDate = "0000-00-00";
-        if (raw.equals(zeroDate)) {
+        return getTime(rawBytes, 0, rawBytes.length, columnInfo, cal);
+    }
+
+    /**
+     * Get time from raw data.
+     *
+     * @param buf        array containing value
+     * @param off        value offset
+     * @param length     value length
+     * @param columnInfo current column information
+     * @param cal        session calendar
+     * @return time value
+     * @throws ParseException if raw data cannot be parse
+     */
+    private Time getTime(byte[] buf, int off, int length, ColumnInformation columnInfo, Calendar cal)
+            throws ParseException {
+        if (isZeroDate(buf, off, length)) {
             return null;
         }
 
         if (!this.isBinaryEncoded) {
             if (columnInfo.getType() == MariaDbType.TIMESTAMP || columnInfo.getType() == MariaDbType.DATETIME) {
-                Timestamp timestamp = getTimestamp(rawBytes, columnInfo, cal);
+                Timestamp timestamp = getTimestamp(buf, off, length, columnInfo, cal);
                 return (timestamp == null) ? null : new Time(timestamp.getTime());
             } else if (columnInfo.getType() == MariaDbType.DATE) {
-                Calendar zeroCal = Calendar.getInstance();
-                zeroCal.set(1970, 0, 1, 0, 0, 0);
-                zeroCal.set(Calendar.MILLISECOND, 0);
-                return new Time(zeroCal.getTimeInMillis());
+                return new Time(getDateDecoder(null).toEpochMillis(1970, 1, 1, 0, 0, 0, 0));
             } else {
-                if (!options.useLegacyDatetimeCode && (raw.startsWith("-") || raw.split(":").length != 3 || raw.indexOf(":") > 3)) {
-                    throw new ParseException("Time format \"" + raw + "\" incorrect, must be HH:mm:ss", 0);
-                }
-                boolean negate = raw.startsWith("-");
-                if (negate) {
-                    raw = raw.substring(1);
-                }
-                String[] rawPart = raw.split(":");
-                if (rawPart.length == 3) {
-                    int hour = Integer.parseInt(rawPart[0]);
-                    int minutes = Integer.parseInt(rawPart[1]);
-                    int seconds = Integer.parseInt(rawPart[2].substring(0, 2));
-                    Calendar calendar = Calendar.getInstance();
-                    if (options.useLegacyDatetimeCode) {
-                        calendar.setLenient(true);
-                    }
-                    calendar.clear();
-                    calendar.set(1970, 0, 1, (negate ? -1 : 1) * hour, minutes, seconds);
-                    int nanoseconds = extractNanos(raw);
-                    calendar.set(Calendar.MILLISECOND, nanoseconds / 1000000);
-
-                    return new Time(calendar.getTimeInMillis());
-                } else {
-                    throw new ParseException(raw + " cannot be parse as time. time must have \"99:99:99\" format", 0);
+                DateDecoder decoder = getDateDecoder(null);
+                decoder.parseTime(buf, off, length);
+                if (!options.useLegacyDatetimeCode && (decoder.isNegative() || decoder.getHourDigits() > 3)) {
+                    throw new ParseException("Time format \"" + new String(buf, off, length, StandardCharsets.UTF_8)
+                            + "\" incorrect, must be HH:mm:ss", 0);
                 }
+                return new Time(decoder.getMillis());
             }
         } else {
-            return binaryTime(rawBytes, columnInfo, cal);
+            return binaryTime(buf, off, length, columnInfo, cal);
         }
     }
 
@@ -1815,8 +2348,14 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public Timestamp getTimestamp(int columnIndex, Calendar cal) throws SQLException {
+        checkRange(columnIndex);
+        int length = resultSet.getLength(rowPointer, columnIndex - 1);
+        if (length < 0) {
+            return null;
+        }
         try {
-            return getTimestamp(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1], cal);
+            return getTimestamp(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1),
+                    length, columnsInformation[columnIndex - 1], cal);
         } catch (ParseException e) {
             throw ExceptionMapper.getSqlException("Could not parse timestamp", e);
         }
@@ -1833,8 +2372,14 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public Timestamp getTimestamp(int columnIndex) throws SQLException {
+        checkRange(columnIndex);
+        int length = resultSet.getLength(rowPointer, columnIndex - 1);
+        if (length < 0) {
+            return null;
+        }
         try {
-            return getTimestamp(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1], cal);
+            return getTimestamp(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, columnIndex - 1),
+                    length, columnsInformation[columnIndex - 1], cal);
         } catch (ParseException e) {
             throw ExceptionMapper.getSqlException("Could not parse column as timestamp, was: \""
                     + getString(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1])
@@ -1855,58 +2400,79 @@ public class MariaSelectResultSet implements ResultSet {
         if (rawBytes == null) {
             return null;
         }
-        if (!this.isBinaryEncoded) {
-            String rawValue = new String(rawBytes, StandardCharsets.UTF_8);
-            if (rawValue.startsWith("0000-00-00 00:00:00")) return null;
+        return getTimestamp(rawBytes, 0, rawBytes.length, columnInfo, cal);
+    }
 
-            switch (columnInfo.getType()) {
-                case TIME:
-                    //time does not go after millisecond
-                    Timestamp tt = new Timestamp(getTime(rawBytes, columnInfo, cal).getTime());
-                    tt.setNanos(extractNanos(rawValue));
-                    return tt;
-                default:
-                    try {
-                        int hour = 0;
-                        int minutes = 0;
-                        int seconds = 0;
-
-                        int year = Integer.parseInt(rawValue.substring(0, 4));
-                        int month = Integer.parseInt(rawValue.substring(5, 7));
-                        int day = Integer.parseInt(rawValue.substring(8, 10));
-                        if (rawValue.length() >= 19) {
-                            hour = Integer.parseInt(rawValue.substring(11, 13));
-                            minutes = Integer.parseInt(rawValue.substring(14, 16));
-                            seconds = Integer.parseInt(rawValue.substring(17, 19));
-                        }
-                        int nanoseconds = extractNanos(rawValue);
-                        Timestamp timestamp;
-
-                        Calendar calendar = options.useLegacyDatetimeCode ? Calendar.getInstance() : cal;
-
-                        synchronized (calendar) {
-                            calendar.clear();
-                            calendar.set(Calendar.YEAR, year);
-                            calendar.set(Calendar.MONTH, month - 1);
-                            calendar.set(Calendar.DAY_OF_MONTH, day);
-                            calendar.set(Calendar.HOUR_OF_DAY, hour);
-                            calendar.set(Calendar.MINUTE, minutes);
-                            calendar.set(Calendar.SECOND, seconds);
-                            calendar.set(Calendar.MILLISECOND, nanoseconds / 1000000);
-                            timestamp = new Timestamp(calendar.getTime().getTime());
-                        }
-                        timestamp.setNanos(nanoseconds);
-                        return timestamp;
-                    } catch (NumberFormatException n) {
-                        throw new ParseException("Value \"" + rawValue + "\" cannot be parse as Timestamp", 0);
-                    } catch (StringIndexOutOfBoundsException s) {
-                        throw new ParseException("Value \"" + rawValue + "\" cannot be parse as Timestamp", 0);
-                    }
+    /**
+     * Get timeStamp from raw data.
+     *
+     * @param buf        array containing value
+     * @param off        value offset
+     * @param length     value length
+     * @param columnInfo current column information
+     * @param cal        session calendar.
+     * @return timestamp.
+     * @throws ParseException if text value cannot be parse
+     */
+    private Timestamp getTimestamp(byte[] buf, int off, int length, ColumnInformation columnInfo, Calendar cal)
+            throws ParseException {
+        if (this.isBinaryEncoded) {
+            return binaryTimestamp(buf, off, length, columnInfo, cal);
+        }
+
+        switch (columnInfo.getType()) {
+            case TIME:
+                //time does not go after millisecond
+                Timestamp tt = new Timestamp(getTime(buf, off, length, columnInfo, cal).getTime());
+                //nanoseconds of time just decoded with default time zone decoder
+                tt.setNanos(getDateDecoder(null).getNanos());
+                return tt;
+            default:
+                DateDecoder decoder = getDateDecoder(options.useLegacyDatetimeCode ? null : cal);
+                decoder.parseDateTime(buf, off, length);
+                if (decoder.isZeroDateTime()) {
+                    return null;
+                }
+                Timestamp timestamp = new Timestamp(decoder.getMillis());
+                timestamp.setNanos(decoder.getNanos());
+                return timestamp;
+        }
+    }
+
+    /**
+     * Get date decoder for a calendar time zone, or for JVM default time zone if calendar is null.
+     * Decoders are kept, so time zone offsets are cached for the whole resultSet.
+     *
+     * @param calendar calendar
+     * @return date decoder
+     */
+    private DateDecoder getDateDecoder(Calendar calendar) {
+        if (calendar == null) {
+            if (localDateDecoder == null) {
+                localDateDecoder = new DateDecoder(TimeZone.getDefault());
             }
-        } else {
-            return binaryTimestamp(rawBytes, columnInfo, cal);
+            return localDateDecoder;
+        }
+        TimeZone timeZone = calendar.getTimeZone();
+        if (calendarDateDecoder == null || calendarDateDecoder.getTimeZone() != timeZone) {
+            calendarDateDecoder = new DateDecoder(timeZone);
         }
+        return calendarDateDecoder;
+    }
 
+    /**
+     * Indicate if value is "0000-00-00".
+     */
+    private static boolean isZeroDate(byte[] buf, int off, int length) {
+        if (length != ZERO_DATE.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buf[off + i] != ZERO_DATE[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -1941,6 +2507,10 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public Object getObject(int columnIndex) throws SQLException {
+        if (stringDictionaries != null && columnIndex > 0 && columnIndex <= columnInformationLength
+                && isDictionaryString(columnsInformation[columnIndex - 1])) {
+            return getString(columnIndex);
+        }
         try {
             return getObject(checkObjectRange(columnIndex), columnsInformation[columnIndex - 1], dataTypeMappingFlags, cal);
         } catch (ParseException e) {
@@ -3081,6 +3651,19 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public byte getByte(int index) throws SQLException {
+        if (!isBinaryEncoded) {
+            //parse directly from row storage
+            checkRange(index);
+            int length = resultSet.getLength(rowPointer, index - 1);
+            if (length < 0) {
+                return 0;
+            }
+            if (columnsInformation[index - 1].getType() == MariaDbType.BIT) {
+                return resultSet.getChunk(rowPointer)[resultSet.getOffset(rowPointer, index - 1)];
+            }
+            return parseByte(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, index - 1), length,
+                    columnsInformation[index - 1]);
+        }
         return getByte(checkObjectRange(index), columnsInformation[index - 1]);
     }
 
@@ -3145,6 +3728,16 @@ public class MariaSelectResultSet implements ResultSet {
      * {inheritDoc}.
      */
     public short getShort(int index) throws SQLException {
+        if (!isBinaryEncoded) {
+            //parse directly from row storage
+            checkRange(index);
+            int length = resultSet.getLength(rowPointer, index - 1);
+            if (length < 0) {
+                return 0;
+            }
+            return parseShort(resultSet.getChunk(rowPointer), resultSet.getOffset(rowPointer, index - 1), length,
+                    columnsInformation[index - 1]);
+        }
         return getShort(checkObjectRange(index), columnsInformation[index - 1]);
     }
 
@@ -3210,15 +3803,269 @@ public class MariaSelectResultSet implements ResultSet {
     /**
      * {inheritDoc}.
      */
-    public <T> T unwrap(Class<T> iface) throws SQLException {
-        return null;
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        if (isWrapperFor(iface)) {
+            return (T) this;
+        }
+        throw new SQLException("The receiver is not a wrapper and does not implement the interface");
     }
 
     /**
      * {inheritDoc}.
      */
-    public boolean isWrapperFor(Class<?> iface) throws SQLException {
-        return false;
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return iface != null && iface.isInstance(this);
+    }
+
+    /**
+     * {inheritDoc}.
+     */
+    public int nextBatch() throws SQLException {
+        if (!next()) {
+            batchStart = 0;
+            batchEnd = 0;
+            return 0;
+        }
+        batchStart = rowPointer;
+        batchEnd = Math.min(resultSetSize, batchStart + MAX_COLUMNAR_BATCH_ROWS);
+        rowPointer = batchEnd - 1;
+        return batchEnd - batchStart;
+    }
+
+    /**
+     * {inheritDoc}.
+     */
+    public int getBatchSize() {
+        return batchEnd - batchStart;
+    }
+
+    /**
+     * {inheritDoc}.
+     */
+    public int[] getIntColumn(int columnIndex) throws SQLException {
+        ColumnInformation columnInfo = checkBatchColumn(columnIndex);
+        if (intColumns == null) intColumns = new int[columnInformationLength][];
+        int[] values = intColumns[columnIndex - 1] = ensureCapacity(intColumns[columnIndex - 1]);
+        int column = columnIndex - 1;
+        loadColumnBoundaries(column);
+        for (int i = 0; i < batchEnd - batchStart; i++) {
+            int length = columnLengths[i];
+            values[i] = (length < 0) ? 0 : decodeInt(resultSet.getChunk(batchStart + i), columnOffsets[i], length, columnInfo);
+        }
+        return values;
+    }
+
+    /**
+     * {inheritDoc}.
+     */
+    public long[] getLongColumn(int columnIndex) throws SQLException {
+        ColumnInformation columnInfo = checkBatchColumn(columnIndex);
+        if (longColumns == null) longColumns = new long[columnInformationLength][];
+        long[] values = longColumns[columnIndex - 1] = ensureCapacity(longColumns[columnIndex - 1]);
+        int column = columnIndex - 1;
+        loadColumnBoundaries(column);
+        for (int i = 0; i < batchEnd - batchStart; i++) {
+            int length = columnLengths[i];
+            values[i] = (length < 0) ? 0 : decodeLong(resultSet.getChunk(batchStart + i), columnOffsets[i], length, columnInfo);
+        }
+        return values;
+    }
+
+    /**
+     * {inheritDoc}.
+     */
+    public double[] getDoubleColumn(int columnIndex) throws SQLException {
+        ColumnInformation columnInfo = checkBatchColumn(columnIndex);
+        if (doubleColumns == null) doubleColumns = new double[columnInformationLength][];
+        double[] values = doubleColumns[columnIndex - 1] = ensureCapacity(doubleColumns[columnIndex - 1]);
+        int column = columnIndex - 1;
+        loadColumnBoundaries(column);
+        for (int i = 0; i < batchEnd - batchStart; i++) {
+            int length = columnLengths[i];
+            values[i] = (length < 0) ? 0 : decodeDouble(resultSet.getChunk(batchStart + i), columnOffsets[i], length, columnInfo);
+        }
+        return values;
+    }
+
+    /**
+     * {inheritDoc}.
+     */
+    public long[] getNullBitmap(int columnIndex) throws SQLException {
+        checkBatchColumn(columnIndex);
+        if (nullBitmaps == null) nullBitmaps = new long[columnInformationLength][];
+        int words = (batchEnd - batchStart + 63) >>> 6;
+        long[] bitmap = nullBitmaps[columnIndex - 1];
+        if (bitmap == null || bitmap.length < words) {
+            bitmap = nullBitmaps[columnIndex - 1] = new long[words];
+        } else {
+            Arrays.fill(bitmap, 0, words, 0L);
+        }
+        loadColumnBoundaries(columnIndex - 1);
+        for (int index = 0; index < batchEnd - batchStart; index++) {
+            if (columnLengths[index] < 0) {
+                bitmap[index >>> 6] |= 1L << index;
+            }
+        }
+        return bitmap;
+    }
+
+    private ColumnInformation checkBatchColumn(int columnIndex) throws SQLException {
+        checkClose();
+        if (columnIndex <= 0 || columnIndex > columnInformationLength) {
+            throwError("No such column: " + columnIndex, ExceptionCode.INVALID_PARAMETER_VALUE);
+        }
+        return columnsInformation[columnIndex - 1];
+    }
+
+    /**
+     * Load offsets and lengths of a column values for current batch, so column is decoded in one pass.
+     */
+    private void loadColumnBoundaries(int column) {
+        columnOffsets = ensureCapacity(columnOffsets);
+        columnLengths = ensureCapacity(columnLengths);
+        resultSet.getColumnBoundaries(batchStart, batchEnd, column, columnOffsets, columnLengths);
+    }
+
+    private int[] ensureCapacity(int[] values) {
+        int size = batchEnd - batchStart;
+        return (values != null && values.length >= size) ? values : new int[size];
+    }
+
+    private long[] ensureCapacity(long[] values) {
+        int size = batchEnd - batchStart;
+        return (values != null && values.length >= size) ? values : new long[size];
+    }
+
+    private double[] ensureCapacity(double[] values) {
+        int size = batchEnd - batchStart;
+        return (values != null && values.length >= size) ? values : new double[size];
+    }
+
+    /**
+     * Decode a non NULL value as int. Binary fixed-length integers are read directly from row data, so
+     * getter doesn't need to copy value.
+     */
+    private int decodeInt(byte[] buf, int off, int length, ColumnInformation columnInfo) throws SQLException {
+        if (!isBinaryEncoded) {
+            return parseInt(buf, off, length, columnInfo);
+        }
+        long value;
+        switch (columnInfo.getType()) {
+            case TINYINT:
+            case SMALLINT:
+            case YEAR:
+                return (int) decodeBinaryInteger(buf, off, columnInfo);
+            case MEDIUMINT:
+            case INTEGER:
+                value = decodeBinaryInteger(buf, off, columnInfo);
+                break;
+            case BIGINT:
+                value = decodeBinaryBigInt(buf, off, columnInfo);
+                break;
+            default:
+                return getInt(Arrays.copyOfRange(buf, off, off + length), columnInfo);
+        }
+        rangeCheck(Integer.class, Integer.MIN_VALUE, Integer.MAX_VALUE, value, columnInfo);
+        return (int) value;
+    }
+
+    /**
+     * Decode a non NULL value as long, reading fixed-length binary integer directly from row data.
+     */
+    private long decodeLong(byte[] buf, int off, int length, ColumnInformation columnInfo) throws SQLException {
+        if (!isBinaryEncoded) {
+            return parseLong(buf, off, length, columnInfo);
+        }
+        switch (columnInfo.getType()) {
+            case TINYINT:
+            case SMALLINT:
+            case YEAR:
+            case MEDIUMINT:
+            case INTEGER:
+                return decodeBinaryInteger(buf, off, columnInfo);
+            case BIGINT:
+                return decodeBinaryBigInt(buf, off, columnInfo);
+            default:
+                return getLong(Arrays.copyOfRange(buf, off, off + length), columnInfo);
+        }
+    }
+
+    /**
+     * Decode a non NULL value as double, reading fixed-length binary number directly from row data.
+     */
+    private double decodeDouble(byte[] buf, int off, int length, ColumnInformation columnInfo) throws SQLException {
+        if (!isBinaryEncoded) {
+            return parseDouble(buf, off, length, columnInfo);
+        }
+        switch (columnInfo.getType()) {
+            case TINYINT:
+            case SMALLINT:
+            case YEAR:
+            case MEDIUMINT:
+            case INTEGER:
+                return decodeBinaryInteger(buf, off, columnInfo);
+            case BIGINT:
+                long value = readBinaryInt(buf, off, 8);
+                if (columnInfo.isSigned() || value >= 0) {
+                    return value;
+                }
+                //unsigned value above Long.MAX_VALUE : halve it keeping lowest bit, so rounding stay correct
+                return ((double) ((value >>> 1) | (value & 1))) * 2.0;
+            case FLOAT:
+                return Float.intBitsToFloat((int) readBinaryInt(buf, off, 4));
+            case DOUBLE:
+                return Double.longBitsToDouble(readBinaryInt(buf, off, 8));
+            default:
+                return getDouble(Arrays.copyOfRange(buf, off, off + length), columnInfo);
+        }
+    }
+
+    /**
+     * Read binary BIGINT value from row data.
+     *
+     * @param buf        row data
+     * @param off        value offset
+     * @param columnInfo column information
+     * @return value
+     * @throws SQLException if column is unsigned and value doesn't fit in a long
+     */
+    private static long decodeBinaryBigInt(byte[] buf, int off, ColumnInformation columnInfo) throws SQLException {
+        long value = readBinaryInt(buf, off, 8);
+        if (!columnInfo.isSigned() && value < 0) {
+            throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value "
+                    + BigInteger.valueOf(value).add(BigInteger.ONE.shiftLeft(64)) + " is not in Long range", "22003", 1264);
+        }
+        return value;
+    }
+
+    private static long decodeBinaryInteger(byte[] buf, int off, ColumnInformation columnInfo) {
+        boolean signed = columnInfo.isSigned();
+        switch (columnInfo.getType()) {
+            case TINYINT:
+                return signed ? buf[off] : buf[off] & 0xff;
+            case SMALLINT:
+            case YEAR:
+                return signed ? (short) readBinaryInt(buf, off, 2) : readBinaryInt(buf, off, 2);
+            default:
+                return signed ? (int) readBinaryInt(buf, off, 4) : readBinaryInt(buf, off, 4);
+        }
+    }
+
+    /**
+     * Read little-endian unsigned value.
+     *
+     * @param buf    buffer
+     * @param off    offset
+     * @param length number of bytes (at most 8)
+     * @return value
+     */
+    private static long readBinaryInt(byte[] buf, int off, int length) {
+        long value = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            value = (value << 8) | (buf[off + i] & 0xff);
+        }
+        return value;
     }
 
     public void setReturnTableAlias(boolean returnTableAlias) {
@@ -3332,255 +4179,91 @@ public class MariaSelectResultSet implements ResultSet {
 
 
     private byte parseByte(byte[] rawBytes, ColumnInformation columnInfo) throws SQLException {
-        try {
-            switch (columnInfo.getType()) {
-                case FLOAT:
-                    Float floatValue = Float.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
-                    if (floatValue.compareTo((float) Byte.MAX_VALUE) >= 1) {
-                        throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value "
-                                + new String(rawBytes, StandardCharsets.UTF_8)
-                                + " is not in Byte range", "22003", 1264);
-                    }
-                    return floatValue.byteValue();
-                case DOUBLE:
-                    Double doubleValue = Double.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
-                    if (doubleValue.compareTo((double) Byte.MAX_VALUE) >= 1) {
-                        throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value "
-                                + new String(rawBytes, StandardCharsets.UTF_8)
-                                + " is not in Byte range", "22003", 1264);
-                    }
-                    return doubleValue.byteValue();
-                case TINYINT:
-                case SMALLINT:
-                case YEAR:
-                case INTEGER:
-                case MEDIUMINT:
-                    long result = 0;
-                    int length = rawBytes.length;
-                    boolean negate = false;
-                    int begin = 0;
-                    if (length > 0 && rawBytes[0] == 45) { //minus sign
-                        negate = true;
-                        begin = 1;
-                    }
-                    for (; begin < length; begin++) {
-                        result = result * 10 + rawBytes[begin] - 48;
-                    }
-                    result = (negate ? -1 * result : result);
-                    rangeCheck(Byte.class, Byte.MIN_VALUE, Byte.MAX_VALUE, result, columnInfo);
-                    return (byte) result;
-                default:
-                    return Byte.parseByte(new String(rawBytes, StandardCharsets.UTF_8));
-            }
-        } catch (NumberFormatException nfe) {
-            //parse error.
-            //if this is a decimal with only "0" in decimal, like "1.0000" (can be the case if trying to getByte with a database decimal value
-            //retrying without the decimal part.
-            String value = new String(rawBytes, StandardCharsets.UTF_8);
-            if (isIntegerRegex.matcher(value).find()) {
-                try {
-                    return Byte.parseByte(value.substring(0, value.indexOf(".")));
-                } catch (NumberFormatException nfee) {
-                    //eat exception
-                }
-            }
-            throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value " + value
-                    + " is not in Byte range",
-                    "22003", 1264);
-        }
+        return parseByte(rawBytes, 0, rawBytes.length, columnInfo);
+    }
+
+    private byte parseByte(byte[] buf, int off, int length, ColumnInformation columnInfo) throws SQLException {
+        return (byte) parseLong(buf, off, length, columnInfo, Byte.MIN_VALUE, Byte.MAX_VALUE, "Byte");
     }
 
     private short parseShort(byte[] rawBytes, ColumnInformation columnInfo) throws SQLException {
-        try {
-            switch (columnInfo.getType()) {
-                case FLOAT:
-                    Float floatValue = Float.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
-                    if (floatValue.compareTo((float) Short.MAX_VALUE) >= 1) {
-                        throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value "
-                                + new String(rawBytes, StandardCharsets.UTF_8)
-                                + " is not in Short range", "22003", 1264);
-                    }
-                    return floatValue.shortValue();
-                case DOUBLE:
-                    Double doubleValue = Double.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
-                    if (doubleValue.compareTo((double) Short.MAX_VALUE) >= 1) {
-                        throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value "
-                                + new String(rawBytes, StandardCharsets.UTF_8)
-                                + " is not in Short range", "22003", 1264);
-                    }
-                    return doubleValue.shortValue();
-                case BIT:
-                case TINYINT:
-                case SMALLINT:
-                case YEAR:
-                case INTEGER:
-                case MEDIUMINT:
-                    long result = 0;
-                    int length = rawBytes.length;
-                    boolean negate = false;
-                    int begin = 0;
-                    if (length > 0 && rawBytes[0] == 45) { //minus sign
-                        negate = true;
-                        begin = 1;
-                    }
-                    for (; begin < length; begin++) {
-                        result = result * 10 + rawBytes[begin] - 48;
-                    }
-                    result = (negate ? -1 * result : result);
-                    rangeCheck(Short.class, Short.MIN_VALUE, Short.MAX_VALUE, result, columnInfo);
-                    return (short) result;
-                default:
-                    return Short.parseShort(new String(rawBytes, StandardCharsets.UTF_8));
-            }
-        } catch (NumberFormatException nfe) {
-            //parse error.
-            //if this is a decimal with only "0" in decimal, like "1.0000" (can be the case if trying to getInt with a database decimal value
-            //retrying without the decimal part.
-            String value = new String(rawBytes, StandardCharsets.UTF_8);
-            if (isIntegerRegex.matcher(value).find()) {
-                try {
-                    return Short.parseShort(value.substring(0, value.indexOf(".")));
-                } catch (NumberFormatException numberFormatException) {
-                    //eat exception
-                }
-            }
-            throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value " + value
-                    + " is not in Short range", "22003", 1264);
-        }
+        return parseShort(rawBytes, 0, rawBytes.length, columnInfo);
     }
 
+    private short parseShort(byte[] buf, int off, int length, ColumnInformation columnInfo) throws SQLException {
+        return (short) parseLong(buf, off, length, columnInfo, Short.MIN_VALUE, Short.MAX_VALUE, "Short");
+    }
 
     private int parseInt(byte[] rawBytes, ColumnInformation columnInfo) throws SQLException {
-        try {
-            switch (columnInfo.getType()) {
-                case FLOAT:
-                    Float floatValue = Float.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
-                    if (floatValue.compareTo((float) Integer.MAX_VALUE) >= 1) {
-                        throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value "
-                                + new String(rawBytes, StandardCharsets.UTF_8)
-                                + " is not in Integer range", "22003", 1264);
-                    }
-                    return floatValue.intValue();
-                case DOUBLE:
-                    Double doubleValue = Double.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
-                    if (doubleValue.compareTo((double) Integer.MAX_VALUE) >= 1) {
-                        throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value "
-                                + new String(rawBytes, StandardCharsets.UTF_8)
-                                + " is not in Integer range", "22003", 1264);
-                    }
-                    return doubleValue.intValue();
-                case BIT:
-                case TINYINT:
-                case SMALLINT:
-                case YEAR:
-                case INTEGER:
-                case MEDIUMINT:
-                case BIGINT:
-                    long result = 0;
-                    int length = rawBytes.length;
-                    boolean negate = false;
-                    int begin = 0;
-                    if (length > 0 && rawBytes[0] == 45) { //minus sign
-                        negate = true;
-                        begin = 1;
-                    }
-                    for (; begin < length; begin++) {
-                        result = result * 10 + rawBytes[begin] - 48;
-                    }
-                    //specific for BIGINT : if value > Long.MAX_VALUE will become negative.
-                    if (result < 0) {
-                        throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value "
-                                + new String(rawBytes, StandardCharsets.UTF_8)
-                                + " is not in Integer range", "22003", 1264);
-                    }
-                    result = (negate ? -1 * result : result);
-                    rangeCheck(Integer.class, Integer.MIN_VALUE, Integer.MAX_VALUE, result, columnInfo);
-                    return (int) result;
-                default:
-                    return Integer.parseInt(new String(rawBytes, StandardCharsets.UTF_8));
-            }
-        } catch (NumberFormatException nfe) {
-            //parse error.
-            //if this is a decimal with only "0" in decimal, like "1.0000" (can be the case if trying to getInt with a database decimal value
-            //retrying without the decimal part.
-            String value = new String(rawBytes, StandardCharsets.UTF_8);
-            if (isIntegerRegex.matcher(value).find()) {
-                try {
-                    return Integer.parseInt(value.substring(0, value.indexOf(".")));
-                } catch (NumberFormatException numberFormatException) {
-                    //eat exception
-                }
-            }
-            throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value " + value
-                    + " is not in Integer range", "22003", 1264);
-        }
+        return parseInt(rawBytes, 0, rawBytes.length, columnInfo);
+    }
+
+    private int parseInt(byte[] buf, int off, int length, ColumnInformation columnInfo) throws SQLException {
+        return (int) parseLong(buf, off, length, columnInfo, Integer.MIN_VALUE, Integer.MAX_VALUE, "Integer");
     }
 
     private long parseLong(byte[] rawBytes, ColumnInformation columnInfo) throws SQLException {
+        return parseLong(rawBytes, 0, rawBytes.length, columnInfo);
+    }
+
+    private long parseLong(byte[] buf, int off, int length, ColumnInformation columnInfo) throws SQLException {
+        return parseLong(buf, off, length, columnInfo, Long.MIN_VALUE, Long.MAX_VALUE, "Long");
+    }
+
+    /**
+     * Parse text value to integer value, directly from raw bytes.
+     * Decimal values with only zeros in decimal part, like "1.0000" are accepted (can be the case if trying to getInt
+     * with a database decimal value).
+     *
+     * @param buf        array containing value
+     * @param off        value offset
+     * @param length     value length
+     * @param columnInfo column information
+     * @param minValue   minimum value
+     * @param maxValue   maximum value
+     * @param typeName   java type name for error message
+     * @return value
+     * @throws SQLException if value format is wrong, or value is out of range
+     */
+    private long parseLong(byte[] buf, int off, int length, ColumnInformation columnInfo, long minValue, long maxValue,
+                           String typeName) throws SQLException {
+        long value;
         try {
             switch (columnInfo.getType()) {
-                case FLOAT:
-                    Float floatValue = Float.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
-                    if (floatValue.compareTo((float) Long.MAX_VALUE) >= 1) {
-                        throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value "
-                                + new String(rawBytes, StandardCharsets.UTF_8)
-                                + " is not in Long range", "22003", 1264);
-                    }
-                    return floatValue.longValue();
-                case DOUBLE:
-                    Double doubleValue = Double.valueOf(new String(rawBytes, StandardCharsets.UTF_8));
-                    if (doubleValue.compareTo((double) Long.MAX_VALUE) >= 1) {
-                        throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value "
-                                + new String(rawBytes, StandardCharsets.UTF_8)
-                                + " is not in Long range", "22003", 1264);
-                    }
-                    return doubleValue.longValue();
                 case BIT:
-                case TINYINT:
-                case SMALLINT:
-                case YEAR:
-                case INTEGER:
-                case MEDIUMINT:
-                case BIGINT:
-                    long result = 0;
-                    int length = rawBytes.length;
-                    boolean negate = false;
-                    int begin = 0;
-                    if (length > 0 && rawBytes[0] == 45) { //minus sign
-                        negate = true;
-                        begin = 1;
+                    //bit value is send in binary format
+                    value = 0;
+                    for (int i = off; i < off + length; i++) {
+                        value = (value << 8) + (buf[i] & 0xff);
                     }
-                    for (; begin < length; begin++) {
-                        result = result * 10 + rawBytes[begin] - 48;
+                    break;
+                case FLOAT:
+                    float floatValue = NumberParser.parseFloat(buf, off, length);
+                    if (Float.compare(floatValue, (float) maxValue) > 0 || floatValue < minValue) {
+                        throw outOfRangeException(buf, off, length, columnInfo, typeName);
                     }
-                    //specific for BIGINT : if value > Long.MAX_VALUE , will become negative until -1
-                    if (result < 0) {
-                        //CONJ-399 : handle specifically Long.MIN_VALUE that has absolute value +1 compare to LONG.MAX_VALUE
-                        if (result == Long.MIN_VALUE && negate) return Long.MIN_VALUE;
-                        throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value "
-                                + new String(rawBytes, StandardCharsets.UTF_8)
-                                + " is not in Long range", "22003", 1264);
+                    return (long) floatValue;
+                case DOUBLE:
+                    double doubleValue = NumberParser.parseDouble(buf, off, length);
+                    if (Double.compare(doubleValue, (double) maxValue) > 0 || doubleValue < minValue) {
+                        throw outOfRangeException(buf, off, length, columnInfo, typeName);
                     }
-                    return (negate ? -1 * result : result);
+                    return (long) doubleValue;
                 default:
-                    return Long.parseLong(new String(rawBytes, StandardCharsets.UTF_8));
+                    value = NumberParser.parseLong(buf, off, length);
             }
-
         } catch (NumberFormatException nfe) {
-            //parse error.
-            //if this is a decimal with only "0" in decimal, like "1.0000" (can be the case if trying to getlong with a database decimal value
-            //retrying without the decimal part.
-            String value = new String(rawBytes, StandardCharsets.UTF_8);
-            if (isIntegerRegex.matcher(value).find()) {
-                try {
-                    return Long.parseLong(value.substring(0, value.indexOf(".")));
-                } catch (NumberFormatException nfee) {
-                    //eat exception
-                }
-            }
-            throw new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value " + value
-                    + " is not in Long range", "22003", 1264);
+            throw outOfRangeException(buf, off, length, columnInfo, typeName);
         }
+        if (value < minValue || value > maxValue) {
+            throw outOfRangeException(buf, off, length, columnInfo, typeName);
+        }
+        return value;
+    }
+
+    private SQLException outOfRangeException(byte[] buf, int off, int length, ColumnInformation columnInfo, String typeName) {
+        return new SQLException("Out of range value for column '" + columnInfo.getName() + "' : value "
+                + new String(buf, off, length, StandardCharsets.UTF_8) + " is not in " + typeName + " range", "22003", 1264);
     }
 
     /**
@@ -3644,199 +4327,62 @@ public class MariaSelectResultSet implements ResultSet {
     }
 
 
-    private Date binaryDate(byte[] rawBytes, ColumnInformation columnInfo, Calendar cal) throws ParseException {
+    private Date binaryDate(byte[] buf, int off, int length, ColumnInformation columnInfo, Calendar cal)
+            throws ParseException {
         switch (columnInfo.getType()) {
             case TIMESTAMP:
             case DATETIME:
-                Timestamp timestamp = getTimestamp(rawBytes, columnInfo, cal);
+                Timestamp timestamp = binaryTimestamp(buf, off, length, columnInfo, cal);
                 return (timestamp == null) ? null : new Date(timestamp.getTime());
             default:
-                if (rawBytes.length == 0) {
+                if (length == 0) {
                     return null;
                 }
-
-                int year = ((rawBytes[0] & 0xff) | (rawBytes[1] & 0xff) << 8);
-
-                if (rawBytes.length == 2 && columnInfo.getLength() == 2) {
+                DateDecoder decoder = getDateDecoder(null);
+                decoder.readBinaryDateTime(buf, off, length);
+                if (length == 2 && columnInfo.getLength() == 2) {
                     //YEAR(2) - deprecated
-                    if (year <= 69) {
-                        year += 2000;
-                    } else {
-                        year += 1900;
-                    }
+                    decoder.expandTwoDigitYear();
                 }
-
-                int month = 1;
-                int day = 1;
-
-                if (rawBytes.length >= 4) {
-                    month = rawBytes[2];
-                    day = rawBytes[3];
-                }
-
-                Calendar calendar = Calendar.getInstance();
-
-                Date dt;
-                synchronized (calendar) {
-                    calendar.clear();
-                    calendar.set(Calendar.YEAR, year);
-                    calendar.set(Calendar.MONTH, month - 1);
-                    calendar.set(Calendar.DAY_OF_MONTH, day);
-                    calendar.set(Calendar.HOUR_OF_DAY, 0);
-                    calendar.set(Calendar.MINUTE, 0);
-                    calendar.set(Calendar.SECOND, 0);
-                    calendar.set(Calendar.MILLISECOND, 0);
-                    dt = new Date(calendar.getTimeInMillis());
-                }
-                return dt;
+                return new Date(decoder.getDateMillis());
         }
     }
 
-    private Time binaryTime(byte[] rawBytes, ColumnInformation columnInfo, Calendar cal) throws ParseException {
+    private Time binaryTime(byte[] buf, int off, int length, ColumnInformation columnInfo, Calendar cal)
+            throws ParseException {
         switch (columnInfo.getType()) {
             case TIMESTAMP:
             case DATETIME:
-                Timestamp ts = binaryTimestamp(rawBytes, columnInfo, cal);
+                Timestamp ts = binaryTimestamp(buf, off, length, columnInfo, cal);
                 return (ts == null) ? null : new Time(ts.getTime());
             case DATE:
-                Calendar tmpCalendar = Calendar.getInstance();
-                tmpCalendar.clear();
-                tmpCalendar.set(1970, 0, 1, 0, 0, 0);
-                tmpCalendar.set(Calendar.MILLISECOND, 0);
-                return new Time(tmpCalendar.getTimeInMillis());
+                return new Time(getDateDecoder(null).toEpochMillis(1970, 1, 1, 0, 0, 0, 0));
             default:
-                Calendar calendar = Calendar.getInstance();
-                calendar.clear();
-                int day = 0;
-                int hour = 0;
-                int minutes = 0;
-                int seconds = 0;
-                boolean negate = false;
-                if (rawBytes.length > 0) {
-                    negate = (rawBytes[0] & 0xff) == 0x01;
-                }
-                if (rawBytes.length > 4) {
-                    day = ((rawBytes[1] & 0xff)
-                            + ((rawBytes[2] & 0xff) << 8)
-                            + ((rawBytes[3] & 0xff) << 16)
-                            + ((rawBytes[4] & 0xff) << 24));
-                }
-                if (rawBytes.length > 7) {
-                    hour = rawBytes[5];
-                    minutes = rawBytes[6];
-                    seconds = rawBytes[7];
-                }
-                calendar.set(1970, 0, ((negate ? -1 : 1) * day) + 1, (negate ? -1 : 1) * hour, minutes, seconds);
-
-                int nanoseconds = 0;
-                if (rawBytes.length > 8) {
-                    nanoseconds = ((rawBytes[8] & 0xff)
-                            + ((rawBytes[9] & 0xff) << 8)
-                            + ((rawBytes[10] & 0xff) << 16)
-                            + ((rawBytes[11] & 0xff) << 24));
-                }
-
-                calendar.set(Calendar.MILLISECOND, nanoseconds / 1000);
-
-                return new Time(calendar.getTimeInMillis());
+                DateDecoder decoder = getDateDecoder(null);
+                decoder.readBinaryTime(buf, off, length);
+                return new Time(decoder.getMillis());
         }
     }
 
 
-    private Timestamp binaryTimestamp(byte[] rawBytes, ColumnInformation columnInfo, Calendar cal) throws ParseException {
-        if (rawBytes.length == 0) {
+    private Timestamp binaryTimestamp(byte[] buf, int off, int length, ColumnInformation columnInfo, Calendar cal)
+            throws ParseException {
+        if (length == 0) {
             return null;
         }
-        int year;
-        int month;
-        int day = 0;
-        int hour = 0;
-        int minutes = 0;
-        int seconds = 0;
-        int microseconds = 0;
-
+        DateDecoder decoder;
         if (columnInfo.getType() == MariaDbType.TIME) {
-            Calendar calendar = Calendar.getInstance();
-            calendar.clear();
-
-            boolean negate = false;
-            if (rawBytes.length > 0) {
-                negate = (rawBytes[0] & 0xff) == 0x01;
-            }
-            if (rawBytes.length > 4) {
-                day = ((rawBytes[1] & 0xff)
-                        + ((rawBytes[2] & 0xff) << 8)
-                        + ((rawBytes[3] & 0xff) << 16)
-                        + ((rawBytes[4] & 0xff) << 24));
-            }
-            if (rawBytes.length > 7) {
-                hour = rawBytes[5];
-                minutes = rawBytes[6];
-                seconds = rawBytes[7];
-            }
-
-            if (rawBytes.length > 8) {
-                microseconds = ((rawBytes[8] & 0xff)
-                        + ((rawBytes[9] & 0xff) << 8)
-                        + ((rawBytes[10] & 0xff) << 16)
-                        + ((rawBytes[11] & 0xff) << 24));
-            }
-
-            calendar.set(1970, 0, ((negate ? -1 : 1) * day) + 1, (negate ? -1 : 1) * hour, minutes, seconds);
-            Timestamp tt = new Timestamp(calendar.getTimeInMillis());
-            tt.setNanos(microseconds * 1000);
-            return tt;
+            decoder = getDateDecoder(null);
+            decoder.readBinaryTime(buf, off, length);
         } else {
-            year = ((rawBytes[0] & 0xff) | (rawBytes[1] & 0xff) << 8);
-            month = rawBytes[2];
-            day = rawBytes[3];
-            if (rawBytes.length > 4) {
-                hour = rawBytes[4];
-                minutes = rawBytes[5];
-                seconds = rawBytes[6];
-
-                if (rawBytes.length > 7) {
-                    microseconds = ((rawBytes[7] & 0xff)
-                            + ((rawBytes[8] & 0xff) << 8)
-                            + ((rawBytes[9] & 0xff) << 16)
-                            + ((rawBytes[10] & 0xff) << 24));
-                }
-            }
-        }
-
-        Calendar calendar = options.useLegacyDatetimeCode ? Calendar.getInstance() : cal;
-        Timestamp tt;
-        synchronized (calendar) {
-            calendar.clear();
-            calendar.set(year, month - 1, day, hour, minutes, seconds);
-            tt = new Timestamp(calendar.getTimeInMillis());
+            decoder = getDateDecoder(options.useLegacyDatetimeCode ? null : cal);
+            decoder.readBinaryDateTime(buf, off, length);
         }
-        tt.setNanos(microseconds * 1000);
+        Timestamp tt = new Timestamp(decoder.getSecondMillis());
+        tt.setNanos(decoder.getNanos());
         return tt;
     }
 
-    private int extractNanos(String timestring) throws ParseException {
-        int index = timestring.indexOf('.');
-        if (index == -1) {
-            return 0;
-        }
-        int nanos = 0;
-        for (int i = index + 1; i < index + 10; i++) {
-            int digit;
-            if (i >= timestring.length()) {
-                digit = 0;
-            } else {
-                char value = timestring.charAt(i);
-                if (value < '0' || value > '9') {
-                    throw new ParseException("cannot parse subsecond part in timestamp string '" + timestring + "'", i);
-                }
-                digit = value - '0';
-            }
-            nanos = nanos * 10 + digit;
-        }
-        return nanos;
-    }
-
 
     /**
      * Get inputStream value from raw data.
@@ -3852,21 +4398,44 @@ public class MariaSelectResultSet implements ResultSet {
 
     static final String zeroTimestamp = "0000-00-00 00:00:00";
     static final String zeroDate = "0000-00-00";
+    private static final byte[] ZERO_TIMESTAMP = zeroTimestamp.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ZERO_DATE = zeroDate.getBytes(StandardCharsets.UTF_8);
 
     /**
      * Is data null.
      *
-     * @param rawBytes bytes
+     * @param column   column index (0-based)
      * @param dataType field datatype
      * @return true if data is null
      */
-    private boolean isNull(byte[] rawBytes, MariaDbType dataType) {
-        return (rawBytes == null
-                || (isBinaryEncoded && ((dataType == MariaDbType.DATE || dataType == MariaDbType.TIMESTAMP || dataType == MariaDbType.DATETIME)
-                && rawBytes.length == 0))
-                || (!isBinaryEncoded && ((dataType == MariaDbType.TIMESTAMP || dataType == MariaDbType.DATETIME)
-                && zeroTimestamp.equals(new String(rawBytes, StandardCharsets.UTF_8))))
-                || (!isBinaryEncoded && (dataType == MariaDbType.DATE && zeroDate.equals(new String(rawBytes, StandardCharsets.UTF_8)))));
+    private boolean isNull(int column, MariaDbType dataType) {
+        int length = resultSet.getLength(rowPointer, column);
+        if (length < 0) {
+            return true;
+        }
+        switch (dataType) {
+            case DATE:
+                return isBinaryEncoded ? length == 0 : isValue(column, length, ZERO_DATE);
+            case TIMESTAMP:
+            case DATETIME:
+                return isBinaryEncoded ? length == 0 : isValue(column, length, ZERO_TIMESTAMP);
+            default:
+                return false;
+        }
+    }
+
+    private boolean isValue(int column, int length, byte[] value) {
+        if (length != value.length) {
+            return false;
+        }
+        byte[] chunk = resultSet.getChunk(rowPointer);
+        int offset = resultSet.getOffset(rowPointer, column);
+        for (int i = 0; i < length; i++) {
+            if (chunk[offset + i] != value[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
 
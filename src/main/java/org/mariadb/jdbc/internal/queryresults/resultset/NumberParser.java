@@ -0,0 +1,351 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.queryresults.resultset;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parse numeric values in text protocol format directly from raw bytes, without creating intermediate String.
+ */
+public final class NumberParser {
+
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    //maximum integer value exactly represented in float
+    private static final long MAX_FLOAT_EXACT = 1L << 24;
+
+    //digits always fitting in a long
+    private static final int LONG_DIGITS = 18;
+    private static final BigInteger[] BIG_POWERS_OF_TEN = new BigInteger[LONG_DIGITS + 1];
+
+    static {
+        for (int i = 0; i <= LONG_DIGITS; i++) {
+            BIG_POWERS_OF_TEN[i] = BigInteger.TEN.pow(i);
+        }
+    }
+
+    private NumberParser() {
+    }
+
+    /**
+     * Parse a long value.
+     * Accepted format is an optional sign, digits, and an optional decimal part with only zeros
+     * (like "1.0000", that may be returned when an integer is retrieved from a decimal field).
+     *
+     * @param buf    array containing value
+     * @param off    value offset
+     * @param length value length
+     * @return long value
+     * @throws NumberFormatException if value format is wrong, or value is not in Long range.
+     */
+    public static long parseLong(byte[] buf, int off, int length) throws NumberFormatException {
+        int pos = off;
+        int end = off + length;
+        boolean negate = false;
+        if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+            negate = buf[pos] == '-';
+            pos++;
+        }
+        int digitStart = pos;
+
+        //accumulating negatively permit to handle Long.MIN_VALUE
+        long limit = negate ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multiplyMin = limit / 10;
+        long result = 0;
+        for (; pos < end; pos++) {
+            int digit = buf[pos] - '0';
+            if (digit < 0 || digit > 9) break;
+            if (result < multiplyMin) throw numberFormatException(buf, off, length);
+            result *= 10;
+            if (result < limit + digit) throw numberFormatException(buf, off, length);
+            result -= digit;
+        }
+
+        if (pos == digitStart) throw numberFormatException(buf, off, length);
+
+        if (pos < end) {
+            //only a decimal part with zeros is permitted
+            if (buf[pos++] != '.' || pos == end) throw numberFormatException(buf, off, length);
+            for (; pos < end; pos++) {
+                if (buf[pos] != '0') throw numberFormatException(buf, off, length);
+            }
+        }
+        return negate ? result : -result;
+    }
+
+    /**
+     * Parse a double value.
+     * Simple decimal values that can be computed exactly are parsed directly, other values are parsed using
+     * Double.parseDouble(), so result is always identical to Double.parseDouble() result.
+     *
+     * @param buf    array containing value
+     * @param off    value offset
+     * @param length value length
+     * @return double value
+     * @throws NumberFormatException if value format is wrong
+     */
+    public static double parseDouble(byte[] buf, int off, int length) throws NumberFormatException {
+        int pos = off;
+        int end = off + length;
+        boolean negate = false;
+        if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+            negate = buf[pos] == '-';
+            pos++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean hasDigit = false;
+        boolean decimalPart = false;
+        for (; pos < end; pos++) {
+            byte current = buf[pos];
+            if (current >= '0' && current <= '9') {
+                hasDigit = true;
+                if (mantissa != 0 || current != '0') {
+                    //15 digits value is always exactly represented in double
+                    if (++digits > 15) return slowParseDouble(buf, off, length);
+                    mantissa = mantissa * 10 + current - '0';
+                }
+                if (decimalPart) exponent--;
+            } else if (current == '.' && !decimalPart) {
+                decimalPart = true;
+            } else {
+                break;
+            }
+        }
+        if (!hasDigit) return slowParseDouble(buf, off, length);
+
+        if (pos < end) {
+            if (buf[pos] != 'e' && buf[pos] != 'E') return slowParseDouble(buf, off, length);
+            int exponentValue = parseExponent(buf, pos + 1, end);
+            if (exponentValue == Integer.MIN_VALUE) return slowParseDouble(buf, off, length);
+            exponent += exponentValue;
+        }
+
+        if (mantissa == 0) return negate ? -0.0d : 0.0d;
+
+        double value;
+        if (exponent == 0) {
+            value = mantissa;
+        } else if (exponent > 0 && exponent <= 22) {
+            value = mantissa * DOUBLE_POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && exponent >= -22) {
+            value = mantissa / DOUBLE_POWERS_OF_TEN[-exponent];
+        } else {
+            return slowParseDouble(buf, off, length);
+        }
+        return negate ? -value : value;
+    }
+
+    /**
+     * Parse a float value.
+     * Simple decimal values that can be computed exactly are parsed directly, other values are parsed using
+     * Float.parseFloat(), so result is always identical to Float.parseFloat() result.
+     *
+     * @param buf    array containing value
+     * @param off    value offset
+     * @param length value length
+     * @return float value
+     * @throws NumberFormatException if value format is wrong
+     */
+    public static float parseFloat(byte[] buf, int off, int length) throws NumberFormatException {
+        int pos = off;
+        int end = off + length;
+        boolean negate = false;
+        if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+            negate = buf[pos] == '-';
+            pos++;
+        }
+
+        long mantissa = 0;
+        int exponent = 0;
+        boolean hasDigit = false;
+        boolean decimalPart = false;
+        for (; pos < end; pos++) {
+            byte current = buf[pos];
+            if (current >= '0' && current <= '9') {
+                hasDigit = true;
+                mantissa = mantissa * 10 + current - '0';
+                if (mantissa > MAX_FLOAT_EXACT) return slowParseFloat(buf, off, length);
+                if (decimalPart) exponent--;
+            } else if (current == '.' && !decimalPart) {
+                decimalPart = true;
+            } else {
+                break;
+            }
+        }
+        if (!hasDigit) return slowParseFloat(buf, off, length);
+
+        if (pos < end) {
+            if (buf[pos] != 'e' && buf[pos] != 'E') return slowParseFloat(buf, off, length);
+            int exponentValue = parseExponent(buf, pos + 1, end);
+            if (exponentValue == Integer.MIN_VALUE) return slowParseFloat(buf, off, length);
+            exponent += exponentValue;
+        }
+
+        if (mantissa == 0) return negate ? -0.0f : 0.0f;
+
+        float value;
+        if (exponent == 0) {
+            value = mantissa;
+        } else if (exponent > 0 && exponent <= 10) {
+            value = mantissa * FLOAT_POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && exponent >= -10) {
+            value = mantissa / FLOAT_POWERS_OF_TEN[-exponent];
+        } else {
+            return slowParseFloat(buf, off, length);
+        }
+        return negate ? -value : value;
+    }
+
+    /**
+     * Parse a BigDecimal value.
+     * Plain decimal values (optional sign, digits and optional decimal part) are built directly from digits :
+     * values with up to 18 digits from a long unscaled value, longer values from a BigInteger built by 18 digit blocks.
+     * Scale is the number of digits of decimal part, as with BigDecimal(String). Other formats (exponent) are parsed
+     * using BigDecimal(String).
+     *
+     * @param buf    array containing value
+     * @param off    value offset
+     * @param length value length
+     * @return BigDecimal value
+     * @throws NumberFormatException if value format is wrong
+     */
+    public static BigDecimal parseBigDecimal(byte[] buf, int off, int length) throws NumberFormatException {
+        int pos = off;
+        int end = off + length;
+        boolean negate = false;
+        if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+            negate = buf[pos] == '-';
+            pos++;
+        }
+
+        BigInteger bigValue = null;
+        long block = 0;
+        int blockDigits = 0;
+        int scale = 0;
+        boolean hasDigit = false;
+        boolean decimalPart = false;
+        for (; pos < end; pos++) {
+            byte current = buf[pos];
+            if (current >= '0' && current <= '9') {
+                if (blockDigits == LONG_DIGITS) {
+                    bigValue = (bigValue == null)
+                            ? BigInteger.valueOf(block)
+                            : bigValue.multiply(BIG_POWERS_OF_TEN[LONG_DIGITS]).add(BigInteger.valueOf(block));
+                    block = 0;
+                    blockDigits = 0;
+                }
+                block = block * 10 + current - '0';
+                blockDigits++;
+                hasDigit = true;
+                if (decimalPart) scale++;
+            } else if (current == '.' && !decimalPart) {
+                decimalPart = true;
+            } else {
+                return new BigDecimal(new String(buf, off, length, StandardCharsets.UTF_8));
+            }
+        }
+        if (!hasDigit) return new BigDecimal(new String(buf, off, length, StandardCharsets.UTF_8));
+
+        if (bigValue == null) {
+            return BigDecimal.valueOf(negate ? -block : block, scale);
+        }
+        bigValue = bigValue.multiply(BIG_POWERS_OF_TEN[blockDigits]).add(BigInteger.valueOf(block));
+        return new BigDecimal(negate ? bigValue.negate() : bigValue, scale);
+    }
+
+    /**
+     * Parse exponent part.
+     *
+     * @param buf array
+     * @param pos exponent start position (after 'e')
+     * @param end exponent end position
+     * @return exponent value, or Integer.MIN_VALUE if not a simple exponent.
+     */
+    private static int parseExponent(byte[] buf, int pos, int end) {
+        boolean negate = false;
+        if (pos < end && (buf[pos] == '-' || buf[pos] == '+')) {
+            negate = buf[pos] == '-';
+            pos++;
+        }
+        if (pos == end || end - pos > 3) return Integer.MIN_VALUE;
+        int value = 0;
+        for (; pos < end; pos++) {
+            int digit = buf[pos] - '0';
+            if (digit < 0 || digit > 9) return Integer.MIN_VALUE;
+            value = value * 10 + digit;
+        }
+        return negate ? -value : value;
+    }
+
+    private static double slowParseDouble(byte[] buf, int off, int length) {
+        return Double.parseDouble(new String(buf, off, length, StandardCharsets.UTF_8));
+    }
+
+    private static float slowParseFloat(byte[] buf, int off, int length) {
+        return Float.parseFloat(new String(buf, off, length, StandardCharsets.UTF_8));
+    }
+
+    private static NumberFormatException numberFormatException(byte[] buf, int off, int length) {
+        return new NumberFormatException("For input string: \"" + new String(buf, off, length, StandardCharsets.UTF_8) + "\"");
+    }
+}
@@ -0,0 +1,699 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.queryresults.resultset;
+
+import org.mariadb.jdbc.internal.logging.Logger;
+import org.mariadb.jdbc.internal.logging.LoggerFactory;
+import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
+import org.mariadb.jdbc.internal.packet.result.RowPacket;
+import org.mariadb.jdbc.internal.stream.MariaDbInputStream;
+import org.mariadb.jdbc.internal.util.buffer.Buffer;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+/**
+ * Packed storage of result-set rows.
+ * Row values are appended contiguously into large shared byte chunks, and only a compact int index is kept :
+ * for each row, the chunk and the offset where the row begins, and for each column, the end of the value relative
+ * to the row start (bitwise complement for a NULL value). A value is then located by
+ * <code>[end of previous column, end of column[</code>.
+ * This avoid creating one array by row and one array by column value.
+ *
+ * <p>In lazy mode, the row packet payload is stored as is, and column boundaries are only computed when a row is
+ * accessed (for the last accessed row only), using the row packet format to slice the payload.</p>
+ *
+ * <p>When a memory budget is set, completed chunks exceeding the budget are written to a memory-mapped temporary
+ * file (see {@link ChunkSpillFile}), only keeping the index on heap.</p>
+ */
+public class RowArena {
+    private static Logger logger = LoggerFactory.getLogger(RowArena.class);
+
+    private static final int INITIAL_CHUNK_SIZE = 4096;
+    private static final int MAX_CHUNK_SIZE = 1024 * 1024;
+    private static final byte[] EMPTY = new byte[0];
+
+    private static final int MAX_PACKET_LENGTH = 0x00ffffff;
+
+    private final int columnCount;
+    private final RowPacket slicer;
+
+    private byte[][] chunks = new byte[4][];
+    private int chunkCount;
+    private byte[] chunk;
+    private int writePosition;
+
+    //recycling mode : chunks kept on clear, up to high-water mark
+    private boolean recycleChunks;
+    private int spareChunkCount;
+
+    //spilling mode : chunks on heap above budget are written to file
+    private long memoryBudget;
+    private long heapChunkSize;
+    private ChunkSpillFile spillFile;
+    private int lastSpilledRow = -1;
+
+    private int[] rowChunks;
+    private int[] rowStarts;
+    private int[] columnEnds;
+    private int[] rowLengths;
+    private int rowCount;
+    private long dataSize;
+
+    //lazy mode : boundaries of last accessed row
+    private int slicedRow = -1;
+    private int[] slicedOffsets;
+    private int[] slicedLengths;
+
+    //lazy mode : boundaries of all columns of a row range, for columnar access
+    private int rangeStart = -1;
+    private int rangeEnd = -1;
+    private int[] rangeOffsets;
+    private int[] rangeLengths;
+
+    //current writing row
+    private int rowStart;
+    private int writeColumn;
+
+    /**
+     * Constructor.
+     *
+     * @param columnCount number of column by row
+     */
+    public RowArena(int columnCount) {
+        this(columnCount, 10);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param columnCount  number of column by row
+     * @param rowsExpected initial row index capacity
+     */
+    public RowArena(int columnCount, int rowsExpected) {
+        this(columnCount, rowsExpected, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param columnCount  number of column by row
+     * @param rowsExpected initial row index capacity
+     * @param slicer       if not null, arena is in lazy mode : rows are stored in raw packet format, and this row packet
+     *                     will be used to compute column boundaries when needed.
+     */
+    public RowArena(int columnCount, int rowsExpected, RowPacket slicer) {
+        this.columnCount = columnCount;
+        this.slicer = slicer;
+        int capacity = Math.max(1, rowsExpected);
+        rowChunks = new int[capacity];
+        rowStarts = new int[capacity];
+        if (slicer == null) {
+            columnEnds = new int[capacity * columnCount];
+            rowLengths = new int[0];
+        } else {
+            columnEnds = new int[0];
+            rowLengths = new int[capacity];
+            slicedOffsets = new int[columnCount];
+            slicedLengths = new int[columnCount];
+        }
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public boolean isLazy() {
+        return slicer != null;
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    /**
+     * Set recycling mode : when cleared, all chunks are kept and then reused in the same order, so an arena
+     * repeatedly filled with similar amount of data doesn't allocate anymore once high-water mark is reached.
+     * Row index arrays are always kept.
+     *
+     * @param recycleChunks recycling mode
+     */
+    public void setRecycleChunks(boolean recycleChunks) {
+        this.recycleChunks = recycleChunks;
+    }
+
+    /**
+     * Set memory budget of row data. When exceeded, completed chunks are spilled to a temporary file.
+     * Current chunk always stay on heap, so budget can be exceeded by current chunk size (1Mb max, or row size if bigger).
+     *
+     * @param memoryBudget budget in bytes, 0 for no limit
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    /**
+     * Indicate if row data has been written to temporary file.
+     *
+     * @return true if some chunks have been spilled
+     */
+    public boolean hasSpilled() {
+        return spillFile != null;
+    }
+
+    /**
+     * Begin a new row.
+     *
+     * @param lengthHint expected row length (values only). Row data will always be contiguous, the hint only
+     *                   permit to avoid moving the row to another chunk when row is bigger than expected.
+     */
+    public void startRow(int lengthHint) {
+        if (rowCount == rowStarts.length) {
+            int newCapacity = rowCount + (rowCount >> 1) + 1;
+            rowChunks = copyOf(rowChunks, newCapacity);
+            rowStarts = copyOf(rowStarts, newCapacity);
+            if (slicer == null) {
+                columnEnds = copyOf(columnEnds, newCapacity * columnCount);
+            } else {
+                rowLengths = copyOf(rowLengths, newCapacity);
+            }
+        }
+        if (chunk == null || chunk.length - writePosition < lengthHint) {
+            newChunk(lengthHint);
+        }
+        rowStart = writePosition;
+        writeColumn = 0;
+    }
+
+    /**
+     * Terminate current row.
+     */
+    public void endRow() {
+        rowChunks[rowCount] = chunkCount - 1;
+        rowStarts[rowCount] = rowStart;
+        if (slicer != null) rowLengths[rowCount] = writePosition - rowStart;
+        dataSize += writePosition - rowStart;
+        rowCount++;
+    }
+
+    /**
+     * Lazy mode : add a row in raw packet format, reading it directly from stream.
+     *
+     * @param firstByte   first packet byte, already read
+     * @param inputStream input stream
+     * @param remaining   remaining packet length
+     * @throws IOException if any connection error occur
+     */
+    public void appendRawRow(int firstByte, MariaDbInputStream inputStream, int remaining) throws IOException {
+        startRow(remaining + 1);
+        chunk[writePosition++] = (byte) firstByte;
+        int remainingToRead = remaining;
+        while (remainingToRead > 0) {
+            int count = inputStream.read(chunk, writePosition, remainingToRead);
+            if (count <= 0) {
+                throw new EOFException("unexpected end of stream, read " + (remaining - remainingToRead) + " bytes from " + remaining);
+            }
+            remainingToRead -= count;
+            writePosition += count;
+        }
+        endRow();
+    }
+
+    /**
+     * Lazy mode : add a row in raw packet format from a packet of maximum size.
+     * Next packets that are part of the row are read as well.
+     *
+     * @param packetFetcher packet fetcher
+     * @param buffer        first row packet
+     * @throws IOException if any connection error occur
+     */
+    public void appendRawRow(ReadPacketFetcher packetFetcher, Buffer buffer) throws IOException {
+        int lastPacketLength = buffer.limit;
+        while (lastPacketLength == MAX_PACKET_LENGTH) {
+            Buffer next = packetFetcher.getPacket();
+            lastPacketLength = next.limit;
+            buffer.appendPacket(next);
+        }
+        int length = buffer.remaining();
+        startRow(length);
+        System.arraycopy(buffer.buf, buffer.position, chunk, writePosition, length);
+        writePosition += length;
+        endRow();
+    }
+
+    /**
+     * Add a NULL value for current row next column.
+     */
+    public void appendNull() {
+        columnEnds[rowCount * columnCount + writeColumn++] = ~(writePosition - rowStart);
+    }
+
+    /**
+     * Add value for current row next column.
+     *
+     * @param src    source array
+     * @param off    source offset
+     * @param length value length
+     */
+    public void append(byte[] src, int off, int length) {
+        ensureCapacity(length);
+        System.arraycopy(src, off, chunk, writePosition, length);
+        writePosition += length;
+        columnEnds[rowCount * columnCount + writeColumn++] = writePosition - rowStart;
+    }
+
+    /**
+     * Add a one byte value for current row next column.
+     *
+     * @param value value
+     */
+    public void append(byte value) {
+        ensureCapacity(1);
+        chunk[writePosition++] = value;
+        columnEnds[rowCount * columnCount + writeColumn++] = writePosition - rowStart;
+    }
+
+    /**
+     * Read value for current row next column directly from stream into arena.
+     *
+     * @param inputStream input stream
+     * @param length      value length
+     * @throws IOException if any connection error occur
+     */
+    public void append(MariaDbInputStream inputStream, int length) throws IOException {
+        ensureCapacity(length);
+        int remainingToRead = length;
+        while (remainingToRead > 0) {
+            int count = inputStream.read(chunk, writePosition, remainingToRead);
+            if (count <= 0) {
+                throw new EOFException("unexpected end of stream, read " + (length - remainingToRead) + " bytes from " + length);
+            }
+            remainingToRead -= count;
+            writePosition += count;
+        }
+        columnEnds[rowCount * columnCount + writeColumn++] = writePosition - rowStart;
+    }
+
+    /**
+     * Add a complete row. Used for driver generated results.
+     *
+     * @param row row values
+     */
+    public void addRow(byte[][] row) {
+        int length = 0;
+        for (byte[] value : row) {
+            if (value != null) length += value.length;
+        }
+        startRow(length);
+        for (byte[] value : row) {
+            if (value == null) {
+                appendNull();
+            } else {
+                append(value, 0, value.length);
+            }
+        }
+        endRow();
+    }
+
+    /**
+     * Remove all rows.
+     * Current chunk is kept (all chunks in recycling mode), so streaming results reuse the same memory for each fetch.
+     */
+    public void clear() {
+        if (recycleChunks) {
+            spareChunkCount = Math.max(spareChunkCount, chunkCount);
+            chunkCount = 0;
+            chunk = null;
+        } else {
+            for (int i = 0; i < chunkCount; i++) {
+                chunks[i] = null;
+            }
+            if (chunk != null) {
+                chunks[0] = chunk;
+                chunkCount = 1;
+            }
+            heapChunkSize = (chunk == null) ? 0 : chunk.length;
+        }
+        if (spillFile != null) spillFile.reset();
+        lastSpilledRow = -1;
+        writePosition = 0;
+        rowCount = 0;
+        dataSize = 0;
+        slicedRow = -1;
+        rangeStart = -1;
+    }
+
+    /**
+     * Release all memory.
+     */
+    public void release() {
+        chunks = new byte[1][];
+        chunkCount = 0;
+        spareChunkCount = 0;
+        heapChunkSize = 0;
+        if (spillFile != null) {
+            spillFile.close();
+            spillFile = null;
+        }
+        lastSpilledRow = -1;
+        chunk = null;
+        writePosition = 0;
+        rowChunks = new int[1];
+        rowStarts = new int[1];
+        if (slicer == null) {
+            columnEnds = new int[columnCount];
+        } else {
+            rowLengths = new int[1];
+        }
+        rowCount = 0;
+        dataSize = 0;
+        slicedRow = -1;
+        rangeStart = -1;
+        rangeOffsets = null;
+        rangeLengths = null;
+    }
+
+    /**
+     * Add all rows of another arena with the same column count and storage mode.
+     *
+     * @param other arena containing rows to add
+     */
+    public void addRows(RowArena other) {
+        for (int row = 0; row < other.rowCount; row++) {
+            int length = (slicer != null)
+                    ? other.rowLengths[row]
+                    : end(other.columnEnds[(row + 1) * columnCount - 1]);
+            startRow(length);
+            System.arraycopy(other.getChunk(row), other.rowStarts[row], chunk, writePosition, length);
+            writePosition += length;
+            if (slicer == null) {
+                System.arraycopy(other.columnEnds, row * columnCount, columnEnds, rowCount * columnCount, columnCount);
+            }
+            endRow();
+        }
+    }
+
+    /**
+     * Is value NULL.
+     *
+     * @param row    row index (0-based)
+     * @param column column index (0-based)
+     * @return true if value is NULL
+     */
+    public boolean isNull(int row, int column) {
+        if (slicer != null) return slice(row)[column] < 0;
+        return columnEnds[row * columnCount + column] < 0;
+    }
+
+    /**
+     * Array containing row data.
+     *
+     * @param row row index (0-based)
+     * @return the chunk containing row values
+     */
+    public byte[] getChunk(int row) {
+        int chunkIndex = rowChunks[row];
+        byte[] data = chunks[chunkIndex];
+        if (data != null) return data;
+
+        //spilled chunk : whole chunk is loaded only when rows are read sequentially
+        boolean sequential = row == lastSpilledRow + 1;
+        lastSpilledRow = row;
+        int rowLength = (slicer != null) ? rowLengths[row] : end(columnEnds[(row + 1) * columnCount - 1]);
+        return spillFile.read(chunkIndex, rowStarts[row], rowLength, sequential);
+    }
+
+    /**
+     * Offset of value in row chunk.
+     *
+     * @param row    row index (0-based)
+     * @param column column index (0-based)
+     * @return offset
+     */
+    public int getOffset(int row, int column) {
+        if (slicer != null) {
+            slice(row);
+            return slicedOffsets[column];
+        }
+        if (column == 0) return rowStarts[row];
+        return rowStarts[row] + end(columnEnds[row * columnCount + column - 1]);
+    }
+
+    /**
+     * Value length.
+     *
+     * @param row    row index (0-based)
+     * @param column column index (0-based)
+     * @return length, -1 if value is NULL
+     */
+    public int getLength(int row, int column) {
+        if (slicer != null) return slice(row)[column];
+        int pos = row * columnCount + column;
+        int end = columnEnds[pos];
+        if (end < 0) return -1;
+        return (column == 0) ? end : end - end(columnEnds[pos - 1]);
+    }
+
+    /**
+     * Offsets and lengths of a column values for a row range, for columnar decoding.
+     * In lazy mode, all rows of the range are sliced once, so getting all columns of a range parse each row only once.
+     * Index size is proportional to range size, so caller must limit range size.
+     *
+     * @param fromRow first row index (0-based, inclusive)
+     * @param toRow   last row index (exclusive)
+     * @param column  column index (0-based)
+     * @param offsets offsets of values in row chunk, indexed from 0 for fromRow
+     * @param lengths values length (-1 for NULL value), indexed from 0 for fromRow
+     */
+    public void getColumnBoundaries(int fromRow, int toRow, int column, int[] offsets, int[] lengths) {
+        if (slicer == null) {
+            for (int row = fromRow; row < toRow; row++) {
+                int pos = row * columnCount + column;
+                int previousEnd = (column == 0) ? 0 : end(columnEnds[pos - 1]);
+                int end = columnEnds[pos];
+                offsets[row - fromRow] = rowStarts[row] + previousEnd;
+                lengths[row - fromRow] = (end < 0) ? -1 : end - previousEnd;
+            }
+            return;
+        }
+        sliceRange(fromRow, toRow);
+        for (int row = fromRow; row < toRow; row++) {
+            int pos = (row - fromRow) * columnCount + column;
+            offsets[row - fromRow] = rangeOffsets[pos];
+            lengths[row - fromRow] = rangeLengths[pos];
+        }
+    }
+
+    /**
+     * Lazy mode : number of values boundaries kept for columnar access.
+     *
+     * @return index length
+     */
+    int getRangeIndexLength() {
+        return (rangeOffsets == null) ? 0 : rangeOffsets.length;
+    }
+
+    /**
+     * Lazy mode : compute column boundaries of all rows of range if not already done.
+     *
+     * @param fromRow first row index (0-based, inclusive)
+     * @param toRow   last row index (exclusive)
+     */
+    private void sliceRange(int fromRow, int toRow) {
+        if (fromRow == rangeStart && toRow == rangeEnd) return;
+        int size = (toRow - fromRow) * columnCount;
+        if (rangeOffsets == null || rangeOffsets.length < size) {
+            rangeOffsets = new int[size];
+            rangeLengths = new int[size];
+        }
+        for (int row = fromRow; row < toRow; row++) {
+            slice(row);
+            System.arraycopy(slicedOffsets, 0, rangeOffsets, (row - fromRow) * columnCount, columnCount);
+            System.arraycopy(slicedLengths, 0, rangeLengths, (row - fromRow) * columnCount, columnCount);
+        }
+        rangeStart = fromRow;
+        rangeEnd = toRow;
+    }
+
+    /**
+     * Get a copy of value.
+     *
+     * @param row    row index (0-based)
+     * @param column column index (0-based)
+     * @return value copy, or null if value is NULL
+     */
+    public byte[] getBytes(int row, int column) {
+        int length = getLength(row, column);
+        if (length < 0) return null;
+        if (length == 0) return EMPTY;
+        byte[] value = new byte[length];
+        System.arraycopy(getChunk(row), getOffset(row, column), value, 0, length);
+        return value;
+    }
+
+    /**
+     * Size of row data stored, in bytes.
+     *
+     * @return row data size
+     */
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    /**
+     * Approximate memory used by this arena, in bytes.
+     *
+     * @return memory used
+     */
+    public long getAllocatedMemory() {
+        long size = 4L * (rowChunks.length + rowStarts.length + columnEnds.length + rowLengths.length);
+        for (int i = 0; i < Math.max(chunkCount, spareChunkCount); i++) {
+            if (chunks[i] != null) size += chunks[i].length;
+        }
+        if (spillFile != null) size += spillFile.getCacheMemory();
+        return size;
+    }
+
+    /**
+     * Lazy mode : compute column boundaries of row if not already done.
+     *
+     * @param row row index (0-based)
+     * @return column lengths (-1 for NULL value)
+     */
+    private int[] slice(int row) {
+        if (row != slicedRow) {
+            int start = rowStarts[row];
+            slicer.sliceRow(getChunk(row), start, start + rowLengths[row], slicedOffsets, slicedLengths);
+            slicedRow = row;
+        }
+        return slicedLengths;
+    }
+
+    private static int end(int encodedEnd) {
+        return encodedEnd < 0 ? ~encodedEnd : encodedEnd;
+    }
+
+    /**
+     * Ensure current chunk has enough place for value. If not, current row is moved to a new chunk, since row data
+     * must be contiguous.
+     *
+     * @param length value length
+     */
+    private void ensureCapacity(int length) {
+        if (chunk.length - writePosition >= length) return;
+        int rowLength = writePosition - rowStart;
+        byte[] previousChunk = chunk;
+        int previousRowStart = rowStart;
+        if (rowStart == 0) {
+            //row already use the entire chunk, just grow it
+            heapChunkSize -= chunk.length;
+            chunk = copyOf(chunk, Math.max(chunk.length * 2, rowLength + length));
+            heapChunkSize += chunk.length;
+            chunks[chunkCount - 1] = chunk;
+            return;
+        }
+        newChunk(rowLength + length);
+        System.arraycopy(previousChunk, previousRowStart, chunk, 0, rowLength);
+        writePosition = rowLength;
+        rowStart = 0;
+    }
+
+    private void newChunk(int minLength) {
+        if (chunkCount < spareChunkCount && chunks[chunkCount] != null && chunks[chunkCount].length >= minLength) {
+            //recycling mode : reuse next kept chunk
+            chunk = chunks[chunkCount++];
+            writePosition = 0;
+            return;
+        }
+        int size = Math.max(minLength, (chunk == null) ? INITIAL_CHUNK_SIZE : Math.min(chunk.length * 2, MAX_CHUNK_SIZE));
+        if (memoryBudget > 0 && chunk != null && heapChunkSize + size > memoryBudget) {
+            spillCurrentChunk();
+        }
+        chunk = new byte[size];
+        heapChunkSize += size;
+        if (chunkCount == chunks.length) {
+            byte[][] newChunks = new byte[chunkCount * 2][];
+            System.arraycopy(chunks, 0, newChunks, 0, chunkCount);
+            chunks = newChunks;
+        }
+        chunks[chunkCount++] = chunk;
+        writePosition = 0;
+    }
+
+    /**
+     * Write current chunk to temporary file, and release it from heap.
+     * If file cannot be written, chunk stay on heap, and memory budget is disabled.
+     */
+    private void spillCurrentChunk() {
+        try {
+            if (spillFile == null) spillFile = ChunkSpillFile.create();
+            spillFile.write(chunkCount - 1, chunk, writePosition);
+            chunks[chunkCount - 1] = null;
+            heapChunkSize -= chunk.length;
+        } catch (IOException ioe) {
+            logger.warn("Result-set rows cannot be written to temporary file, memory budget is disabled : " + ioe.getMessage());
+            memoryBudget = 0;
+        }
+    }
+
+    private static byte[] copyOf(byte[] array, int newLength) {
+        byte[] newArray = new byte[newLength];
+        System.arraycopy(array, 0, newArray, 0, array.length);
+        return newArray;
+    }
+
+    private static int[] copyOf(int[] array, int newLength) {
+        int[] newArray = new int[newLength];
+        System.arraycopy(array, 0, newArray, 0, array.length);
+        return newArray;
+    }
+
+}
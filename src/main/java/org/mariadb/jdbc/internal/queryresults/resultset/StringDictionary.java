@@ -0,0 +1,130 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.queryresults.resultset;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bounded cache of decoded column values, for columns with few distinct values.
+ * Identical byte sequences are decoded once, and the same String instance is returned.
+ *
+ * <p>Cache is direct-mapped (a new value replace the value having the same hash slot), so lookup cost is a hash and a
+ * byte comparison. Hit rate is checked periodically : if too low, dictionary disable itself and release its memory.</p>
+ */
+final class StringDictionary {
+
+    private static final int CAPACITY = 256;
+    private static final int MAX_VALUE_LENGTH = 64;
+    private static final int CHECK_INTERVAL = 1024;
+    private static final int MIN_HIT_PERCENT = 50;
+
+    private byte[][] keys = new byte[CAPACITY][];
+    private String[] values = new String[CAPACITY];
+    private int lookups;
+    private int hits;
+    private boolean enabled = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Decode UTF-8 value, returning cached instance if the same value has already been decoded.
+     *
+     * @param buf    buffer
+     * @param off    value offset
+     * @param length value length
+     * @return decoded value
+     */
+    public String decode(byte[] buf, int off, int length) {
+        if (!enabled || length > MAX_VALUE_LENGTH) {
+            return new String(buf, off, length, StandardCharsets.UTF_8);
+        }
+
+        int hash = length;
+        for (int i = off; i < off + length; i++) {
+            hash = 31 * hash + buf[i];
+        }
+        int slot = (hash ^ (hash >>> 16)) & (CAPACITY - 1);
+
+        String value;
+        byte[] key = keys[slot];
+        if (key != null && matches(key, buf, off, length)) {
+            hits++;
+            value = values[slot];
+        } else {
+            key = new byte[length];
+            System.arraycopy(buf, off, key, 0, length);
+            value = new String(key, StandardCharsets.UTF_8);
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        if (++lookups == CHECK_INTERVAL) {
+            if (hits * 100 < lookups * MIN_HIT_PERCENT) {
+                enabled = false;
+                keys = null;
+                values = null;
+            }
+            lookups = 0;
+            hits = 0;
+        }
+        return value;
+    }
+
+    private static boolean matches(byte[] key, byte[] buf, int off, int length) {
+        if (key.length != length) return false;
+        for (int i = 0; i < length; i++) {
+            if (key[i] != buf[off + i]) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,182 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.stream;
+
+import org.mariadb.jdbc.internal.logging.Logger;
+import org.mariadb.jdbc.internal.logging.LoggerFactory;
+import org.mariadb.jdbc.internal.util.buffer.DirectBufferPool;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Packet input stream reading from a SocketChannel into a direct buffer.
+ * Socket data are read directly in native memory, then copied once to destination array.
+ * Direct buffer is taken from the JVM-wide DirectBufferPool, and given back when stream is closed.
+ */
+public class ChannelInputStream extends InputStream implements MariaDbInputStream {
+    private static Logger logger = LoggerFactory.getLogger(ChannelInputStream.class);
+    private final SocketChannelTransport transport;
+    private ByteBuffer buffer;
+    private int lastPacketSeq;
+
+    /**
+     * Constructor.
+     *
+     * @param transport channel transport
+     * @param size      direct buffer size
+     */
+    public ChannelInputStream(SocketChannelTransport transport, int size) {
+        this.transport = transport;
+        this.buffer = DirectBufferPool.getInstance().acquire(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.flip();
+    }
+
+    /**
+     * Fill buffer with available socket data.
+     *
+     * @return false if end of stream is reached
+     * @throws IOException if any connection error occur
+     */
+    private boolean fill() throws IOException {
+        if (buffer == null) throw new EOFException("Stream closed");
+        buffer.compact();
+        try {
+            return transport.read(buffer) > 0;
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    /**
+     * Read mysql packet header : 3 bytes length + 1 byte sequence.
+     *
+     * @return packet length
+     * @throws IOException if any connection error occur
+     */
+    public int readHeader() throws IOException {
+        if (buffer == null) throw new EOFException("Stream closed");
+        while (buffer.remaining() < 4) {
+            if (!fill()) {
+                throw new EOFException("unexpected end of stream, read " + buffer.remaining() + " bytes from " + 4);
+            }
+        }
+        int header = buffer.getInt();
+        lastPacketSeq = header >>> 24;
+        int length = header & 0xffffff;
+        if (logger.isTraceEnabled()) logger.trace("read packet seq:" + lastPacketSeq + " length:" + length);
+        return length;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (buffer == null) throw new EOFException("Stream closed");
+        if (!buffer.hasRemaining() && !fill()) return -1;
+        return buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] bytes) throws IOException {
+        return read(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public int read(byte[] bytes, int off, int len) throws IOException {
+        if (len == 0) return 0;
+        if (buffer == null) throw new EOFException("Stream closed");
+        if (!buffer.hasRemaining() && !fill()) return -1;
+        int length = Math.min(len, buffer.remaining());
+        buffer.get(bytes, off, length);
+        return length;
+    }
+
+    @Override
+    public long skip(long length) throws IOException {
+        if (buffer == null) throw new EOFException("Stream closed");
+        long skipped = 0;
+        while (skipped < length) {
+            if (!buffer.hasRemaining() && !fill()) break;
+            int skip = (int) Math.min(length - skipped, buffer.remaining());
+            buffer.position(buffer.position() + skip);
+            skipped += skip;
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return (buffer == null) ? 0 : buffer.remaining();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            transport.close();
+        } finally {
+            ByteBuffer released = buffer;
+            buffer = null;
+            DirectBufferPool.getInstance().release(released);
+        }
+    }
+
+    @Override
+    public int getLastPacketSeq() {
+        return lastPacketSeq;
+    }
+
+    @Override
+    public void setLastPacketSeq(int lastPacketSeq) {
+        this.lastPacketSeq = lastPacketSeq;
+    }
+}
@@ -0,0 +1,176 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.stream;
+
+import org.mariadb.jdbc.internal.util.buffer.DirectBufferPool;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Output stream writing to a SocketChannel through a direct buffer.
+ * Data are copied once into native memory, by chunk of buffer size, avoiding the temporary direct buffers
+ * allocated by the JDK for heap buffer writes. Packet header and first data chunk are sent with a single gathering write.
+ * Data buffer is taken from the JVM-wide DirectBufferPool, and given back when stream is closed.
+ */
+public class ChannelOutputStream extends OutputStream {
+    private static final int MAX_HEADER_LENGTH = 16;
+    private final SocketChannelTransport transport;
+    private final ByteBuffer headerBuffer = ByteBuffer.allocateDirect(MAX_HEADER_LENGTH);
+    private final ByteBuffer[] gather = new ByteBuffer[2];
+    private ByteBuffer buffer;
+
+    /**
+     * Constructor.
+     *
+     * @param transport channel transport
+     * @param size      direct buffer size
+     */
+    public ChannelOutputStream(SocketChannelTransport transport, int size) {
+        this.transport = transport;
+        this.buffer = DirectBufferPool.getInstance().acquire(size);
+        gather[0] = headerBuffer;
+        gather[1] = buffer;
+    }
+
+    private void checkOpen() throws IOException {
+        if (buffer == null) throw new EOFException("Stream closed");
+    }
+
+    @Override
+    public void write(int value) throws IOException {
+        checkOpen();
+        buffer.clear();
+        buffer.put((byte) value);
+        buffer.flip();
+        transport.write(buffer);
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) throws IOException {
+        checkOpen();
+        buffer.clear();
+        writeChunks(bytes, off, len);
+    }
+
+    /**
+     * Write packet header and data, header being sent with first data chunk in a gathering write.
+     *
+     * @param header       header bytes
+     * @param headerLength header length
+     * @param bytes        data
+     * @param off          data offset
+     * @param len          data length
+     * @throws IOException if any connection error occur
+     */
+    public void write(byte[] header, int headerLength, byte[] bytes, int off, int len) throws IOException {
+        checkOpen();
+        if (headerLength > MAX_HEADER_LENGTH) {
+            write(header, 0, headerLength);
+            write(bytes, off, len);
+            return;
+        }
+        headerBuffer.clear();
+        headerBuffer.put(header, 0, headerLength);
+        headerBuffer.flip();
+
+        int length = Math.min(len, buffer.capacity());
+        buffer.clear();
+        buffer.put(bytes, off, length);
+        buffer.flip();
+        transport.write(gather);
+
+        if (length < len) {
+            buffer.clear();
+            writeChunks(bytes, off + length, len - length);
+        }
+    }
+
+    /**
+     * Send file content directly to socket, without copy in user space.
+     *
+     * @param file     file channel
+     * @param position file position
+     * @param count    number of bytes to send
+     * @throws IOException if any file or connection error occur
+     */
+    public void transferFrom(FileChannel file, long position, long count) throws IOException {
+        transport.transferFrom(file, position, count);
+    }
+
+    private void writeChunks(byte[] bytes, int off, int len) throws IOException {
+        int position = off;
+        int end = off + len;
+        do {
+            int length = Math.min(end - position, buffer.remaining());
+            buffer.put(bytes, position, length);
+            position += length;
+            buffer.flip();
+            transport.write(buffer);
+            buffer.clear();
+        } while (position < end);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            transport.close();
+        } finally {
+            ByteBuffer released = buffer;
+            buffer = null;
+            gather[1] = null;
+            DirectBufferPool.getInstance().release(released);
+        }
+    }
+}
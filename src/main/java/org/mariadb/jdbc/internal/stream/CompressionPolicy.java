@@ -0,0 +1,218 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.stream;
+
+import org.mariadb.jdbc.internal.logging.Logger;
+import org.mariadb.jdbc.internal.logging.LoggerFactory;
+
+/**
+ * Adaptive compression decisions of a connection, by payload type.
+ * Recent compression ratio and cost of each payload type are tracked. When compression doesn't reach minimum ratio,
+ * payloads of this type are send without compression, except one probe every PROBE_INTERVAL payloads, that permit
+ * to compress again when data become compressible.
+ */
+public class CompressionPolicy {
+    private static Logger logger = LoggerFactory.getLogger(CompressionPolicy.class);
+
+    public static final int PROBE_INTERVAL = 16;
+    private static final double RECENT_WEIGHT = 0.25;
+
+    public enum PayloadType {
+        QUERY, BINARY_PARAMETERS, FILE
+    }
+
+    private final float minCompressionRatio;
+    private final PayloadStats[] stats;
+
+    /**
+     * Constructor.
+     *
+     * @param minCompressionRatio compressed / initial size ratio under which compression is worth it
+     */
+    public CompressionPolicy(float minCompressionRatio) {
+        this.minCompressionRatio = minCompressionRatio;
+        stats = new PayloadStats[PayloadType.values().length];
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new PayloadStats();
+        }
+    }
+
+    /**
+     * Must next payload of this type be compressed.
+     *
+     * @param type payload type
+     * @return true if payload must be compressed
+     */
+    public boolean shouldCompress(PayloadType type) {
+        PayloadStats payloadStats = stats[type.ordinal()];
+        if (!payloadStats.skipping) return true;
+        if (++payloadStats.skippedSinceProbe >= PROBE_INTERVAL) {
+            payloadStats.skippedSinceProbe = 0;
+            payloadStats.probes++;
+            return true;
+        }
+        payloadStats.skippedPayloads++;
+        return false;
+    }
+
+    /**
+     * Record compression result.
+     *
+     * @param type             payload type
+     * @param length           initial length
+     * @param compressedLength compressed length
+     * @param nanos            compression time
+     */
+    public void record(PayloadType type, int length, int compressedLength, long nanos) {
+        PayloadStats payloadStats = stats[type.ordinal()];
+        double ratio = (double) compressedLength / length;
+        double nanosPerByte = (double) nanos / length;
+        if (payloadStats.deflatedPayloads == 0 || payloadStats.skipping) {
+            //first result, or probe : only current result is relevant
+            payloadStats.ratio = ratio;
+            payloadStats.nanosPerByte = nanosPerByte;
+        } else {
+            payloadStats.ratio += (ratio - payloadStats.ratio) * RECENT_WEIGHT;
+            payloadStats.nanosPerByte += (nanosPerByte - payloadStats.nanosPerByte) * RECENT_WEIGHT;
+        }
+        payloadStats.deflatedPayloads++;
+        payloadStats.bytes += length;
+        payloadStats.compressedBytes += Math.min(length, compressedLength);
+
+        boolean skipping = payloadStats.ratio >= minCompressionRatio;
+        if (skipping != payloadStats.skipping) {
+            payloadStats.skipping = skipping;
+            payloadStats.skippedSinceProbe = 0;
+            if (logger.isDebugEnabled()) {
+                logger.debug("compression " + (skipping ? "disabled" : "enabled") + " for " + type + " payloads : ratio "
+                        + payloadStats.ratio + ", " + payloadStats.nanosPerByte + "ns/byte");
+            }
+        }
+    }
+
+    public PayloadStats getStats(PayloadType type) {
+        return stats[type.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CompressionPolicy{");
+        for (PayloadType type : PayloadType.values()) {
+            if (type.ordinal() != 0) sb.append(", ");
+            sb.append(type).append('=').append(stats[type.ordinal()]);
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Compression statistics of a payload type.
+     */
+    public static class PayloadStats {
+        private double ratio;
+        private double nanosPerByte;
+        private boolean skipping;
+        private int skippedSinceProbe;
+        private long deflatedPayloads;
+        private long skippedPayloads;
+        private long probes;
+        private long bytes;
+        private long compressedBytes;
+
+        /**
+         * Recent compressed / initial size ratio.
+         *
+         * @return ratio
+         */
+        public double getRatio() {
+            return ratio;
+        }
+
+        /**
+         * Recent compression time by initial byte.
+         *
+         * @return nanoseconds by byte
+         */
+        public double getNanosPerByte() {
+            return nanosPerByte;
+        }
+
+        public boolean isSkipping() {
+            return skipping;
+        }
+
+        public long getDeflatedPayloads() {
+            return deflatedPayloads;
+        }
+
+        public long getSkippedPayloads() {
+            return skippedPayloads;
+        }
+
+        public long getProbes() {
+            return probes;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public long getCompressedBytes() {
+            return compressedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return "{ratio=" + ratio + ", nanosPerByte=" + nanosPerByte + ", skipping=" + skipping
+                    + ", deflatedPayloads=" + deflatedPayloads + ", skippedPayloads=" + skippedPayloads
+                    + ", probes=" + probes + "}";
+        }
+    }
+}
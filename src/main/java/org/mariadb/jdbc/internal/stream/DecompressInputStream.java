@@ -53,7 +53,6 @@ package org.mariadb.jdbc.internal.stream;
 import org.mariadb.jdbc.internal.logging.Logger;
 import org.mariadb.jdbc.internal.logging.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -63,22 +62,30 @@ import java.util.zip.Inflater;
 
 public class DecompressInputStream extends InputStream implements MariaDbInputStream {
     private static Logger logger = LoggerFactory.getLogger(DecompressInputStream.class);
+    private static final int INPUT_BUFFER_SIZE = 16384;
     private InputStream baseStream;
     private int lastPacketSeq;
     private int remainingBytes;
+    private int compressedRemaining;
     private byte[] header;
     private byte[] readHeader;
+    private byte[] singleByte;
+    private byte[] inputBuffer;
     private boolean doDecompress;
-    private ByteArrayInputStream decompressedByteStream;
+    private final Inflater inflater;
 
     /**
      * Constructor of inputStream when compression is used.
+     * Compressed packets are inflated incrementally directly in caller array, using the same inflater for all packets.
      * @param baseStream socket inputStream.
      */
     public DecompressInputStream(InputStream baseStream) {
         this.baseStream = baseStream;
         header = new byte[7];
         readHeader = new byte[4];
+        singleByte = new byte[1];
+        inputBuffer = new byte[INPUT_BUFFER_SIZE];
+        inflater = new Inflater();
     }
 
     /**
@@ -98,7 +105,9 @@ public class DecompressInputStream extends InputStream implements MariaDbInputSt
 
         int packetLength = (readHeader[0] & 0xff) + ((readHeader[1] & 0xff) << 8) + ((readHeader[2] & 0xff) << 16);
         lastPacketSeq = (readHeader[3] & 0xff);
-        logger.trace("read packet seq:" + lastPacketSeq + " length:" + packetLength + " remaining:" + remainingBytes);
+        if (logger.isTraceEnabled()) {
+            logger.trace("read packet seq:" + lastPacketSeq + " length:" + packetLength + " remaining:" + remainingBytes);
+        }
         return packetLength;
     }
 
@@ -113,7 +122,7 @@ public class DecompressInputStream extends InputStream implements MariaDbInputSt
         int ret;
         int bytesToRead = Math.min(remainingBytes, len);
         if (doDecompress) {
-            ret = decompressedByteStream.read(bytes, off, bytesToRead);
+            ret = inflate(bytes, off, bytesToRead);
         } else {
             ret = baseStream.read(bytes, off, bytesToRead);
         }
@@ -122,6 +131,7 @@ public class DecompressInputStream extends InputStream implements MariaDbInputSt
         }
 
         remainingBytes -= ret;
+        if (remainingBytes == 0 && doDecompress) endCompressedPacket();
         return ret;
     }
 
@@ -132,16 +142,64 @@ public class DecompressInputStream extends InputStream implements MariaDbInputSt
 
     @Override
     public int read() throws IOException {
-        byte[] buffer = new byte[1];
-        if (read(buffer) == 0) {
+        if (read(singleByte, 0, 1) == 0) {
             return -1;
         }
-        return (buffer[0] & 0xff);
+        return (singleByte[0] & 0xff);
     }
 
+    /**
+     * Inflate current compressed packet data into array, reading compressed data from socket when needed.
+     *
+     * @param bytes destination array
+     * @param off   destination offset
+     * @param len   maximum length to inflate
+     * @return number of inflated bytes
+     * @throws IOException if socket error occur, or if data are corrupted
+     */
+    private int inflate(byte[] bytes, int off, int len) throws IOException {
+        try {
+            while (true) {
+                int count = inflater.inflate(bytes, off, len);
+                if (count > 0) return count;
+                if (inflater.finished() || inflater.needsDictionary()) {
+                    throw new IOException("Invalid stream length after decompression, " + remainingBytes + " bytes missing");
+                }
+                if (inflater.needsInput()) {
+                    if (compressedRemaining == 0) {
+                        throw new EOFException("unexpected end of compressed packet, " + remainingBytes + " bytes missing");
+                    }
+                    int read = baseStream.read(inputBuffer, 0, Math.min(inputBuffer.length, compressedRemaining));
+                    if (read <= 0) {
+                        throw new EOFException("unexpected end of stream, " + compressedRemaining + " compressed bytes missing");
+                    }
+                    compressedRemaining -= read;
+                    inflater.setInput(inputBuffer, 0, read);
+                }
+            }
+        } catch (DataFormatException dfe) {
+            throw new IOException(dfe);
+        }
+    }
+
+    /**
+     * All data of compressed packet have been inflated : discard compressed data remaining (checksum).
+     *
+     * @throws IOException if socket error occur
+     */
+    private void endCompressedPacket() throws IOException {
+        while (compressedRemaining > 0) {
+            int read = baseStream.read(inputBuffer, 0, Math.min(inputBuffer.length, compressedRemaining));
+            if (read <= 0) {
+                throw new EOFException("unexpected end of stream, " + compressedRemaining + " compressed bytes missing");
+            }
+            compressedRemaining -= read;
+        }
+        inflater.reset();
+    }
 
     /**
-     * Read stream header. If required, decompress compressed stream.
+     * Read stream header. Compressed packet data will be inflated when read.
      *
      * @throws IOException exception
      */
@@ -166,39 +224,18 @@ public class DecompressInputStream extends InputStream implements MariaDbInputSt
         if (decompressedLength != 0) {
             doDecompress = true;
             remainingBytes += decompressedLength;
-            byte[] compressedBuffer = new byte[compressedLength];
-            byte[] decompressedBuffer = new byte[decompressedLength];
-
-            off = 0;
-            remaining = compressedBuffer.length;
-            do {
-                int count = baseStream.read(compressedBuffer, off, remaining);
-                if (count <= 0) {
-                    throw new EOFException("unexpected end of stream, read " + (7 - remaining) + " bytes from " + 7);
-                }
-                remaining -= count;
-                off += count;
-            } while (remaining > 0);
-
-            Inflater inflater = new Inflater();
-            inflater.setInput(compressedBuffer);
-            try {
-                int actualUncompressBytes = inflater.inflate(decompressedBuffer);
-                if (actualUncompressBytes != decompressedLength) {
-                    throw new IOException("Invalid stream length after decompression " + actualUncompressBytes + ",expected "
-                            + decompressedLength);
-                }
-            } catch (DataFormatException dfe) {
-                throw new IOException(dfe);
-            }
-            inflater.end();
-            decompressedByteStream = new ByteArrayInputStream(decompressedBuffer);
+            compressedRemaining = compressedLength;
         } else {
             doDecompress = false;
             remainingBytes += compressedLength;
-            decompressedByteStream = null;
         }
-        logger.trace("read compress packet seq:" + lastPacketSeq + " length:" + remainingBytes);
+        if (logger.isTraceEnabled()) logger.trace("read compress packet seq:" + lastPacketSeq + " length:" + remainingBytes);
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        baseStream.close();
     }
 
     @Override
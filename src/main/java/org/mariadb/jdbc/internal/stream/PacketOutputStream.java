@@ -53,16 +53,29 @@ package org.mariadb.jdbc.internal.stream;
 import org.mariadb.jdbc.internal.logging.Logger;
 import org.mariadb.jdbc.internal.logging.LoggerFactory;
 import org.mariadb.jdbc.internal.packet.Packet;
+import org.mariadb.jdbc.internal.stream.CompressionPolicy.PayloadType;
 import org.mariadb.jdbc.internal.util.Utils;
+import org.mariadb.jdbc.internal.util.buffer.BufferPool;
 import org.mariadb.jdbc.internal.util.dao.QueryException;
 
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 
 import static org.mariadb.jdbc.internal.util.SqlStates.INTERRUPTED_EXCEPTION;
@@ -71,6 +84,8 @@ public class PacketOutputStream extends OutputStream {
 
     private static final int MIN_COMPRESSION_SIZE = 16 * 1024;
     private static final float MIN_COMPRESSION_RATIO = 0.9f;
+    private static final int PARALLEL_COMPRESSION_CHUNK_SIZE = 1024 * 1024;
+    private static final int SEGMENT_MIN_LENGTH = 64 * 1024;
     private static final int MAX_PACKET_LENGTH = 0x00ffffff;
     private static final int HEADER_LENGTH = 4;
     private static final int BUFFER_DEFAULT_SIZE = 4096;
@@ -90,6 +105,15 @@ public class PacketOutputStream extends OutputStream {
     boolean logQuery;
     int maxQuerySizeToLog;
     private volatile boolean closed = false;
+    private BufferPool bufferPool;
+    private Executor compressionExecutor;
+    private int compressionThreads;
+    //reused by parallel compression tasks : at most one by compressed chunk in progress
+    private final ConcurrentLinkedQueue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<byte[]> compressedBuffers = new ConcurrentLinkedQueue<>();
+    private CompressionPolicy compressionPolicy;
+    private final List<PendingSegment> segments = new ArrayList<>();
+    private long segmentsLength;
 
     /**
      * Initialization with server outputStream.
@@ -107,13 +131,108 @@ public class PacketOutputStream extends OutputStream {
         this.maxQuerySizeToLog = maxQuerySizeToLog;
     }
 
+    /**
+     * Use a shared pool for growing buffer and file buffers.
+     *
+     * @param bufferPool buffer pool
+     */
+    public void setBufferPool(BufferPool bufferPool) {
+        this.bufferPool = bufferPool;
+    }
+
+    /**
+     * Compress big payloads by chunks in parallel, at most compressionThreads chunks at a time.
+     * Chunks are send in order once compressed. If executor has no thread available, chunk is compressed by current thread.
+     *
+     * @param executor           executor
+     * @param compressionThreads maximum number of chunks compressed in parallel
+     */
+    public void setParallelCompression(Executor executor, int compressionThreads) {
+        this.compressionExecutor = (compressionThreads > 1) ? executor : null;
+        this.compressionThreads = compressionThreads;
+    }
+
+    /**
+     * Adaptive compression : skip compression of payload types that recently didn't compress well.
+     *
+     * @param adaptiveCompression enable adaptive compression
+     */
+    public void setAdaptiveCompression(boolean adaptiveCompression) {
+        this.compressionPolicy = adaptiveCompression ? new CompressionPolicy(MIN_COMPRESSION_RATIO) : null;
+    }
+
+    /**
+     * Adaptive compression decisions and statistics.
+     *
+     * @return compression policy, or null if adaptive compression is not enabled
+     */
+    public CompressionPolicy getCompressionPolicy() {
+        return compressionPolicy;
+    }
+
+    private boolean shouldCompress(PayloadType type, int length) {
+        return length > MIN_COMPRESSION_SIZE && (compressionPolicy == null || compressionPolicy.shouldCompress(type));
+    }
+
+    private void recordCompression(PayloadType type, int length, int compressedLength, long nanos) {
+        if (compressionPolicy != null) compressionPolicy.record(type, length, compressedLength, nanos);
+    }
+
+    /**
+     * Payload type according to command of first packet.
+     *
+     * @param bufferBytes packets data
+     * @param length      data length
+     * @return payload type
+     */
+    private static PayloadType payloadType(byte[] bufferBytes, int length) {
+        if (length > 4 && (bufferBytes[4] == Packet.COM_STMT_EXECUTE || bufferBytes[4] == Packet.COM_STMT_SEND_LONG_DATA)) {
+            return PayloadType.BINARY_PARAMETERS;
+        }
+        return PayloadType.QUERY;
+    }
+
     protected void increase(int newCapacity) {
-        ByteBuffer newBuffer = ByteBuffer.allocate(newCapacity).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer newBuffer;
+        if (bufferPool != null) {
+            newBuffer = ByteBuffer.wrap(bufferPool.acquire(newCapacity)).order(ByteOrder.LITTLE_ENDIAN);
+        } else {
+            newBuffer = ByteBuffer.allocate(newCapacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
         System.arraycopy(buffer.array(), 0, newBuffer.array(), 0, buffer.position());
         newBuffer.position(buffer.position());
+        releasePooledBuffer();
         buffer = newBuffer;
     }
 
+    /**
+     * Give back current buffer to pool, if not the initial buffer.
+     */
+    private void releasePooledBuffer() {
+        if (bufferPool != null && buffer != firstBuffer) {
+            bufferPool.release(buffer.array());
+        }
+    }
+
+    /**
+     * Get a temporary array, from buffer pool if used.
+     *
+     * @param length minimum array length
+     * @return array
+     */
+    public byte[] acquireArray(int length) {
+        return (bufferPool != null) ? bufferPool.acquire(length) : new byte[length];
+    }
+
+    /**
+     * Give back an array obtained with acquireArray.
+     *
+     * @param array array
+     */
+    public void releaseArray(byte[] array) {
+        if (bufferPool != null) bufferPool.release(array);
+    }
+
     /**
      * Initialize stream sequence. Max stream allowed size will be checked.
      *
@@ -130,6 +249,7 @@ public class PacketOutputStream extends OutputStream {
         this.checkPacketLength = checkPacketLength;
         buffer.clear();
         buffer.position(4);
+        clearSegments();
     }
 
     /**
@@ -199,48 +319,118 @@ public class PacketOutputStream extends OutputStream {
             //so, reserve the 4th first bytes for packet header to permit writing buffer immediately buffer to socket
 
             int bufLength = Math.min(maxAllowedPacket, MAX_PACKET_LENGTH) - 4;
-            byte[] buf = new byte[bufLength + 4];
-
-            int len;
-            while ((len = is.read(buf, 4, bufLength)) > 0) {
-                buf[0] = (byte) ((len) & 0xff);
-                buf[1] = (byte) ((len) >>> 8);
-                buf[2] = (byte) ((len) >>> 16);
-                buf[3] = (byte) seqNo++;
-                outputStream.write(buf, 0, len + 4);
+            byte[] buf = acquireArray(bufLength + 4);
+            try {
+                int len;
+                while ((len = is.read(buf, 4, bufLength)) > 0) {
+                    buf[0] = (byte) ((len) & 0xff);
+                    buf[1] = (byte) ((len) >>> 8);
+                    buf[2] = (byte) ((len) >>> 16);
+                    buf[3] = (byte) seqNo++;
+                    outputStream.write(buf, 0, len + 4);
 
-                if (logger.isTraceEnabled() && logQuery) {
-                    logger.trace("send packet local file packet seq:" + (seqNo - 1) + " length:" + (len));
+                    if (logger.isTraceEnabled() && logQuery) {
+                        logger.trace("send packet local file packet seq:" + (seqNo - 1) + " length:" + (len));
+                    }
                 }
-            }
 
-            //send empty packet when finish
-            buf[0] = ((byte) 0);
-            buf[1] = ((byte) 0);
-            buf[2] = ((byte) 0);
-            buf[3] = ((byte) seqNo);
-            outputStream.write(buf, 0, 4);
+                //send empty packet when finish
+                buf[0] = ((byte) 0);
+                buf[1] = ((byte) 0);
+                buf[2] = ((byte) 0);
+                buf[3] = ((byte) seqNo);
+                outputStream.write(buf, 0, 4);
+            } finally {
+                releaseArray(buf);
+            }
 
         } else {
             sendFileWithCompression(is);
         }
     }
 
+    /**
+     * Can file be send with sendFile(FileChannel, int) : connection use a SocketChannel, without compression.
+     *
+     * @return true if file can be transferred directly to socket
+     */
+    public boolean canTransferFile() {
+        return !useCompression && outputStream instanceof ChannelOutputStream;
+    }
+
+    /**
+     * Used to send LOAD DATA INFILE from a file, file content being transferred directly from file to socket
+     * without copy in user space. Only packet headers are written. End of data is indicated by stream of length 0.
+     * Packet lengths are computed from file size, so file must be a regular file (see sendFile(InputStream, int) for
+     * pipes or devices).
+     *
+     * @param file file channel, read from its current position
+     * @param seq  stream sequence number
+     * @throws IOException if any error occur during data send to server
+     */
+    public void sendFile(FileChannel file, int seq) throws IOException {
+        this.seqNo = seq;
+        ChannelOutputStream channelOutputStream = (ChannelOutputStream) outputStream;
+        int packetLength = Math.min(maxAllowedPacket, MAX_PACKET_LENGTH) - 4;
+        byte[] header = new byte[4];
+        long position = file.position();
+        int len;
+
+        while ((len = (int) Math.min(packetLength, file.size() - position)) > 0) {
+            header[0] = (byte) ((len) & 0xff);
+            header[1] = (byte) ((len) >>> 8);
+            header[2] = (byte) ((len) >>> 16);
+            header[3] = (byte) seqNo++;
+            channelOutputStream.write(header, 0, 4);
+            channelOutputStream.transferFrom(file, position, len);
+            position += len;
+
+            if (logger.isTraceEnabled() && logQuery) {
+                logger.trace("send packet local file packet seq:" + (seqNo - 1) + " length:" + (len));
+            }
+        }
+
+        //send empty packet when finish
+        header[0] = ((byte) 0);
+        header[1] = ((byte) 0);
+        header[2] = ((byte) 0);
+        header[3] = ((byte) seqNo);
+        channelOutputStream.write(header, 0, 4);
+    }
+
     private void sendFileWithCompression(InputStream is) throws IOException {
         //compression
         //reserve 11 byte for header (7 bytes for compression header + 4 byte packet header)
         int bufLength = Math.min(maxAllowedPacket - 11, MAX_PACKET_LENGTH - 11);
-        byte[] buf = new byte[bufLength + 11];
+        byte[] buf = acquireArray(bufLength + 11);
+        try {
+            sendFileWithCompression(is, buf, bufLength);
+        } finally {
+            releaseArray(buf);
+        }
+    }
+
+    private void sendFileWithCompression(InputStream is, byte[] buf, int bufLength) throws IOException {
         int len;
 
         while ((len = is.read(buf, 11, bufLength)) > 0) {
+            if (compressionExecutor != null && len >= 2 * parallelChunkSize()) {
+                //standard packet header, then packet is compressed by chunks
+                buf[7] = (byte) ((len) & 0xff);
+                buf[8] = (byte) (((len) >> 8) & 0xff);
+                buf[9] = (byte) (((len) >> 16) & 0xff);
+                buf[10] = (byte) this.seqNo++;
+                compressAndSendParallel(buf, 7, len + 11, false, PayloadType.FILE);
+                continue;
+            }
             boolean compressedPacketSend = false;
 
-            if (len > MIN_COMPRESSION_SIZE) {
+            if (shouldCompress(PayloadType.FILE, len)) {
                 buf[7] = (byte) ((len) & 0xff);
                 buf[8] = (byte) (((len) >> 8) & 0xff);
                 buf[9] = (byte) (((len) >> 16) & 0xff);
                 buf[10] = (byte) this.seqNo;
+                long start = System.nanoTime();
                 ByteArrayOutputStream baos = new ByteArrayOutputStream();
                 DeflaterOutputStream deflater = new DeflaterOutputStream(baos);
                 deflater.write(buf, 7, len + 4);
@@ -249,6 +439,7 @@ public class PacketOutputStream extends OutputStream {
 
                 byte[] compressedBytes = baos.toByteArray();
                 baos.close();
+                recordCompression(PayloadType.FILE, len + 4, compressedBytes.length, System.nanoTime() - start);
 
                 if (compressedBytes.length < (int) (MIN_COMPRESSION_RATIO * len)) {
 
@@ -261,8 +452,7 @@ public class PacketOutputStream extends OutputStream {
                     buf[4] = (byte) ((len + 4) & 0xff);
                     buf[5] = (byte) (((len + 4) >> 8) & 0xff);
                     buf[6] = (byte) (((len + 4) >> 16) & 0xff);
-                    outputStream.write(buf, 0, 7);
-                    outputStream.write(compressedBytes, 0, compressedLength);
+                    writeWithHeader(buf, 7, compressedBytes, 0, compressedLength);
                     this.seqNo++;
                     compressedPacketSend = true;
                     if (logger.isTraceEnabled()) {
@@ -324,6 +514,7 @@ public class PacketOutputStream extends OutputStream {
         //save big buffer next query to avoid new allocation if next query size is similar
         if ((buffer.capacity() > 4194304 && buffer.limit() * BIG_SIZE_INCREASE < buffer.capacity())
                 || (buffer.capacity() <= 4194304 && buffer.limit() * NORMAL_INCREASE < buffer.capacity())) {
+            releasePooledBuffer();
             buffer = firstBuffer;
         }
     }
@@ -336,6 +527,7 @@ public class PacketOutputStream extends OutputStream {
         //save big buffer next query to avoid new allocation if next query size is similar
         if (!logQuery && buffer != null && ((buffer.capacity() > 4194304 && buffer.limit() * BIG_SIZE_INCREASE < buffer.capacity())
                 || (buffer.capacity() <= 4194304 && buffer.limit() * NORMAL_INCREASE < buffer.capacity()))) {
+            releasePooledBuffer();
             buffer = firstBuffer;
         }
     }
@@ -348,10 +540,12 @@ public class PacketOutputStream extends OutputStream {
      */
     public void finishPacketWithoutRelease(boolean logQuery) throws IOException {
         if (buffer.position() > 4) {
-            checkPacketMaxSize(buffer.position() - 4);
+            checkPacketMaxSize((int) Math.min(buffer.position() - 4 + segmentsLength, Integer.MAX_VALUE));
 
             if (useCompression) {
                 generatePacketWithCompression(logQuery);
+            } else if (!segments.isEmpty()) {
+                generatePacketWithSegments(logQuery);
             } else {
                 generatePacket(logQuery);
             }
@@ -410,7 +604,7 @@ public class PacketOutputStream extends OutputStream {
      */
     public boolean checkRewritableLength(int length) {
         return !(checkPacketLength
-                && ((!useCompression && buffer.position() + length >= maxAllowedPacket)
+                && ((!useCompression && buffer.position() + segmentsLength + length >= maxAllowedPacket)
                 || (useCompression && buffer.position() + length + 4 >= maxAllowedPacket)));
     }
 
@@ -424,6 +618,57 @@ public class PacketOutputStream extends OutputStream {
         }
     }
 
+    /**
+     * Indicate if data of this length must be queued as a segment instead of being copied into buffer.
+     * (compression needs contiguous data, so segments are only used without compression).
+     *
+     * @param length data length
+     * @return true if data must be written with writeSegment
+     */
+    public boolean canWriteSegment(long length) {
+        return !useCompression && length >= SEGMENT_MIN_LENGTH;
+    }
+
+    /**
+     * Queue a large payload part at current buffer position. Segment data will be written directly to socket
+     * when packet is finished, without being copied into buffer.
+     *
+     * @param segment segment
+     */
+    public void writeSegment(PayloadSegment segment) {
+        segments.add(new PendingSegment(buffer.position(), segment));
+        segmentsLength += segment.length();
+    }
+
+    private void clearSegments() {
+        if (!segments.isEmpty()) {
+            segments.clear();
+            segmentsLength = 0;
+        }
+    }
+
+    private void generatePacketWithSegments(boolean logQuery) throws IOException {
+        long dataLength = buffer.position() - 4 + segmentsLength;
+        if (logger.isTraceEnabled() && logQuery) {
+            logger.trace("send packet with " + segments.size() + " segment(s) length:" + dataLength
+                    + " data:" + Utils.hexdump(buffer.array(), maxQuerySizeToLog, 4, buffer.position() - 4));
+        }
+        FramedOutputStream framedOutputStream = new FramedOutputStream(dataLength);
+        byte[] bufferBytes = buffer.array();
+        int position = 4;
+        try {
+            for (PendingSegment pendingSegment : segments) {
+                framedOutputStream.write(bufferBytes, position, pendingSegment.position - position);
+                pendingSegment.segment.writeTo(framedOutputStream);
+                position = pendingSegment.position;
+            }
+            framedOutputStream.write(bufferBytes, position, buffer.position() - position);
+            framedOutputStream.finish();
+        } finally {
+            clearSegments();
+        }
+    }
+
     private void generatePacket(boolean logQuery) throws IOException {
         buffer.flip();
         // the 4th first byte are reserved for first header.
@@ -521,6 +766,11 @@ public class PacketOutputStream extends OutputStream {
      * @throws IOException if any compression or connection error occur
      */
     public void compressedAndSend(int notCompressPosition, byte[] bufferBytes, boolean logQuery) throws IOException {
+        PayloadType type = payloadType(bufferBytes, notCompressPosition);
+        if (compressionExecutor != null && notCompressPosition >= 2 * parallelChunkSize()) {
+            compressAndSendParallel(bufferBytes, 0, notCompressPosition, logQuery, type);
+            return;
+        }
         int position = 0;
         int packetLength;
 
@@ -528,7 +778,8 @@ public class PacketOutputStream extends OutputStream {
             packetLength = Math.min(notCompressPosition - position, maxPacketSize);
             boolean compressedPacketSend = false;
 
-            if (packetLength > MIN_COMPRESSION_SIZE) {
+            if (shouldCompress(type, packetLength)) {
+                long start = System.nanoTime();
                 ByteArrayOutputStream baos = new ByteArrayOutputStream();
                 DeflaterOutputStream deflater = new DeflaterOutputStream(baos);
 
@@ -538,34 +789,286 @@ public class PacketOutputStream extends OutputStream {
 
                 byte[] compressedBytes = baos.toByteArray();
                 baos.close();
+                recordCompression(type, packetLength, compressedBytes.length, System.nanoTime() - start);
 
                 if (compressedBytes.length < (int) (MIN_COMPRESSION_RATIO * packetLength)) {
 
                     int compressedLength = compressedBytes.length;
-                    writeCompressedHeader(compressedLength, packetLength);
+                    byte[] header = compressedHeader(compressedLength, packetLength);
                     if (logger.isTraceEnabled() && logQuery) {
                         logger.trace("send packet seq:" + compressSeqNo + " length:" + packetLength
                                 + " data:" + Utils.hexdump(compressedBytes, maxQuerySizeToLog));
                     }
-                    outputStream.write(compressedBytes, 0, compressedLength);
+                    writeWithHeader(header, 7, compressedBytes, 0, compressedLength);
                     compressedPacketSend = true;
                 }
             }
 
             if (!compressedPacketSend) {
-                writeCompressedHeader(packetLength, 0);
+                byte[] header = compressedHeader(packetLength, 0);
                 if (logger.isTraceEnabled() && logQuery) {
                     logger.trace("send packet seq:" + compressSeqNo + " length:" + packetLength
                             + " data:" + Utils.hexdump(bufferBytes, maxQuerySizeToLog, position, packetLength));
                 }
-                outputStream.write(bufferBytes, position, packetLength);
+                writeWithHeader(header, 7, bufferBytes, position, packetLength);
             }
 
             position += packetLength;
         }
     }
 
-    private void writeCompressedHeader(int packetLength, int initialLength) throws IOException {
+    private int parallelChunkSize() {
+        return Math.min(PARALLEL_COMPRESSION_CHUNK_SIZE, maxPacketSize);
+    }
+
+    /**
+     * Compress data by chunks on executor threads, and send chunks in order.
+     *
+     * @param bytes    data
+     * @param offset   data offset
+     * @param end      data end
+     * @param logQuery log data
+     * @param type     payload type
+     * @throws IOException if any compression or connection error occur
+     */
+    private void compressAndSendParallel(final byte[] bytes, int offset, int end, boolean logQuery, PayloadType type)
+            throws IOException {
+        final int chunkSize = parallelChunkSize();
+        ArrayDeque<FutureTask<CompressedChunk>> pending = new ArrayDeque<FutureTask<CompressedChunk>>(compressionThreads);
+        int submitPosition = offset;
+        int writePosition = offset;
+        try {
+            while (writePosition < end) {
+                while (pending.size() < compressionThreads && submitPosition < end) {
+                    final int chunkOffset = submitPosition;
+                    final int chunkLength = Math.min(chunkSize, end - submitPosition);
+                    final boolean compress = shouldCompress(type, chunkLength);
+                    FutureTask<CompressedChunk> task = new FutureTask<CompressedChunk>(new Callable<CompressedChunk>() {
+                        @Override
+                        public CompressedChunk call() throws Exception {
+                            return compress ? deflate(bytes, chunkOffset, chunkLength) : null;
+                        }
+                    });
+                    if (compress) {
+                        try {
+                            compressionExecutor.execute(task);
+                        } catch (RejectedExecutionException rejected) {
+                            //no thread available
+                            task.run();
+                        }
+                    } else {
+                        task.run();
+                    }
+                    pending.add(task);
+                    submitPosition += chunkLength;
+                }
+
+                int length = Math.min(chunkSize, end - writePosition);
+                CompressedChunk chunk = pending.poll().get();
+                if (chunk != null) {
+                    recordCompression(type, length, chunk.data != null ? chunk.length : length, chunk.nanos);
+                }
+                if (chunk != null && chunk.data != null) {
+                    writeWithHeader(compressedHeader(chunk.length, length), 7, chunk.data, 0, chunk.length);
+                    compressedBuffers.offer(chunk.data);
+                } else {
+                    writeWithHeader(compressedHeader(length, 0), 7, bytes, writePosition, length);
+                }
+                if (logger.isTraceEnabled() && logQuery) {
+                    logger.trace("send packet seq:" + compressSeqNo + " length:" + length
+                            + (chunk != null ? " compressed length:" + chunk.length : "")
+                            + " data:" + Utils.hexdump(bytes, maxQuerySizeToLog, writePosition, length));
+                }
+                writePosition += length;
+            }
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during compression");
+        } catch (ExecutionException executionException) {
+            throw new IOException("Compression error : " + executionException.getCause().getMessage(), executionException.getCause());
+        } finally {
+            for (FutureTask<CompressedChunk> task : pending) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Deflate data. Deflater and compressed data array are taken from the ones previous tasks released.
+     *
+     * @param bytes  data
+     * @param offset data offset
+     * @param length data length
+     * @return compressed chunk, without data if compression doesn't reach MIN_COMPRESSION_RATIO
+     */
+    private CompressedChunk deflate(byte[] bytes, int offset, int length) {
+        long start = System.nanoTime();
+        int maxLength = (int) (MIN_COMPRESSION_RATIO * length) - 1;
+        byte[] compressed = compressedBuffers.poll();
+        if (compressed == null || compressed.length < maxLength) compressed = new byte[maxLength];
+        int compressedLength = 0;
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) deflater = new Deflater();
+        try {
+            deflater.setInput(bytes, offset, length);
+            deflater.finish();
+            while (!deflater.finished() && compressedLength < maxLength) {
+                compressedLength += deflater.deflate(compressed, compressedLength, maxLength - compressedLength);
+            }
+            if (deflater.finished()) {
+                return new CompressedChunk(compressed, compressedLength, System.nanoTime() - start);
+            }
+            compressedBuffers.offer(compressed);
+            return new CompressedChunk(null, compressedLength, System.nanoTime() - start);
+        } finally {
+            deflater.reset();
+            deflaters.offer(deflater);
+            //stream may have been closed during compression
+            if (closed) endDeflaters();
+        }
+    }
+
+    /**
+     * Release native memory of deflaters.
+     */
+    private void endDeflaters() {
+        Deflater deflater;
+        while ((deflater = deflaters.poll()) != null) {
+            deflater.end();
+        }
+        compressedBuffers.clear();
+    }
+
+    private static final class PendingSegment {
+        private final int position;
+        private final PayloadSegment segment;
+
+        private PendingSegment(int position, PayloadSegment segment) {
+            this.position = position;
+            this.segment = segment;
+        }
+    }
+
+    private static final class ByteArraySegment implements PayloadSegment {
+        private final byte[] bytes;
+
+        private ByteArraySegment(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        public long length() {
+            return bytes.length;
+        }
+
+        public void writeTo(OutputStream out) throws IOException {
+            out.write(bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * Stream that split data in packets of announced total length, adding packet headers.
+     * Small writes are grouped in a small array, big writes are sent directly to socket.
+     */
+    private final class FramedOutputStream extends OutputStream {
+        private final byte[] header = new byte[4];
+        private final byte[] scratch = new byte[8192];
+        private int scratchLength;
+        private long remaining;
+        private int packetRemaining;
+        private int packetLength;
+        private boolean headerPending;
+
+        private FramedOutputStream(long length) {
+            this.remaining = length;
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            if (scratchLength == scratch.length) flushScratch();
+            scratch[scratchLength++] = (byte) value;
+        }
+
+        @Override
+        public void write(byte[] bytes, int off, int len) throws IOException {
+            if (len <= scratch.length - scratchLength) {
+                System.arraycopy(bytes, off, scratch, scratchLength, len);
+                scratchLength += len;
+                return;
+            }
+            flushScratch();
+            if (len < scratch.length) {
+                System.arraycopy(bytes, off, scratch, 0, len);
+                scratchLength = len;
+            } else {
+                writeFramed(bytes, off, len);
+            }
+        }
+
+        private void flushScratch() throws IOException {
+            if (scratchLength > 0) {
+                writeFramed(scratch, 0, scratchLength);
+                scratchLength = 0;
+            }
+        }
+
+        private void writeFramed(byte[] bytes, int off, int len) throws IOException {
+            if (len > remaining) {
+                throw new IOException("segment data exceed announced length (" + remaining + " bytes remaining)");
+            }
+            while (len > 0) {
+                if (packetRemaining == 0) {
+                    startPacket((int) Math.min(remaining, maxPacketSize));
+                }
+                int chunkLength = Math.min(len, packetRemaining);
+                if (headerPending) {
+                    writeWithHeader(header, 4, bytes, off, chunkLength);
+                    headerPending = false;
+                } else {
+                    outputStream.write(bytes, off, chunkLength);
+                }
+                off += chunkLength;
+                len -= chunkLength;
+                packetRemaining -= chunkLength;
+                remaining -= chunkLength;
+            }
+        }
+
+        private void startPacket(int length) {
+            header[0] = (byte) (length & 0xff);
+            header[1] = (byte) (length >>> 8);
+            header[2] = (byte) (length >>> 16);
+            header[3] = (byte) seqNo++;
+            packetRemaining = length;
+            packetLength = length;
+            headerPending = true;
+        }
+
+        private void finish() throws IOException {
+            flushScratch();
+            if (remaining != 0) {
+                throw new IOException("segment data are shorter than announced length (" + remaining + " bytes missing)");
+            }
+            //last packet has maximum size : send empty packet to indicate end of data
+            if (packetLength == maxPacketSize) {
+                startPacket(0);
+                outputStream.write(header, 0, 4);
+            }
+        }
+    }
+
+    private static final class CompressedChunk {
+        private final byte[] data;
+        private final int length;
+        private final long nanos;
+
+        private CompressedChunk(byte[] data, int length, long nanos) {
+            this.data = data;
+            this.length = length;
+            this.nanos = nanos;
+        }
+    }
+
+    private byte[] compressedHeader(int packetLength, int initialLength) {
         byte[] header = new byte[7];
         header[0] = (byte) (packetLength & 0xff);
         header[1] = (byte) ((packetLength >> 8) & 0xff);
@@ -574,15 +1077,36 @@ public class PacketOutputStream extends OutputStream {
         header[4] = (byte) (initialLength & 0xff);
         header[5] = (byte) ((initialLength >> 8) & 0xff);
         header[6] = (byte) ((initialLength >> 16) & 0xff);
-        outputStream.write(header);
+        return header;
+    }
+
+    /**
+     * Write packet header and data. When connected with a SocketChannel, header and data are sent in one write.
+     *
+     * @param header       header bytes
+     * @param headerLength header length
+     * @param bytes        data
+     * @param off          data offset
+     * @param len          data length
+     * @throws IOException if any connection error occur
+     */
+    private void writeWithHeader(byte[] header, int headerLength, byte[] bytes, int off, int len) throws IOException {
+        if (outputStream instanceof ChannelOutputStream) {
+            ((ChannelOutputStream) outputStream).write(header, headerLength, bytes, off, len);
+        } else {
+            outputStream.write(header, 0, headerLength);
+            outputStream.write(bytes, off, len);
+        }
     }
 
     @Override
     public void close() throws IOException {
         outputStream.close();
+        if (buffer != null) releasePooledBuffer();
         buffer = null;
         firstBuffer = null;
         closed = true;
+        endDeflaters();
     }
 
     /**
@@ -644,6 +1168,11 @@ public class PacketOutputStream extends OutputStream {
      * @return this.
      */
     public PacketOutputStream writeByteArrayLength(final byte[] bytes) {
+        if (canWriteSegment(bytes.length)) {
+            writeFieldLength(bytes.length);
+            writeSegment(new ByteArraySegment(bytes));
+            return this;
+        }
         assureBufferCapacity(bytes.length + 9);
         writeFieldLength(bytes.length);
         buffer.put(bytes);
@@ -988,8 +1517,7 @@ public class PacketOutputStream extends OutputStream {
                     logger.trace("send packet seq:" + (seqNo - 1) + " length:" + (sqlLength + 1)
                             + " data:" + "0x" + commandType + " " + Utils.hexdump(packetBuffer, maxQuerySizeToLog, offset, sqlLength));
                 }
-                outputStream.write(packetBuffer);
-                outputStream.write(sqlBytes, offset, sqlLength);
+                writeWithHeader(packetBuffer, 5, sqlBytes, offset, sqlLength);
             } else {
                 //send first packet
                 byte[] packetBuffer = new byte[maxPacketSize + 4];
@@ -0,0 +1,274 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.stream;
+
+import org.mariadb.jdbc.internal.logging.Logger;
+import org.mariadb.jdbc.internal.logging.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking SocketChannel transport, used by ChannelInputStream and ChannelOutputStream.
+ * Channel is in non-blocking mode and waits are done with a selector, so socket timeout
+ * (Socket.setSoTimeout) applies to reads as with socket streams. Selectors are borrowed from a shared pool
+ * only while waiting, so an idle connection holds no selector.
+ *
+ * <p>Number of read and write system calls are recorded.</p>
+ */
+public class SocketChannelTransport {
+    private static Logger logger = LoggerFactory.getLogger(SocketChannelTransport.class);
+
+    private final SocketChannel channel;
+    private volatile Selector waitingSelector;
+    private volatile boolean closed;
+
+    private long readCalls;
+    private long writeCalls;
+    private long bytesRead;
+    private long bytesWritten;
+
+    /**
+     * Initialize transport on a connected channel. Channel is set to non-blocking mode.
+     *
+     * @param channel connected socket channel
+     * @throws IOException if channel mode cannot be changed
+     */
+    public SocketChannelTransport(SocketChannel channel) throws IOException {
+        this.channel = channel;
+        channel.configureBlocking(false);
+    }
+
+    /**
+     * Read available bytes into buffer, waiting for at least one byte.
+     *
+     * @param dst destination buffer
+     * @return number of bytes read, -1 if end of stream
+     * @throws IOException if socket timeout is reached or any connection error occur
+     */
+    public int read(ByteBuffer dst) throws IOException {
+        long deadline = 0;
+        while (true) {
+            int read = channel.read(dst);
+            readCalls++;
+            if (read != 0) {
+                if (read > 0) bytesRead += read;
+                return read;
+            }
+
+            int timeout = channel.socket().getSoTimeout();
+            long waitMillis = 0;
+            if (timeout > 0) {
+                long now = System.nanoTime();
+                if (deadline == 0) deadline = now + TimeUnit.MILLISECONDS.toNanos(timeout);
+                if (now >= deadline) throw new SocketTimeoutException("Read timed out");
+                waitMillis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - now));
+            }
+            await(SelectionKey.OP_READ, waitMillis);
+        }
+    }
+
+    /**
+     * Write all remaining buffer bytes.
+     *
+     * @param src source buffer
+     * @throws IOException if any connection error occur
+     */
+    public void write(ByteBuffer src) throws IOException {
+        while (src.hasRemaining()) {
+            int written = channel.write(src);
+            writeCalls++;
+            if (written == 0) {
+                await(SelectionKey.OP_WRITE, 0);
+            } else {
+                bytesWritten += written;
+            }
+        }
+    }
+
+    /**
+     * Write all remaining bytes of buffers, using gathering writes.
+     *
+     * @param srcs source buffers
+     * @throws IOException if any connection error occur
+     */
+    public void write(ByteBuffer[] srcs) throws IOException {
+        long remaining = 0;
+        for (ByteBuffer src : srcs) {
+            remaining += src.remaining();
+        }
+        while (remaining > 0) {
+            long written = channel.write(srcs);
+            writeCalls++;
+            if (written == 0) {
+                await(SelectionKey.OP_WRITE, 0);
+            } else {
+                bytesWritten += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    /**
+     * Read and discard data until end of stream or socket timeout.
+     *
+     * @throws IOException if socket timeout is reached or any connection error occur
+     */
+    public void drain() throws IOException {
+        ByteBuffer discard = ByteBuffer.allocate(1024);
+        while (read(discard) != -1) {
+            discard.clear();
+        }
+    }
+
+    /**
+     * Send file content directly from file to socket (zero-copy when supported by the OS).
+     *
+     * @param file     file channel
+     * @param position file position
+     * @param count    number of bytes to send
+     * @throws IOException if file end is reached before count bytes, or if any connection error occur
+     */
+    public void transferFrom(FileChannel file, long position, long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long transferred = file.transferTo(position, remaining, channel);
+            writeCalls++;
+            if (transferred == 0) {
+                if (position >= file.size()) {
+                    throw new EOFException("unexpected end of file, " + remaining + " bytes missing");
+                }
+                await(SelectionKey.OP_WRITE, 0);
+            } else {
+                position += transferred;
+                remaining -= transferred;
+                bytesWritten += transferred;
+            }
+        }
+    }
+
+    /**
+     * Wait for channel readiness with a pooled selector. Key is cancelled and flushed before giving back selector.
+     *
+     * @param operation selection operation
+     * @param timeout   timeout in milliseconds, 0 for no timeout
+     * @throws IOException if connection is closed
+     */
+    private void await(int operation, long timeout) throws IOException {
+        if (closed) throw new EOFException("Connection closed");
+        Selector selector = SelectorPool.acquire();
+        waitingSelector = selector;
+        try {
+            SelectionKey key = channel.register(selector, operation);
+            try {
+                if (!closed) selector.select(timeout);
+            } finally {
+                key.cancel();
+                selector.selectNow();
+            }
+        } catch (ClosedChannelException closedException) {
+            throw new EOFException("Connection closed");
+        } finally {
+            waitingSelector = null;
+            SelectorPool.release(selector);
+        }
+        if (closed) throw new EOFException("Connection closed");
+    }
+
+    /**
+     * Close channel, waking up any thread waiting for data.
+     *
+     * @throws IOException if any error occur closing channel
+     */
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        if (logger.isDebugEnabled()) {
+            logger.debug("channel closed : " + readCalls + " reads (" + bytesRead + " bytes), "
+                    + writeCalls + " writes (" + bytesWritten + " bytes)");
+        }
+        Selector selector = waitingSelector;
+        if (selector != null) selector.wakeup();
+        channel.close();
+    }
+
+    public SocketChannel getChannel() {
+        return channel;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public long getReadCalls() {
+        return readCalls;
+    }
+
+    public long getWriteCalls() {
+        return writeCalls;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+}
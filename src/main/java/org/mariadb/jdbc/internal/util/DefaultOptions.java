@@ -420,7 +420,91 @@ public enum DefaultOptions {
      * Indicate password encoding charset. If not set, driver use platform's default charset.
      * default to null.
      */
-    PASSWORD_CHARACTER_ENCODING("passwordCharacterEncoding", "1.5.9");
+    PASSWORD_CHARACTER_ENCODING("passwordCharacterEncoding", "1.5.9"),
+
+    /**
+     * Rows are stored in the raw packet format, column boundaries are only computed when a row is accessed,
+     * and column values are only decoded when requested. Permit to avoid useless work when only a few columns are read.
+     * default to true.
+     */
+    LAZY_COLUMN_DECODING("lazyColumnDecoding", Boolean.TRUE, "1.6.0"),
+
+    /**
+     * When streaming a resultSet (fetch size set), next rows are read by a background thread while current rows
+     * are processed. Reading is done under the connection lock, at most fetch size rows or prefetchBufferSize bytes at a time.
+     * default to false.
+     */
+    PREFETCH_STREAMING_RESULT("prefetchStreamingResult", Boolean.FALSE, "1.6.0"),
+
+    /**
+     * When using prefetchStreamingResult, maximum row data size in bytes read in background at a time.
+     * default to 16M.
+     */
+    PREFETCH_BUFFER_SIZE("prefetchBufferSize", new Integer(16777216), new Integer(0), Integer.MAX_VALUE, "1.6.0"),
+
+    /**
+     * When a resultSet is fully read (not streaming, or scrollable streaming), maximum row data size (in bytes) kept
+     * on heap. Above this size, row data is written to a memory-mapped temporary file. 0 means no limit.
+     */
+    RESULTSET_MEMORY_BUDGET("resultSetMemoryBudget", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.6.0"),
+
+    /**
+     * When a streaming resultSet is closed before all rows are read, remaining rows are skipped. If more than this
+     * number of bytes have been skipped, query is killed (KILL QUERY) to end the result early. 0 means never.
+     */
+    STREAMING_CLOSE_KILL_BYTES("streamingCloseKillBytes", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.6.0"),
+
+    /**
+     * When a streaming resultSet is closed before all rows are read, remaining rows are skipped. If skipping
+     * takes more than this number of milliseconds, query is killed (KILL QUERY) to end the result early. 0 means never.
+     */
+    STREAMING_CLOSE_KILL_TIMEOUT("streamingCloseKillTimeout", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.6.0"),
+
+    /**
+     * Decode string columns values using a small per-column dictionary, returning the same String instance for
+     * identical values. Automatically disabled for a column when hit rate is low.
+     */
+    STRING_DICTIONARY_DECODING("stringDictionaryDecoding", Boolean.FALSE, "1.6.0"),
+
+    /**
+     * When streaming (fetch size > 0), adapt each batch size to observed average row size, to target
+     * adaptiveFetchTargetBytes bytes by batch, limited to rows application processes in one second.
+     */
+    ADAPTIVE_FETCH_SIZE("adaptiveFetchSize", Boolean.FALSE, "1.6.0"),
+
+    /**
+     * Target row data size of a streaming batch when adaptiveFetchSize is enabled.
+     */
+    ADAPTIVE_FETCH_TARGET_BYTES("adaptiveFetchTargetBytes", new Integer(1048576), new Integer(1), Integer.MAX_VALUE, "1.6.0"),
+
+    /**
+     * Use a non-blocking SocketChannel with direct buffers instead of socket streams.
+     * Only for TCP connections without SSL and without socketFactory.
+     */
+    USE_SOCKET_CHANNEL("useSocketChannel", Boolean.FALSE, "1.6.0"),
+
+    /**
+     * Use a JVM-wide pool of byte arrays for big packet read and write buffers.
+     */
+    USE_BUFFER_POOL("useBufferPool", Boolean.FALSE, "1.6.0"),
+
+    /**
+     * Maximum total size of arrays kept by the buffer pool.
+     * JVM-wide : value of the first connection using the pool is used.
+     */
+    BUFFER_POOL_MAX_RETAINED_BYTES("bufferPoolMaxRetainedBytes", new Integer(67108864), new Integer(0), Integer.MAX_VALUE, "1.6.0"),
+
+    /**
+     * When useCompression is set, maximum number of 1M chunks of big payloads compressed in parallel.
+     * 0 or 1 : compression is done by the connection thread.
+     */
+    COMPRESSION_THREADS("compressionThreads", new Integer(0), new Integer(0), Integer.MAX_VALUE, "1.6.0"),
+
+    /**
+     * When useCompression is set, skip compression of payload types (query, binary parameters, file)
+     * that recently didn't compress well, probing again periodically.
+     */
+    ADAPTIVE_COMPRESSION("adaptiveCompression", Boolean.FALSE, "1.6.0");
 
     protected final String name;
     protected final Object objType;
@@ -108,6 +108,20 @@ public class Options {
     public String connectionAttributes;
     public boolean useBatchMultiSend;
     public int useBatchMultiSendNumber;
+    public boolean lazyColumnDecoding;
+    public boolean prefetchStreamingResult;
+    public int prefetchBufferSize;
+    public int resultSetMemoryBudget;
+    public int streamingCloseKillBytes;
+    public int streamingCloseKillTimeout;
+    public boolean stringDictionaryDecoding;
+    public boolean adaptiveFetchSize;
+    public int adaptiveFetchTargetBytes;
+    public boolean useSocketChannel;
+    public boolean useBufferPool;
+    public int bufferPoolMaxRetainedBytes;
+    public int compressionThreads;
+    public boolean adaptiveCompression;
 
     //logging options
     public boolean log;
@@ -186,6 +200,20 @@ public class Options {
                 + ", maxQuerySizeToLog=" + maxQuerySizeToLog
                 + ", slowQueryThresholdNanos=" + slowQueryThresholdNanos
                 + ", passwordCharacterEncoding=" + passwordCharacterEncoding
+                + ", lazyColumnDecoding=" + lazyColumnDecoding
+                + ", prefetchStreamingResult=" + prefetchStreamingResult
+                + ", prefetchBufferSize=" + prefetchBufferSize
+                + ", resultSetMemoryBudget=" + resultSetMemoryBudget
+                + ", streamingCloseKillBytes=" + streamingCloseKillBytes
+                + ", streamingCloseKillTimeout=" + streamingCloseKillTimeout
+                + ", stringDictionaryDecoding=" + stringDictionaryDecoding
+                + ", adaptiveFetchSize=" + adaptiveFetchSize
+                + ", adaptiveFetchTargetBytes=" + adaptiveFetchTargetBytes
+                + ", useSocketChannel=" + useSocketChannel
+                + ", useBufferPool=" + useBufferPool
+                + ", bufferPoolMaxRetainedBytes=" + bufferPoolMaxRetainedBytes
+                + ", compressionThreads=" + compressionThreads
+                + ", adaptiveCompression=" + adaptiveCompression
                 + "}";
     }
 
@@ -275,6 +303,20 @@ public class Options {
         }
         if (useBatchMultiSend != options.useBatchMultiSend) return false;
         if (useBatchMultiSendNumber != options.useBatchMultiSendNumber) return false;
+        if (lazyColumnDecoding != options.lazyColumnDecoding) return false;
+        if (prefetchStreamingResult != options.prefetchStreamingResult) return false;
+        if (prefetchBufferSize != options.prefetchBufferSize) return false;
+        if (resultSetMemoryBudget != options.resultSetMemoryBudget) return false;
+        if (streamingCloseKillBytes != options.streamingCloseKillBytes) return false;
+        if (streamingCloseKillTimeout != options.streamingCloseKillTimeout) return false;
+        if (stringDictionaryDecoding != options.stringDictionaryDecoding) return false;
+        if (adaptiveFetchSize != options.adaptiveFetchSize) return false;
+        if (adaptiveFetchTargetBytes != options.adaptiveFetchTargetBytes) return false;
+        if (useSocketChannel != options.useSocketChannel) return false;
+        if (useBufferPool != options.useBufferPool) return false;
+        if (bufferPoolMaxRetainedBytes != options.bufferPoolMaxRetainedBytes) return false;
+        if (compressionThreads != options.compressionThreads) return false;
+        if (adaptiveCompression != options.adaptiveCompression) return false;
 
         return !(prepStmtCacheSqlLimit != null ? !prepStmtCacheSqlLimit.equals(options.prepStmtCacheSqlLimit)
                 : options.prepStmtCacheSqlLimit != null);
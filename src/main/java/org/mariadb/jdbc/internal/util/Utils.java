@@ -68,6 +68,7 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.lang.reflect.Proxy;
 import java.net.Socket;
+import java.nio.channels.SocketChannel;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.sql.SQLException;
@@ -533,6 +534,9 @@ public class Utils {
             } catch (RuntimeException re) {
                 throw new IOException(re.getMessage(), re.getCause());
             }
+        } else if (urlParser.getOptions().useSocketChannel && urlParser.getOptions().socketFactory == null
+                && !urlParser.getOptions().useSsl) {
+            return SocketChannel.open().socket();
         } else {
             SocketFactory socketFactory;
             String socketFactoryName = urlParser.getOptions().socketFactory;
@@ -0,0 +1,180 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.buffer;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JVM-wide pool of byte arrays, shared by connections read and write buffers.
+ * Arrays are grouped by power of two size classes, from 8k to 16M. Bigger arrays are never pooled.
+ * Total size of retained arrays is limited : an array released when the limit is reached is left to the garbage collector.
+ */
+public class BufferPool {
+    private static final int MIN_CLASS_SHIFT = 13;
+    private static final int MAX_CLASS_SHIFT = 24;
+    private static volatile BufferPool instance = null;
+
+    private final ConcurrentLinkedDeque<byte[]>[] sizeClasses;
+    private final long maxRetainedBytes;
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong drops = new AtomicLong();
+
+    /**
+     * Create pool.
+     *
+     * @param maxRetainedBytes maximum total size of retained arrays
+     */
+    public BufferPool(long maxRetainedBytes) {
+        this.maxRetainedBytes = maxRetainedBytes;
+        @SuppressWarnings("unchecked")
+        ConcurrentLinkedDeque<byte[]>[] classes =
+                (ConcurrentLinkedDeque<byte[]>[]) new ConcurrentLinkedDeque<?>[MAX_CLASS_SHIFT - MIN_CLASS_SHIFT + 1];
+        sizeClasses = classes;
+        for (int i = 0; i < sizeClasses.length; i++) {
+            sizeClasses[i] = new ConcurrentLinkedDeque<byte[]>();
+        }
+    }
+
+    /**
+     * Get JVM-wide pool, created on first call.
+     *
+     * @param maxRetainedBytes maximum total size of retained arrays, used if pool doesn't exist yet
+     * @return shared pool
+     */
+    public static BufferPool getInstance(long maxRetainedBytes) {
+        if (instance == null) {
+            synchronized (BufferPool.class) {
+                if (instance == null) {
+                    instance = new BufferPool(maxRetainedBytes);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Get JVM-wide pool.
+     *
+     * @return shared pool, or null if no connection has enabled option useBufferPool
+     */
+    public static BufferPool getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get an array of at least length bytes. Pooled arrays length is the size class length.
+     *
+     * @param length minimum array length
+     * @return array
+     */
+    public byte[] acquire(int length) {
+        if (length > 1 << MAX_CLASS_SHIFT) {
+            misses.incrementAndGet();
+            return new byte[length];
+        }
+        int sizeClass = Math.max(0, 32 - Integer.numberOfLeadingZeros(length - 1) - MIN_CLASS_SHIFT);
+        byte[] array = sizeClasses[sizeClass].pollFirst();
+        if (array != null) {
+            retainedBytes.addAndGet(-array.length);
+            hits.incrementAndGet();
+            return array;
+        }
+        misses.incrementAndGet();
+        return new byte[1 << (sizeClass + MIN_CLASS_SHIFT)];
+    }
+
+    /**
+     * Give back an array to the pool. Caller must not use the array afterward.
+     * Arrays whose length is not a size class length are ignored.
+     *
+     * @param array array to release (can be null)
+     */
+    public void release(byte[] array) {
+        if (array == null) return;
+        int length = array.length;
+        if (length < 1 << MIN_CLASS_SHIFT || length > 1 << MAX_CLASS_SHIFT || Integer.bitCount(length) != 1) return;
+        if (retainedBytes.addAndGet(length) > maxRetainedBytes) {
+            retainedBytes.addAndGet(-length);
+            drops.incrementAndGet();
+            return;
+        }
+        sizeClasses[Integer.numberOfTrailingZeros(length) - MIN_CLASS_SHIFT].offerFirst(array);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getDrops() {
+        return drops.get();
+    }
+
+    public long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+
+    public long getMaxRetainedBytes() {
+        return maxRetainedBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferPool{hits=" + hits + ", misses=" + misses + ", drops=" + drops
+                + ", retainedBytes=" + retainedBytes + ", maxRetainedBytes=" + maxRetainedBytes + "}";
+    }
+}
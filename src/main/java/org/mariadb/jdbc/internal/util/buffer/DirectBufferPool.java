@@ -0,0 +1,151 @@
+/*
+MariaDB Client for Java
+
+Copyright (c) 2012-2014 Monty Program Ab.
+Copyright (c) 2015-2016 MariaDB Ab.
+
+This library is free software; you can redistribute it and/or modify it under
+the terms of the GNU Lesser General Public License as published by the Free
+Software Foundation; either version 2.1 of the License, or (at your option)
+any later version.
+
+This library is distributed in the hope that it will be useful, but
+WITHOUT ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+FITNESS FOR A PARTICULAR PURPOSE.  See the GNU Lesser General Public License
+for more details.
+
+You should have received a copy of the GNU Lesser General Public License along
+with this library; if not, write to Monty Program Ab info@montyprogram.com.
+
+This particular MariaDB Client for Java file is work
+derived from a Drizzle-JDBC. Drizzle-JDBC file which is covered by subject to
+the following copyright and notice provisions:
+
+Copyright (c) 2009-2011, Marcus Eriksson
+
+Redistribution and use in source and binary forms, with or without modification,
+are permitted provided that the following conditions are met:
+Redistributions of source code must retain the above copyright notice, this list
+of conditions and the following disclaimer.
+
+Redistributions in binary form must reproduce the above copyright notice, this
+list of conditions and the following disclaimer in the documentation and/or
+other materials provided with the distribution.
+
+Neither the name of the driver nor the names of its contributors may not be
+used to endorse or promote products derived from this software without specific
+prior written permission.
+
+THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS  AND CONTRIBUTORS "AS IS"
+AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED.
+IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT,
+INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT
+NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR
+PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE)
+ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY
+OF SUCH DAMAGE.
+*/
+
+package org.mariadb.jdbc.internal.util.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JVM-wide pool of direct buffers, used by SocketChannel connections read and write buffers.
+ * Direct buffers are costly to allocate and only freed by garbage collection, so buffers of closed connections
+ * are kept for new connections. Buffers are grouped by capacity.
+ * Total capacity of retained buffers is limited : a buffer released when the limit is reached is left to the garbage collector.
+ */
+public class DirectBufferPool {
+    private static final long MAX_RETAINED_BYTES = 32 * 1024 * 1024;
+    private static final DirectBufferPool instance = new DirectBufferPool(MAX_RETAINED_BYTES);
+
+    private final ConcurrentMap<Integer, ConcurrentLinkedDeque<ByteBuffer>> capacities = new ConcurrentHashMap<>();
+    private final long maxRetainedBytes;
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong drops = new AtomicLong();
+
+    /**
+     * Create pool.
+     *
+     * @param maxRetainedBytes maximum total capacity of retained buffers
+     */
+    public DirectBufferPool(long maxRetainedBytes) {
+        this.maxRetainedBytes = maxRetainedBytes;
+    }
+
+    public static DirectBufferPool getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get a cleared direct buffer of exactly capacity bytes.
+     *
+     * @param capacity buffer capacity
+     * @return direct buffer
+     */
+    public ByteBuffer acquire(int capacity) {
+        ConcurrentLinkedDeque<ByteBuffer> buffers = capacities.get(capacity);
+        ByteBuffer buffer = (buffers != null) ? buffers.pollFirst() : null;
+        if (buffer != null) {
+            retainedBytes.addAndGet(-capacity);
+            hits.incrementAndGet();
+            buffer.clear();
+            return buffer;
+        }
+        misses.incrementAndGet();
+        return ByteBuffer.allocateDirect(capacity);
+    }
+
+    /**
+     * Give back a buffer to the pool. Caller must not use the buffer afterward.
+     *
+     * @param buffer direct buffer to release (can be null)
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect()) return;
+        int capacity = buffer.capacity();
+        if (retainedBytes.addAndGet(capacity) > maxRetainedBytes) {
+            retainedBytes.addAndGet(-capacity);
+            drops.incrementAndGet();
+            return;
+        }
+        ConcurrentLinkedDeque<ByteBuffer> buffers = capacities.get(capacity);
+        if (buffers == null) {
+            ConcurrentLinkedDeque<ByteBuffer> newBuffers = new ConcurrentLinkedDeque<>();
+            buffers = capacities.putIfAbsent(capacity, newBuffers);
+            if (buffers == null) buffers = newBuffers;
+        }
+        buffers.offerFirst(buffer);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getDrops() {
+        return drops.get();
+    }
+
+    public long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+
+    @Override
+    public String toString() {
+        return "DirectBufferPool{hits=" + hits + ", misses=" + misses + ", drops=" + drops
+                + ", retainedBytes=" + retainedBytes + ", maxRetainedBytes=" + maxRetainedBytes + "}";
+    }
+}
@@ -52,6 +52,7 @@ package org.mariadb.jdbc.internal.util.dao;
 import org.mariadb.jdbc.internal.MariaDbType;
 import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
 import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.queryresults.ColumnNameMap;
 
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -62,6 +63,7 @@ public class ServerPrepareResult implements PrepareResult {
     private MariaDbType[] parameterTypeHeader;
     private Protocol unProxiedProtocol;
     private String sql;
+    private volatile ColumnNameMap columnNameMap;
 
 
     //share indicator
@@ -164,6 +166,22 @@ public class ServerPrepareResult implements PrepareResult {
         return columns;
     }
 
+    /**
+     * Get column name index for a resultSet of this statement.
+     * Index is kept and shared between executions, as long as column definitions stay identical.
+     *
+     * @param resultColumns resultSet columns information
+     * @return column name index
+     */
+    public ColumnNameMap getColumnNameMap(ColumnInformation[] resultColumns) {
+        ColumnNameMap map = columnNameMap;
+        if (map == null || !map.isDefinedBy(resultColumns)) {
+            map = ColumnNameMap.forColumns(resultColumns);
+            columnNameMap = map;
+        }
+        return map;
+    }
+
     public ColumnInformation[] getParameters() {
         return parameters;
     }
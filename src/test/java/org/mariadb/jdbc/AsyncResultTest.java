@@ -0,0 +1,117 @@
+package org.mariadb.jdbc;
+
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class AsyncResultTest {
+
+    private static final Executor DIRECT = new Executor() {
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private static <T> AsyncCallback<T> callback(final AtomicReference<Object> received) {
+        return new AsyncCallback<T>() {
+            @Override
+            public void onSuccess(T value) {
+                received.set(value);
+            }
+
+            @Override
+            public void onFailure(SQLException sqlException) {
+                received.set(sqlException);
+            }
+        };
+    }
+
+    @Test
+    public void completeNotifiesCallbacks() throws Exception {
+        AsyncResult<Long> result = new AsyncResult<>(DIRECT);
+        AtomicReference<Object> before = new AtomicReference<>();
+        result.addCallback(AsyncResultTest.<Long>callback(before));
+        assertFalse(result.isDone());
+        assertNull(before.get());
+
+        result.complete(5L);
+        assertTrue(result.isDone());
+        assertEquals(5L, before.get());
+        assertEquals(Long.valueOf(5), result.get());
+
+        //callback added after completion is notified immediately
+        AtomicReference<Object> after = new AtomicReference<>();
+        result.addCallback(AsyncResultTest.<Long>callback(after));
+        assertEquals(5L, after.get());
+    }
+
+    @Test
+    public void failThrowsExecutionException() throws Exception {
+        AsyncResult<Long> result = new AsyncResult<>(DIRECT);
+        AtomicReference<Object> received = new AtomicReference<>();
+        result.addCallback(AsyncResultTest.<Long>callback(received));
+        SQLException sqlException = new SQLException("test");
+        result.fail(sqlException);
+        assertSame(sqlException, received.get());
+        try {
+            result.get();
+            fail("must have thrown exception");
+        } catch (ExecutionException executionException) {
+            assertSame(sqlException, executionException.getCause());
+        }
+    }
+
+    @Test
+    public void getTimeout() throws Exception {
+        final AsyncResult<String> result = new AsyncResult<>();
+        try {
+            result.get(10, TimeUnit.MILLISECONDS);
+            fail("must have thrown exception");
+        } catch (TimeoutException timeoutException) {
+            //normal exception
+        }
+        assertFalse(result.cancel(true));
+
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                result.complete("value");
+            }
+        });
+        thread.start();
+        assertEquals("value", result.get(10, TimeUnit.SECONDS));
+        thread.join();
+    }
+
+    @Test
+    public void callbacksNotRunByCompletingThread() throws Exception {
+        AsyncResult<String> result = new AsyncResult<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Thread> callbackThread = new AtomicReference<>();
+        result.addCallback(new AsyncCallback<String>() {
+            @Override
+            public void onSuccess(String value) {
+                callbackThread.set(Thread.currentThread());
+                latch.countDown();
+            }
+
+            @Override
+            public void onFailure(SQLException sqlException) {
+                latch.countDown();
+            }
+        });
+        result.complete("value");
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertNotNull(callbackThread.get());
+        assertNotSame(Thread.currentThread(), callbackThread.get());
+    }
+}
@@ -0,0 +1,94 @@
+package org.mariadb.jdbc;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class AsyncStatementTest extends BaseTest {
+
+    /**
+     * Initialisation.
+     * @throws SQLException exception
+     */
+    @BeforeClass()
+    public static void initClass() throws SQLException {
+        createTable("asyncStatement", "id int not null primary key auto_increment, test varchar(20)");
+    }
+
+    @Test
+    public void asyncQuery() throws Exception {
+        asyncQuery("");
+        asyncQuery("&useSocketChannel=true");
+    }
+
+    private void asyncQuery(String parameters) throws Exception {
+        try (Connection connection = setConnection(parameters)) {
+            assertTrue(connection.isWrapperFor(AsyncStatement.class));
+            AsyncStatement asyncStatement = connection.unwrap(AsyncStatement.class);
+
+            AsyncResult<Long> update = asyncStatement.executeUpdateAsync("INSERT INTO asyncStatement(test) VALUES ('a'), ('b')");
+            assertEquals(Long.valueOf(2), update.get(10, TimeUnit.SECONDS));
+
+            final CountDownLatch latch = new CountDownLatch(1);
+            final AtomicReference<Object> received = new AtomicReference<>();
+            AsyncResult<ResultSet> query = asyncStatement.executeQueryAsync("SELECT SLEEP(0.1), COUNT(*) FROM asyncStatement");
+            query.addCallback(new AsyncCallback<ResultSet>() {
+                @Override
+                public void onSuccess(ResultSet resultSet) {
+                    received.set(resultSet);
+                    latch.countDown();
+                }
+
+                @Override
+                public void onFailure(SQLException sqlException) {
+                    received.set(sqlException);
+                    latch.countDown();
+                }
+            });
+
+            //synchronous command wait for asynchronous result
+            Statement stmt = connection.createStatement();
+            ResultSet rs = stmt.executeQuery("SELECT 2");
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt(1));
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            ResultSet asyncRs = query.get();
+            assertSame(asyncRs, received.get());
+            assertTrue(asyncRs.next());
+            assertTrue(asyncRs.getInt(2) >= 2);
+            asyncRs.close();
+            assertTrue(asyncRs.getStatement().isClosed());
+            stmt.execute("DELETE FROM asyncStatement");
+        }
+    }
+
+    @Test
+    public void asyncQueryError() throws Exception {
+        try (Connection connection = setConnection("&useSocketChannel=true")) {
+            Statement stmt = connection.createStatement();
+            AsyncResult<ResultSet> query = stmt.unwrap(AsyncStatement.class).executeQueryAsync("SELECT * FROM wrongTableAsync");
+            try {
+                query.get(10, TimeUnit.SECONDS);
+                fail("must have thrown exception");
+            } catch (ExecutionException executionException) {
+                SQLException sqlException = (SQLException) executionException.getCause();
+                assertTrue(sqlException.getMessage().contains("wrongTableAsync"));
+            }
+
+            //connection still usable
+            ResultSet rs = stmt.executeQuery("SELECT 1");
+            assertTrue(rs.next());
+        }
+    }
+}
@@ -4,6 +4,7 @@ package org.mariadb.jdbc;
 import org.junit.Assume;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mariadb.jdbc.internal.util.buffer.BufferPool;
 
 import java.io.*;
 import java.sql.*;
@@ -24,6 +25,7 @@ public class BigQueryTest extends BaseTest {
         createTable("bigblob2", "id int not null primary key auto_increment, test longblob, test2 longblob");
         createTable("bigblob3", "id int not null primary key auto_increment, test longblob, test2 longblob, test3 varchar(20)");
         createTable("bigblob4", "test longblob");
+        createTable("bigblob5", "id int not null primary key auto_increment, test longblob");
     }
 
     @Test
@@ -241,4 +243,36 @@ public class BigQueryTest extends BaseTest {
 
         assertFalse(rs.next());
     }
+
+    @Test
+    public void bufferPoolQuery() throws SQLException {
+        Connection connection = null;
+        try {
+            connection = setConnection("&useBufferPool=true");
+            byte[] arr = new byte[200000];
+            Arrays.fill(arr, (byte) 'a');
+            PreparedStatement ps = connection.prepareStatement("insert into bigblob5 values(null, ?)");
+            for (int i = 0; i < 10; i++) {
+                ps.setBytes(1, arr);
+                ps.executeUpdate();
+            }
+
+            BufferPool bufferPool = BufferPool.getInstance();
+            assertNotNull(bufferPool);
+            assertTrue(bufferPool.getHits() + bufferPool.getMisses() > 0);
+
+            ResultSet rs = connection.createStatement().executeQuery("select test from bigblob5");
+            int rows = 0;
+            while (rs.next()) {
+                assertArrayEquals(arr, rs.getBytes(1));
+                rows++;
+            }
+            assertEquals(10, rows);
+            connection.close();
+            //query buffer is given back to pool
+            assertTrue(bufferPool.getRetainedBytes() > 0);
+        } finally {
+            if (connection != null) connection.close();
+        }
+    }
 }
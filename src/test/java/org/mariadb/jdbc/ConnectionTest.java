@@ -4,6 +4,8 @@ import org.junit.Assert;
 import org.junit.Assume;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.stream.SocketChannelTransport;
 
 import java.io.UnsupportedEncodingException;
 import java.sql.*;
@@ -334,4 +336,67 @@ public class ConnectionTest extends BaseTest {
             assertEquals(1, failedProperties.size());
         }
     }
+
+    @Test
+    public void socketChannelTransport() throws Throwable {
+        Assume.assumeTrue(testSingleHost);
+        for (String parameters : new String[] {"&useSocketChannel=true", "&useSocketChannel=true&useCompression=true"}) {
+            Connection connection = null;
+            try {
+                connection = setConnection(parameters);
+                Protocol protocol = getProtocolFromConnection(connection);
+                Assume.assumeFalse(protocol.getOptions().useSsl || protocol.getOptions().localSocket != null
+                        || protocol.getOptions().pipe != null || protocol.getOptions().sharedMemory != null);
+                SocketChannelTransport transport = protocol.getChannelTransport();
+                assertNotNull(transport);
+
+                Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT REPEAT('a', 100000), 1");
+                assertTrue(rs.next());
+                assertEquals(100000, rs.getString(1).length());
+                assertEquals(1, rs.getInt(2));
+                assertTrue(transport.getBytesRead() > 0);
+                assertTrue(transport.getBytesWritten() > 0);
+            } finally {
+                if (connection != null) connection.close();
+            }
+        }
+    }
+
+    @Test
+    public void sessionInitialization() throws Throwable {
+        try (Connection connection = setConnection("&jdbcCompliantTruncation=true&sessionVariables=time_zone='+01:00'")) {
+            Protocol protocol = getProtocolFromConnection(connection);
+            //server data are read after session variables
+            assertEquals("+01:00", protocol.getServerData("time_zone"));
+            assertNotNull(protocol.getServerData("max_allowed_packet"));
+
+            Statement stmt = connection.createStatement();
+            ResultSet rs = stmt.executeQuery("SELECT @@sql_mode, @@autocommit");
+            assertTrue(rs.next());
+            String sqlMode = rs.getString(1);
+            assertTrue(sqlMode.contains("STRICT_TRANS_TABLES"));
+            assertEquals(sqlMode.indexOf("STRICT_TRANS_TABLES"), sqlMode.lastIndexOf("STRICT_TRANS_TABLES"));
+            assertEquals(sqlMode, protocol.getServerData("sql_mode"));
+            assertEquals(1, rs.getInt(2));
+        }
+
+        //session variable error is reported
+        try (Connection connection = setConnection("&sessionVariables=wrong_variable_name=1")) {
+            fail("must have thrown exception");
+        } catch (SQLException sqle) {
+            assertTrue(sqle.getMessage().contains("wrong_variable_name"));
+        }
+
+        //database is not created when session initialization fails
+        sharedConnection.createStatement().execute("DROP DATABASE IF EXISTS test_session_failure");
+        try (Connection connection = setConnection("&createDatabaseIfNotExist=true&sessionVariables=wrong_variable_name=1",
+                "test_session_failure")) {
+            fail("must have thrown exception");
+        } catch (SQLException sqle) {
+            assertTrue(sqle.getMessage().contains("wrong_variable_name"));
+        }
+        ResultSet rs = sharedConnection.createStatement().executeQuery("SHOW DATABASES LIKE 'test_session_failure'");
+        assertFalse(rs.next());
+    }
 }
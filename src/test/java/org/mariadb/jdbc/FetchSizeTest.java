@@ -4,7 +4,11 @@ import static org.junit.Assert.*;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.mariadb.jdbc.internal.protocol.Protocol;
+import org.mariadb.jdbc.internal.queryresults.resultset.AdaptiveFetchSize;
+import org.mariadb.jdbc.internal.queryresults.resultset.MariaSelectResultSet;
 
+import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -22,6 +26,9 @@ public class FetchSizeTest extends BaseTest {
         createTable("fetchSizeTest3", "id int, test varchar(100)");
         createTable("fetchSizeTest4", "id int, test varchar(100)");
         createTable("fetchSizeTest5", "id int, test varchar(100)");
+        createTable("fetchSizeTest6", "id int, test varchar(100)");
+        createTable("fetchSizeTest7", "id int, test varchar(100)");
+        createTable("fetchSizeTest8", "id int, test varchar(100)");
     }
 
     @Test
@@ -135,6 +142,50 @@ public class FetchSizeTest extends BaseTest {
         assertEquals("299", resultSet.getString(1));
     }
 
+    @Test
+    public void prefetchStreamingTest() throws SQLException {
+        prepareRecords(1000, "fetchSizeTest6");
+        Connection connection = null;
+        try {
+            connection = setConnection("&prefetchStreamingResult=true&prefetchBufferSize=1024");
+            Statement stmt = connection.createStatement();
+            stmt.setFetchSize(7);
+            ResultSet resultSet = stmt.executeQuery("SELECT test FROM fetchSizeTest6");
+            for (int counter = 0; counter < 1000; counter++) {
+                assertTrue(resultSet.next());
+                assertEquals("" + counter, resultSet.getString(1));
+            }
+            assertFalse(resultSet.next());
+            assertTrue(resultSet.isAfterLast());
+
+            //executing another query must load remaining rows, including prefetched ones
+            resultSet = stmt.executeQuery("SELECT test FROM fetchSizeTest6");
+            for (int counter = 0; counter < 100; counter++) {
+                assertTrue(resultSet.next());
+                assertEquals("" + counter, resultSet.getString(1));
+            }
+            Statement stmt2 = connection.createStatement();
+            ResultSet rs2 = stmt2.executeQuery("SELECT 1");
+            assertTrue(rs2.next());
+            for (int counter = 100; counter < 1000; counter++) {
+                assertTrue(resultSet.next());
+                assertEquals("" + counter, resultSet.getString(1));
+            }
+            assertFalse(resultSet.next());
+
+            //closing while prefetching must leave connection usable
+            resultSet = stmt.executeQuery("SELECT test FROM fetchSizeTest6");
+            assertTrue(resultSet.next());
+            assertFalse(resultSet.isLast());
+            resultSet.close();
+            rs2 = stmt2.executeQuery("SELECT 2");
+            assertTrue(rs2.next());
+            assertEquals(2, rs2.getInt(1));
+        } finally {
+            if (connection != null) connection.close();
+        }
+    }
+
     private void prepareRecords(int recordNumber, String tableName) throws SQLException {
         PreparedStatement pstmt = sharedConnection.prepareStatement("INSERT INTO " + tableName + " (test) values (?)");
         for (int i = 0; i < recordNumber; i++) {
@@ -145,4 +196,60 @@ public class FetchSizeTest extends BaseTest {
     }
 
 
+
+    @Test
+    public void closeStreamingSkipTest() throws Throwable {
+        Connection connection = null;
+        try {
+            connection = setConnection("&streamingCloseKillBytes=65536");
+            Protocol protocol = getProtocolFromConnection(connection);
+            Statement stmt = connection.createStatement();
+
+            //small result : remaining rows are skipped
+            prepareRecords(100, "fetchSizeTest7");
+            stmt.setFetchSize(5);
+            ResultSet resultSet = stmt.executeQuery("SELECT test FROM fetchSizeTest7");
+            assertTrue(resultSet.next());
+            resultSet.close();
+            assertTrue(protocol.getSkippedStreamingBytes() > 0);
+            assertEquals(0, protocol.getKilledStreamingQueries());
+
+            //huge result : query is killed after 64k, and connection is still usable
+            resultSet = stmt.executeQuery("SELECT REPEAT('a', 1000) FROM fetchSizeTest7 a, fetchSizeTest7 b, fetchSizeTest7 c");
+            assertTrue(resultSet.next());
+            resultSet.close();
+            assertEquals(1, protocol.getKilledStreamingQueries());
+
+            ResultSet rs = connection.createStatement().executeQuery("SELECT 2");
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt(1));
+        } finally {
+            if (connection != null) connection.close();
+        }
+    }
+
+    @Test
+    public void adaptiveFetchSizeTest() throws Throwable {
+        Connection connection = null;
+        try {
+            connection = setConnection("&adaptiveFetchSize=true&adaptiveFetchTargetBytes=2000");
+            prepareRecords(500, "fetchSizeTest8");
+            Statement stmt = connection.createStatement();
+            stmt.setFetchSize(10);
+            ResultSet resultSet = stmt.executeQuery("SELECT test FROM fetchSizeTest8");
+            AdaptiveFetchSize adaptive = resultSet.unwrap(MariaSelectResultSet.class).getAdaptiveFetchSize();
+            assertNotNull(adaptive);
+            assertEquals(10, adaptive.getLastBatchRows());
+
+            int rows = 0;
+            while (resultSet.next()) {
+                rows++;
+            }
+            assertEquals(500, rows);
+            assertTrue(adaptive.getBatchCount() > 1);
+            assertTrue(adaptive.getFetchSize() > 10);
+        } finally {
+            if (connection != null) connection.close();
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package org.mariadb.jdbc;
 
+import org.junit.Assume;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -18,6 +19,9 @@ public class LocalInfileInputStreamTest extends BaseTest {
         createTable("LocalInfileInputStreamTest", "id int, test varchar(100)");
         createTable("ttlocal", "id int, test varchar(100)");
         createTable("ldinfile", "a varchar(10)");
+        createTable("ttlocalCompress", "id int, test varchar(100)");
+        createTable("ttlocalTransfer", "a varchar(10), b varchar(10)");
+        createTable("ttlocalFifo", "id int, test varchar(100)");
         createTable("`infile`", "`a` varchar(50) DEFAULT NULL, `b` varchar(50) DEFAULT NULL",
                 "ENGINE=InnoDB DEFAULT CHARSET=latin1");
     }
@@ -52,6 +56,108 @@ public class LocalInfileInputStreamTest extends BaseTest {
         st.close();
     }
 
+    @Test
+    public void testLocalInfileParallelCompression() throws SQLException {
+        Connection connection = null;
+        try {
+            connection = setConnection("&useCompression=true&compressionThreads=4");
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < 100000; i++) {
+                builder.append(i).append("\tsome text value ").append(i % 100).append("\n");
+            }
+
+            Statement st = connection.createStatement();
+            ((MariaDbStatement) st).setLocalInfileInputStream(new ByteArrayInputStream(builder.toString().getBytes()));
+            st.executeUpdate("LOAD DATA LOCAL INFILE 'dummy.tsv' INTO TABLE ttlocalCompress (id, test)");
+
+            ResultSet rs = st.executeQuery("SELECT COUNT(*), SUM(id), MAX(test) FROM ttlocalCompress");
+            assertTrue(rs.next());
+            assertEquals(100000, rs.getInt(1));
+            assertEquals(4999950000L, rs.getLong(2));
+            assertEquals("some text value 99", rs.getString(3));
+        } finally {
+            if (connection != null) connection.close();
+        }
+    }
+
+    /**
+     * File send with FileChannel.transferTo when using SocketChannel.
+     *
+     * @throws Exception if any error occur
+     */
+    @Test
+    public void testLocalInfileTransferFile() throws Exception {
+        int recordNumber = 3000000;
+        File file = createTmpData(recordNumber);
+        Connection connection = null;
+        try {
+            connection = setConnection("&useSocketChannel=true");
+            Statement st = connection.createStatement();
+            try (FileInputStream is = new FileInputStream(file)) {
+                ((MariaDbStatement) st).setLocalInfileInputStream(is);
+                int insertNumber = st.executeUpdate("LOAD DATA LOCAL INFILE 'ignoredFileName' "
+                        + "INTO TABLE ttlocalTransfer "
+                        + "COLUMNS TERMINATED BY ',' ENCLOSED BY '\\\"' ESCAPED BY '\\\\' "
+                        + "LINES TERMINATED BY '\\n' (a, b)");
+                assertEquals(recordNumber, insertNumber);
+            }
+
+            ResultSet rs = st.executeQuery("SELECT COUNT(*), MAX(a), MAX(b) FROM ttlocalTransfer");
+            assertTrue(rs.next());
+            assertEquals(recordNumber, rs.getInt(1));
+            assertEquals("a", rs.getString(2));
+            assertEquals("b", rs.getString(3));
+        } finally {
+            if (connection != null) connection.close();
+            file.delete();
+        }
+    }
+
+    /**
+     * Non regular file (named pipe) report no size : content must be read as stream, not transferred.
+     *
+     * @throws Exception if any error occur
+     */
+    @Test
+    public void testLocalInfileNamedPipe() throws Exception {
+        final File fifo = new File(System.getProperty("java.io.tmpdir"), "validateInfileFifo" + System.nanoTime());
+        boolean created;
+        try {
+            created = new ProcessBuilder("mkfifo", fifo.getAbsolutePath()).start().waitFor() == 0;
+        } catch (IOException ioe) {
+            created = false;
+        }
+        Assume.assumeTrue(created);
+
+        Thread pipeWriter = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try (Writer writer = new FileWriter(fifo)) {
+                    writer.write("1,hello\n2,world\n");
+                } catch (IOException ioe) {
+                    //test will fail
+                }
+            }
+        });
+        pipeWriter.start();
+        Connection connection = null;
+        try {
+            connection = setConnection("&useSocketChannel=true");
+            Statement st = connection.createStatement();
+            int insertNumber = st.executeUpdate("LOAD DATA LOCAL INFILE '" + fifo.getAbsolutePath()
+                    + "' INTO TABLE ttlocalFifo FIELDS TERMINATED BY ',' (id, test)");
+            assertEquals(2, insertNumber);
+
+            ResultSet rs = st.executeQuery("SELECT * FROM ttlocalFifo");
+            validateRecord(rs, 1, "hello");
+            validateRecord(rs, 2, "world");
+        } finally {
+            if (connection != null) connection.close();
+            pipeWriter.join(10000);
+            fifo.delete();
+        }
+    }
+
     @Test
     public void testLocalInfileValidInterceptor() throws Exception {
         File temp = File.createTempFile("validateInfile", ".txt");
@@ -18,6 +18,8 @@ public class ResultSetTest extends BaseTest {
     @BeforeClass()
     public static void initClass() throws SQLException {
         createTable("result_set_test", "id int not null primary key auto_increment, name char(20)");
+        createTable("rowHandlerTest", "id int, val varchar(10)");
+        createTable("columnarTest", "t1 tinyint unsigned, t2 smallint, t3 int, t4 bigint, t5 float, t6 double, t7 decimal(10,2)");
     }
 
     @Test
@@ -752,4 +754,83 @@ public class ResultSetTest extends BaseTest {
             }
         }
     }
+
+    @Test
+    public void columnarBatchTest() throws SQLException {
+        Statement stmt = sharedConnection.createStatement();
+        stmt.execute("INSERT INTO columnarTest VALUES (255, -2, -3, -4, 1.5, 2.25, 3.75), "
+                + "(null, null, null, null, null, null, null), (1, 2, 3, 4, 5, 6, 7)");
+        PreparedStatement preparedStatement = sharedConnection.prepareStatement("SELECT * FROM columnarTest WHERE t3 > ? OR t3 IS NULL");
+        preparedStatement.setInt(1, -10);
+        preparedStatement.setFetchSize(2);
+        ResultSet rs = preparedStatement.executeQuery();
+        MariaDbColumnarResultSet columnar = rs.unwrap(MariaDbColumnarResultSet.class);
+
+        long[] sums = new long[7];
+        double doubleSum = 0;
+        int rows = 0;
+        int batchSize;
+        while ((batchSize = columnar.nextBatch()) > 0) {
+            for (int column = 1; column <= 4; column++) {
+                long[] values = columnar.getLongColumn(column);
+                int[] intValues = columnar.getIntColumn(column);
+                for (int i = 0; i < batchSize; i++) {
+                    sums[column - 1] += values[i];
+                    assertEquals(values[i], intValues[i]);
+                }
+            }
+            for (int column = 5; column <= 7; column++) {
+                double[] values = columnar.getDoubleColumn(column);
+                long[] nulls = columnar.getNullBitmap(column);
+                for (int i = 0; i < batchSize; i++) {
+                    assertEquals(values[i] == 0, (nulls[i >>> 6] & (1L << i)) != 0);
+                    doubleSum += values[i];
+                }
+            }
+            rows += batchSize;
+        }
+        assertEquals(3, rows);
+        assertEquals(256, sums[0]);
+        assertEquals(0, sums[1]);
+        assertEquals(0, sums[2]);
+        assertEquals(0, sums[3]);
+        assertEquals(1.5 + 2.25 + 3.75 + 5 + 6 + 7, doubleSum, 0.0001);
+    }
+
+    @Test
+    public void rowHandlerTest() throws SQLException {
+        MariaDbStatement stmt = sharedConnection.createStatement().unwrap(MariaDbStatement.class);
+        for (int i = 1; i <= 1000; i++) stmt.addBatch("INSERT INTO rowHandlerTest VALUES (" + i + ", 'a" + i + "')");
+        stmt.executeBatch();
+        final long[] sum = new long[1];
+        long rows = stmt.executeQuery("SELECT id, val FROM rowHandlerTest", new RowHandler() {
+            @Override
+            public void handleRow(ResultSet row) throws SQLException {
+                sum[0] += row.getLong(1);
+                assertEquals("a" + row.getLong(1), row.getString(2));
+            }
+        });
+        assertEquals(1000, rows);
+        assertEquals(500500L, sum[0]);
+        assertFalse(stmt.getResultSet().next());
+
+        //handler error : remaining rows are skipped, connection is still usable
+        final int[] count = new int[1];
+        try {
+            stmt.executeQuery("SELECT id FROM rowHandlerTest", new RowHandler() {
+                @Override
+                public void handleRow(ResultSet row) throws SQLException {
+                    if (++count[0] == 10) throw new SQLException("stop", "HY001");
+                }
+            });
+            fail("must have thrown exception");
+        } catch (SQLException sqle) {
+            assertTrue(sqle.getMessage().contains("stop"));
+            assertEquals("HY001", sqle.getSQLState());
+        }
+        assertEquals(10, count[0]);
+        ResultSet rs = stmt.executeQuery("SELECT 2");
+        assertTrue(rs.next());
+        assertEquals(2, rs.getInt(1));
+    }
 }
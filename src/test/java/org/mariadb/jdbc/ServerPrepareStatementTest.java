@@ -39,6 +39,7 @@ public class ServerPrepareStatementTest extends BaseTest {
         createTable("ServerPrepareStatementCacheSize4", "id int not null primary key auto_increment, test LONGBLOB",
                 "ROW_FORMAT=COMPRESSED ENGINE=INNODB");
         createTable("streamtest2", "id int primary key not null, strm text");
+        createTable("streamLongData", "id int primary key not null, bin LONGBLOB, txt LONGTEXT", "CHARSET utf8mb4");
         createTable("testServerPrepareMeta", "id int not null primary key auto_increment, id2 int not null, id3 DEC(4,2), id4 BIGINT UNSIGNED ");
         createTable("ServerPrepareStatementSync", "id int not null primary key auto_increment, test varchar(1007), tt boolean");
     }
@@ -522,6 +523,30 @@ public class ServerPrepareStatementTest extends BaseTest {
         }
     }
 
+    @Test
+    public void longDataStreamTest() throws Throwable {
+        byte[] bytes = new byte[3 * 1024 * 1024 + 7];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i % 251);
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 300000; i++) {
+            sb.append("a\uD83C\uDFA4");
+        }
+        String text = sb.toString();
+
+        PreparedStatement ps = sharedConnection.prepareStatement("INSERT INTO streamLongData VALUES (?, ?, ?)");
+        ps.setInt(1, 1);
+        ps.setBinaryStream(2, new ByteArrayInputStream(bytes));
+        ps.setCharacterStream(3, new StringReader(text));
+        ps.execute();
+
+        ResultSet rs = sharedConnection.createStatement().executeQuery("SELECT bin, txt FROM streamLongData WHERE id = 1");
+        assertTrue(rs.next());
+        assertArrayEquals(bytes, rs.getBytes(1));
+        assertEquals(text, rs.getString(2));
+    }
+
     @Test(expected = SQLException.class)
     public void parametersNotSetTest() throws Throwable {
         Assume.assumeTrue(sharedUsePrepare());
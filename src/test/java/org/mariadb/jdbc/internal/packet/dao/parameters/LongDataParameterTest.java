@@ -0,0 +1,94 @@
+package org.mariadb.jdbc.internal.packet.dao.parameters;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.packet.Packet;
+import org.mariadb.jdbc.internal.stream.PacketOutputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class LongDataParameterTest {
+
+    /**
+     * Read COM_STMT_SEND_LONG_DATA packets, checking headers and size, and return concatenated data.
+     *
+     * @param bytes            data send to socket
+     * @param maxAllowedPacket max_allowed_packet
+     * @return data
+     */
+    private static byte[] longData(byte[] bytes, int maxAllowedPacket) {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        int position = 0;
+        while (position < bytes.length) {
+            int length = (bytes[position] & 0xff) + ((bytes[position + 1] & 0xff) << 8) + ((bytes[position + 2] & 0xff) << 16);
+            assertTrue(length < maxAllowedPacket);
+            assertEquals(0, bytes[position + 3]);
+            assertEquals(Packet.COM_STMT_SEND_LONG_DATA, bytes[position + 4]);
+            assertEquals(5, bytes[position + 5]);
+            assertEquals(3, bytes[position + 9]);
+            data.write(bytes, position + 11, length - 7);
+            position += 4 + length;
+        }
+        return data.toByteArray();
+    }
+
+    @Test
+    public void streamChunkedByMaxAllowedPacket() throws Exception {
+        byte[] value = new byte[10000];
+        for (int i = 0; i < value.length; i++) {
+            value[i] = (byte) i;
+        }
+        ByteArrayOutputStream socket = new ByteArrayOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(socket, false, 1024);
+        writer.setMaxAllowedPacket(1024);
+
+        new StreamParameter(new ByteArrayInputStream(value), false).sendComLongData(5, (short) 3, writer);
+        assertArrayEquals(value, longData(socket.toByteArray(), 1024));
+
+        //limited length
+        socket.reset();
+        new StreamParameter(new ByteArrayInputStream(value), 2500, false).sendComLongData(5, (short) 3, writer);
+        byte[] expected = new byte[2500];
+        System.arraycopy(value, 0, expected, 0, 2500);
+        assertArrayEquals(expected, longData(socket.toByteArray(), 1024));
+    }
+
+    @Test
+    public void readerChunkedWithSurrogates() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            sb.append("a🎤é");
+        }
+        String value = sb.toString();
+        ByteArrayOutputStream socket = new ByteArrayOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(socket, false, 1024);
+        writer.setMaxAllowedPacket(1024);
+
+        Reader reader = new StringReader(value);
+        new ReaderParameter(reader, false).sendComLongData(5, (short) 3, writer);
+        assertEquals(value, new String(longData(socket.toByteArray(), 1024), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void serializableChunked() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append("serializable value ").append(i);
+        }
+        ByteArrayOutputStream socket = new ByteArrayOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(socket, false, 1024);
+        writer.setMaxAllowedPacket(1024);
+
+        SerializableParameter parameter = new SerializableParameter(sb.toString(), false);
+        parameter.sendComLongData(5, (short) 3, writer);
+        byte[] data = longData(socket.toByteArray(), 1024);
+        assertTrue(data.length > 1024);
+        assertEquals(sb.toString(), new ObjectInputStream(new ByteArrayInputStream(data)).readObject());
+    }
+}
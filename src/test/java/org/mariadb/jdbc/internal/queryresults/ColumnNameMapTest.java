@@ -0,0 +1,100 @@
+package org.mariadb.jdbc.internal.queryresults;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
+import org.mariadb.jdbc.internal.util.buffer.Buffer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+public class ColumnNameMapTest {
+
+    private static ColumnInformation column(String table, String name, String originalName) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        String[] values = {"def", "db", table, table, name, originalName};
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            baos.write(bytes.length);
+            baos.write(bytes, 0, bytes.length);
+        }
+        byte[] fixedFields = {0x0c, 33, 0, 10, 0, 0, 0, (byte) 253, 0, 0, 0, 0, 0};
+        baos.write(fixedFields, 0, fixedFields.length);
+        return new ColumnInformation(new Buffer(baos.toByteArray()));
+    }
+
+    private static ColumnInformation[] columns() {
+        return new ColumnInformation[]{
+            column("t1", "id", "id"),
+            column("t1", "Label", "original"),
+            column("t2", "other", "label"),
+            column("t2", "ID", "id2"),
+            column("", "expr", "")
+        };
+    }
+
+    @Test
+    public void caseInsensitiveLookup() throws SQLException {
+        ColumnNameMap map = new ColumnNameMap(columns());
+        assertEquals(0, map.getIndex("id"));
+        assertEquals(0, map.getIndex("Id"));
+        assertEquals(1, map.getIndex("LABEL"));
+        assertEquals(1, map.getIndex("t1.label"));
+        assertEquals(2, map.getIndex("T2.OTHER"));
+        assertEquals(3, map.getIndex("t2.id"));
+        assertEquals(4, map.getIndex("EXPR"));
+        //original names are used when no alias correspond
+        assertEquals(1, map.getIndex("original"));
+        assertEquals(3, map.getIndex("id2"));
+        assertEquals(2, map.getIndex("t2.label"));
+
+        String[] unknownNames = {"unknown", "t3.id", "", null};
+        for (String name : unknownNames) {
+            try {
+                map.getIndex(name);
+                fail("must have thrown an exception for column '" + name + "'");
+            } catch (SQLException sqle) {
+                assertTrue(sqle.getMessage().contains("No such column"));
+            }
+        }
+    }
+
+    @Test
+    public void emptyColumns() {
+        try {
+            new ColumnNameMap(null).getIndex("id");
+            fail("must have thrown an exception");
+        } catch (SQLException sqle) {
+            //expected
+        }
+    }
+
+    @Test
+    public void sharedIndex() throws SQLException {
+        ColumnNameMap map = ColumnNameMap.forColumns(columns());
+        assertSame(map, ColumnNameMap.forColumns(columns()));
+        assertTrue(map.isDefinedBy(columns()));
+
+        ColumnInformation[] otherColumns = {column("t1", "id", "id"), column("t1", "label2", "original")};
+        ColumnNameMap otherMap = ColumnNameMap.forColumns(otherColumns);
+        assertNotSame(map, otherMap);
+        assertFalse(map.isDefinedBy(otherColumns));
+        assertEquals(1, otherMap.getIndex("LABEL2"));
+    }
+
+    @Test
+    public void manyColumns() throws SQLException {
+        ColumnInformation[] columns = new ColumnInformation[500];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = column("t", "col" + i, "col" + i);
+        }
+        ColumnNameMap map = new ColumnNameMap(columns);
+        for (int i = 0; i < columns.length; i++) {
+            assertEquals(i, map.getIndex("COL" + i));
+            assertEquals(i, map.getIndex("t.col" + i));
+        }
+    }
+
+}
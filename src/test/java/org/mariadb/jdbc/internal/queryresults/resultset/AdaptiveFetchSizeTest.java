@@ -0,0 +1,87 @@
+package org.mariadb.jdbc.internal.queryresults.resultset;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AdaptiveFetchSizeTest {
+
+    @Test
+    public void firstBatchUseInitialSize() {
+        AdaptiveFetchSize adaptive = new AdaptiveFetchSize(10, 1000);
+        assertEquals(10, adaptive.batchStarting());
+        assertEquals(0, adaptive.getBatchCount());
+    }
+
+    @Test
+    public void sizeFromAverageRowSize() {
+        AdaptiveFetchSize adaptive = new AdaptiveFetchSize(10, 10000);
+        adaptive.batchStarting();
+        adaptive.batchRead(10, 1000, 5000);
+        assertEquals(100, adaptive.getFetchSize());
+        assertEquals(1, adaptive.getBatchCount());
+        assertEquals(10, adaptive.getLastBatchRows());
+        assertEquals(1000, adaptive.getLastBatchBytes());
+        assertEquals(5000, adaptive.getLastBatchReadNanos());
+
+        //bigger rows : average row size is now (100 + 1000) / 2
+        adaptive.batchStarting();
+        adaptive.batchRead(1000, 1000000, 5000);
+        assertEquals(18, adaptive.getFetchSize());
+    }
+
+    @Test
+    public void hugeRowsKeepOneRow() {
+        AdaptiveFetchSize adaptive = new AdaptiveFetchSize(100, 1000);
+        adaptive.batchStarting();
+        adaptive.batchRead(100, 100000000, 5000);
+        assertEquals(1, adaptive.getFetchSize());
+    }
+
+    @Test
+    public void emptyBatchKeepSize() {
+        AdaptiveFetchSize adaptive = new AdaptiveFetchSize(100, 1000);
+        adaptive.batchStarting();
+        adaptive.batchRead(0, 0, 5000);
+        assertEquals(100, adaptive.getFetchSize());
+    }
+
+    @Test
+    public void slowConsumerLimitSize() throws Exception {
+        AdaptiveFetchSize adaptive = new AdaptiveFetchSize(10, Integer.MAX_VALUE);
+        adaptive.batchStarting();
+        adaptive.batchRead(10, 10, 1000);
+        adaptive.batchDelivered(10);
+        //10 rows processed in about 100ms : about 100 rows by second
+        Thread.sleep(100);
+        adaptive.batchConsumed();
+        assertTrue(adaptive.getLastBatchConsumeNanos() >= 100000000L);
+        adaptive.batchStarting();
+        adaptive.batchRead(10, 10, 1000);
+        assertTrue(adaptive.getFetchSize() <= 100);
+        assertTrue(adaptive.getFetchSize() > 0);
+    }
+
+    @Test
+    public void prefetchMeasureConsumerTime() throws Exception {
+        AdaptiveFetchSize adaptive = new AdaptiveFetchSize(10, Integer.MAX_VALUE);
+        adaptive.batchStarting();
+        adaptive.batchRead(10, 10, 1000);
+        adaptive.batchDelivered(10);
+
+        //next batch is read in background right after previous batch is delivered
+        adaptive.batchStarting();
+        adaptive.batchRead(10, 10, 1000);
+        assertEquals(0, adaptive.getLastBatchConsumeNanos());
+
+        Thread.sleep(100);
+        adaptive.batchConsumed();
+        adaptive.batchDelivered(10);
+        assertTrue(adaptive.getLastBatchConsumeNanos() >= 100000000L);
+
+        //batch read in background use application processing time
+        adaptive.batchStarting();
+        adaptive.batchRead(10, 10, 1000);
+        assertTrue(adaptive.getFetchSize() <= 100);
+    }
+}
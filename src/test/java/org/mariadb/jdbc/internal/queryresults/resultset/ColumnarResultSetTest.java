@@ -0,0 +1,120 @@
+package org.mariadb.jdbc.internal.queryresults.resultset;
+
+import org.junit.Test;
+import org.mariadb.jdbc.MariaDbColumnarResultSet;
+import org.mariadb.jdbc.internal.MariaDbType;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.Assert.*;
+
+public class ColumnarResultSetTest {
+
+    @Test
+    public void decodeTextColumns() throws Exception {
+        ResultSet rs = MariaSelectResultSet.createResultSet(new String[]{"i", "l", "d"},
+                new MariaDbType[]{MariaDbType.INTEGER, MariaDbType.BIGINT, MariaDbType.DOUBLE},
+                new String[][]{
+                        {"1", "9223372036854775807", "1.5"},
+                        {null, "-2", null},
+                        {"-3", null, "2.25E3"}},
+                null);
+        assertTrue(rs.isWrapperFor(MariaDbColumnarResultSet.class));
+        MariaDbColumnarResultSet columnar = rs.unwrap(MariaDbColumnarResultSet.class);
+
+        assertEquals(3, columnar.nextBatch());
+        assertEquals(3, columnar.getBatchSize());
+
+        int[] ints = columnar.getIntColumn(1);
+        assertEquals(1, ints[0]);
+        assertEquals(0, ints[1]);
+        assertEquals(-3, ints[2]);
+
+        long[] longs = columnar.getLongColumn(2);
+        assertEquals(Long.MAX_VALUE, longs[0]);
+        assertEquals(-2L, longs[1]);
+        assertEquals(0L, longs[2]);
+
+        double[] doubles = columnar.getDoubleColumn(3);
+        assertEquals(1.5, doubles[0], 0);
+        assertEquals(0, doubles[1], 0);
+        assertEquals(2250, doubles[2], 0);
+
+        assertEquals(2L, columnar.getNullBitmap(1)[0]);
+        assertEquals(4L, columnar.getNullBitmap(2)[0]);
+        assertEquals(2L, columnar.getNullBitmap(3)[0]);
+
+        //cursor is on last row of batch
+        assertTrue(rs.isLast());
+        assertEquals(-3, rs.getInt(1));
+        assertEquals(0, columnar.nextBatch());
+        assertTrue(rs.isAfterLast());
+    }
+
+    @Test
+    public void batchAfterRowAccess() throws Exception {
+        String[][] data = new String[70][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new String[]{(i % 3 == 0) ? null : String.valueOf(i)};
+        }
+        ResultSet rs = MariaSelectResultSet.createResultSet(new String[]{"v"},
+                new MariaDbType[]{MariaDbType.BIGINT}, data, null);
+        assertTrue(rs.next());
+        MariaDbColumnarResultSet columnar = rs.unwrap(MariaDbColumnarResultSet.class);
+
+        //batch start after current row
+        assertEquals(69, columnar.nextBatch());
+        long[] values = columnar.getLongColumn(1);
+        long[] nulls = columnar.getNullBitmap(1);
+        for (int i = 1; i < data.length; i++) {
+            assertEquals((i % 3 == 0) ? 0 : i, values[i - 1]);
+            assertEquals(i % 3 == 0, (nulls[(i - 1) >>> 6] & (1L << (i - 1))) != 0);
+        }
+    }
+
+    @Test
+    public void batchLimitedRows() throws Exception {
+        String[][] data = new String[3000][];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = new String[]{String.valueOf(i)};
+        }
+        ResultSet rs = MariaSelectResultSet.createResultSet(new String[]{"v"},
+                new MariaDbType[]{MariaDbType.INTEGER}, data, null);
+        MariaDbColumnarResultSet columnar = rs.unwrap(MariaDbColumnarResultSet.class);
+
+        int total = 0;
+        int batchSize;
+        while ((batchSize = columnar.nextBatch()) > 0) {
+            assertTrue(batchSize <= MariaSelectResultSet.MAX_COLUMNAR_BATCH_ROWS);
+            int[] values = columnar.getIntColumn(1);
+            assertTrue(values.length <= MariaSelectResultSet.MAX_COLUMNAR_BATCH_ROWS);
+            for (int i = 0; i < batchSize; i++) {
+                assertEquals(total + i, values[i]);
+            }
+            total += batchSize;
+            assertEquals(total - 1, rs.getInt(1));
+        }
+        assertEquals(3000, total);
+    }
+
+    @Test
+    public void wrongColumn() throws Exception {
+        ResultSet rs = MariaSelectResultSet.createResultSet(new String[]{"v"},
+                new MariaDbType[]{MariaDbType.BIGINT}, new String[][]{{"1"}}, null);
+        MariaDbColumnarResultSet columnar = rs.unwrap(MariaDbColumnarResultSet.class);
+        columnar.nextBatch();
+        try {
+            columnar.getLongColumn(2);
+            fail("must have thrown exception");
+        } catch (SQLException sqle) {
+            assertTrue(sqle.getMessage().contains("No such column"));
+        }
+        try {
+            rs.unwrap(String.class);
+            fail("must have thrown exception");
+        } catch (SQLException sqle) {
+            assertTrue(sqle.getMessage().contains("not a wrapper"));
+        }
+    }
+}
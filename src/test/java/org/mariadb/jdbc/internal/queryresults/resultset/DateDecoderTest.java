@@ -0,0 +1,182 @@
+package org.mariadb.jdbc.internal.queryresults.resultset;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Calendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.Assert.*;
+
+public class DateDecoderTest {
+
+    private static final String[] TIME_ZONES = {"UTC", "Europe/Paris", "America/New_York", "Australia/Lord_Howe",
+        "Asia/Kolkata", "Pacific/Apia", "America/St_Johns"};
+
+    private static long calendarMillis(TimeZone tz, int year, int month, int day, int hour, int minute, int second,
+                                       int millis) {
+        Calendar calendar = Calendar.getInstance(tz);
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minute, second);
+        calendar.set(Calendar.MILLISECOND, millis);
+        return calendar.getTimeInMillis();
+    }
+
+    @Test
+    public void randomLocalTimes() {
+        Random random = new Random(1);
+        for (String id : TIME_ZONES) {
+            TimeZone tz = TimeZone.getTimeZone(id);
+            DateDecoder decoder = new DateDecoder(tz);
+            for (int i = 0; i < 200000; i++) {
+                int year = 1800 + random.nextInt(300);
+                int month = random.nextInt(14);
+                int day = random.nextInt(33);
+                int hour = random.nextInt(900) - 50;
+                int minute = random.nextInt(60);
+                int second = random.nextInt(60);
+                int millis = random.nextInt(1000);
+                assertEquals(id + " " + year + "-" + month + "-" + day + " " + hour + ":" + minute + ":" + second,
+                        calendarMillis(tz, year, month, day, hour, minute, second, millis),
+                        decoder.toEpochMillis(year, month, day, hour, minute, second, millis));
+            }
+        }
+    }
+
+    @Test
+    public void daylightSavingTransitions() {
+        for (String id : TIME_ZONES) {
+            TimeZone tz = TimeZone.getTimeZone(id);
+            DateDecoder decoder = new DateDecoder(tz);
+            for (int month = 1; month <= 12; month++) {
+                for (int day = 1; day <= 31; day++) {
+                    for (int minute = 0; minute < 24 * 60; minute += 15) {
+                        assertEquals(id + " 2016-" + month + "-" + day + " " + minute,
+                                calendarMillis(tz, 2016, month, day, 0, minute, 0, 0),
+                                decoder.toEpochMillis(2016, month, day, 0, minute, 0, 0));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void textDateTime() throws ParseException {
+        TimeZone tz = TimeZone.getTimeZone("Europe/Paris");
+        DateDecoder decoder = new DateDecoder(tz);
+
+        parseDateTime(decoder, "2016-03-27 02:30:15.123456");
+        assertEquals(calendarMillis(tz, 2016, 3, 27, 2, 30, 15, 123), decoder.getMillis());
+        assertEquals(calendarMillis(tz, 2016, 3, 27, 2, 30, 15, 0), decoder.getSecondMillis());
+        assertEquals(calendarMillis(tz, 2016, 3, 27, 0, 0, 0, 0), decoder.getDateMillis());
+        assertEquals(123456000, decoder.getNanos());
+
+        parseDateTime(decoder, "2016-10-30 02:30:15.1");
+        assertEquals(calendarMillis(tz, 2016, 10, 30, 2, 30, 15, 100), decoder.getMillis());
+        assertEquals(100000000, decoder.getNanos());
+
+        parseDateTime(decoder, "1999-12-31");
+        assertEquals(calendarMillis(tz, 1999, 12, 31, 0, 0, 0, 0), decoder.getMillis());
+        assertFalse(decoder.isZeroDate());
+
+        parseDateTime(decoder, "0000-00-00");
+        assertTrue(decoder.isZeroDate());
+        assertTrue(decoder.isZeroDateTime());
+
+        parseDateTime(decoder, "0000-00-00 00:00:00.000000");
+        assertTrue(decoder.isZeroDateTime());
+
+        parseDateTime(decoder, "0000-00-00 00:00:01");
+        assertTrue(decoder.isZeroDate());
+        assertFalse(decoder.isZeroDateTime());
+
+        String[] wrongValues = {"", "2016-01", "2016/01/01", "2016-01-0a", "2016-01-01 0a:00:00", "2016-01-01 00:00:00.1x"};
+        for (String value : wrongValues) {
+            try {
+                parseDateTime(decoder, value);
+                fail("must have thrown an exception for value '" + value + "'");
+            } catch (ParseException pe) {
+                //expected
+            }
+        }
+    }
+
+    @Test
+    public void textTime() throws ParseException {
+        TimeZone tz = TimeZone.getTimeZone("America/New_York");
+        DateDecoder decoder = new DateDecoder(tz);
+
+        parseTime(decoder, "12:34:56");
+        assertEquals(calendarMillis(tz, 1970, 1, 1, 12, 34, 56, 0), decoder.getMillis());
+        assertEquals(2, decoder.getHourDigits());
+        assertFalse(decoder.isNegative());
+
+        parseTime(decoder, "838:59:59.999999");
+        assertEquals(calendarMillis(tz, 1970, 1, 1, 838, 59, 59, 999), decoder.getMillis());
+        assertEquals(999999000, decoder.getNanos());
+        assertEquals(3, decoder.getHourDigits());
+
+        parseTime(decoder, "-01:30:00");
+        assertTrue(decoder.isNegative());
+        assertEquals(calendarMillis(tz, 1970, 1, 1, -1, 30, 0, 0), decoder.getMillis());
+
+        String[] wrongValues = {"", "12:34", "12-34-56", ":34:56", "12:3a:56"};
+        for (String value : wrongValues) {
+            try {
+                parseTime(decoder, value);
+                fail("must have thrown an exception for value '" + value + "'");
+            } catch (ParseException pe) {
+                //expected
+            }
+        }
+    }
+
+    @Test
+    public void binaryStructures() {
+        TimeZone tz = TimeZone.getTimeZone("Australia/Lord_Howe");
+        DateDecoder decoder = new DateDecoder(tz);
+
+        //2016-04-03 01:45:30.000250
+        byte[] datetime = {(byte) 0xe0, 0x07, 4, 3, 1, 45, 30, (byte) 0xfa, 0, 0, 0};
+        decoder.readBinaryDateTime(datetime, 0, datetime.length);
+        assertEquals(calendarMillis(tz, 2016, 4, 3, 1, 45, 30, 0), decoder.getMillis());
+        assertEquals(250000, decoder.getNanos());
+
+        decoder.readBinaryDateTime(datetime, 0, 4);
+        assertEquals(calendarMillis(tz, 2016, 4, 3, 0, 0, 0, 0), decoder.getMillis());
+        assertEquals(0, decoder.getNanos());
+
+        decoder.readBinaryDateTime(datetime, 0, 0);
+        assertTrue(decoder.isZeroDateTime());
+
+        //YEAR(2) value 15
+        byte[] year = {15, 0};
+        decoder.readBinaryDateTime(year, 0, 2);
+        decoder.expandTwoDigitYear();
+        assertEquals(2015, decoder.getYear());
+        assertEquals(calendarMillis(tz, 2015, 1, 1, 0, 0, 0, 0), decoder.getDateMillis());
+
+        //-1 day 02:03:04.500000
+        byte[] time = {1, 1, 0, 0, 0, 2, 3, 4, 0x20, (byte) 0xa1, 0x07, 0};
+        decoder.readBinaryTime(time, 0, time.length);
+        assertTrue(decoder.isNegative());
+        assertEquals(calendarMillis(tz, 1970, 1, 0, -2, 3, 4, 500), decoder.getMillis());
+        assertEquals(500000000, decoder.getNanos());
+
+        decoder.readBinaryTime(time, 0, 0);
+        assertEquals(calendarMillis(tz, 1970, 1, 1, 0, 0, 0, 0), decoder.getMillis());
+    }
+
+    private static void parseDateTime(DateDecoder decoder, String value) throws ParseException {
+        byte[] buf = ("xx" + value).getBytes(StandardCharsets.UTF_8);
+        decoder.parseDateTime(buf, 2, buf.length - 2);
+    }
+
+    private static void parseTime(DateDecoder decoder, String value) throws ParseException {
+        byte[] buf = ("xx" + value).getBytes(StandardCharsets.UTF_8);
+        decoder.parseTime(buf, 2, buf.length - 2);
+    }
+
+}
@@ -0,0 +1,127 @@
+package org.mariadb.jdbc.internal.queryresults.resultset;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NumberParserTest {
+
+    private static long parseLong(String value) {
+        byte[] bytes = ("##" + value + "#").getBytes(StandardCharsets.UTF_8);
+        return NumberParser.parseLong(bytes, 2, bytes.length - 3);
+    }
+
+    private static double parseDouble(String value) {
+        byte[] bytes = ("##" + value + "#").getBytes(StandardCharsets.UTF_8);
+        return NumberParser.parseDouble(bytes, 2, bytes.length - 3);
+    }
+
+    private static BigDecimal parseBigDecimal(String value) {
+        byte[] bytes = ("##" + value + "#").getBytes(StandardCharsets.UTF_8);
+        return NumberParser.parseBigDecimal(bytes, 2, bytes.length - 3);
+    }
+
+    private static float parseFloat(String value) {
+        byte[] bytes = ("##" + value + "#").getBytes(StandardCharsets.UTF_8);
+        return NumberParser.parseFloat(bytes, 2, bytes.length - 3);
+    }
+
+    @Test
+    public void longValues() {
+        assertEquals(0, parseLong("0"));
+        assertEquals(123, parseLong("123"));
+        assertEquals(123, parseLong("+123"));
+        assertEquals(-123, parseLong("-123"));
+        assertEquals(7, parseLong("0007"));
+        assertEquals(-45, parseLong("-45.000"));
+        assertEquals(Long.MAX_VALUE, parseLong("9223372036854775807"));
+        assertEquals(Long.MIN_VALUE, parseLong("-9223372036854775808"));
+    }
+
+    @Test
+    public void longWrongValues() {
+        String[] wrongValues = {"", "-", "+", "1.5", "1.", ".0", "12a", "1 ", " 1", "1e3",
+                "9223372036854775808", "-9223372036854775809", "18446744073709551615"};
+        for (String value : wrongValues) {
+            try {
+                parseLong(value);
+                fail("must have thrown an exception for value '" + value + "'");
+            } catch (NumberFormatException nfe) {
+                //expected
+            }
+        }
+    }
+
+    @Test
+    public void doubleValues() {
+        String[] values = {"0", "-0", "1", "-1.5", "3.14159", "0.000123", "123456789012345", "1234567890123456789",
+                "1e10", "1.5E-5", "-2.5e+3", "1e300", "4.9e-324", ".5", "5.", "0.1", "1.7976931348623157E308",
+                "NaN", "-Infinity", "123.456000", "00012.5"};
+        for (String value : values) {
+            assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)), Double.doubleToLongBits(parseDouble(value)));
+            assertEquals(value, Float.floatToIntBits(Float.parseFloat(value)), Float.floatToIntBits(parseFloat(value)));
+        }
+        String[] wrongValues = {"", "-", "1e", "abc", "1.2.3"};
+        for (String value : wrongValues) {
+            try {
+                parseDouble(value);
+                fail("must have thrown an exception for value '" + value + "'");
+            } catch (NumberFormatException nfe) {
+                //expected
+            }
+        }
+    }
+
+    @Test
+    public void randomDecimalValues() {
+        Random random = new Random(1);
+        for (int i = 0; i < 100000; i++) {
+            String value = (random.nextBoolean() ? "-" : "") + random.nextInt(1000000) + "." + random.nextInt(100000);
+            assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)), Double.doubleToLongBits(parseDouble(value)));
+            assertEquals(value, Float.floatToIntBits(Float.parseFloat(value)), Float.floatToIntBits(parseFloat(value)));
+        }
+    }
+
+    @Test
+    public void bigDecimalValues() {
+        String[] values = {"0", "-0", "0.00", "-0.00", "1", "+1", "-1.5", "123.4500", ".5", "5.", "0.000000001",
+                "999999999999999999", "-999999999999999999", "1000000000000000000", "123456789012345678.9",
+                "-12345678901234567890123456789012345678901234567890.123456789012345",
+                "99999999999999999999999999999999999999999999999999999999999999999", "1e10", "-1.5E-3"};
+        for (String value : values) {
+            BigDecimal expected = new BigDecimal(value);
+            BigDecimal result = parseBigDecimal(value);
+            assertEquals(value, expected, result);
+            assertEquals(value, expected.scale(), result.scale());
+        }
+        String[] wrongValues = {"", "-", ".", "abc", "1.2.3", "1,5"};
+        for (String value : wrongValues) {
+            try {
+                parseBigDecimal(value);
+                fail("must have thrown an exception for value '" + value + "'");
+            } catch (NumberFormatException nfe) {
+                //expected
+            }
+        }
+    }
+
+    @Test
+    public void randomBigDecimalValues() {
+        Random random = new Random(2);
+        for (int i = 0; i < 100000; i++) {
+            StringBuilder value = new StringBuilder(random.nextBoolean() ? "-" : "");
+            int integerDigits = 1 + random.nextInt(40);
+            for (int j = 0; j < integerDigits; j++) value.append((char) ('0' + random.nextInt(10)));
+            int decimals = random.nextInt(30);
+            if (decimals > 0) value.append('.');
+            for (int j = 0; j < decimals; j++) value.append((char) ('0' + random.nextInt(10)));
+            BigDecimal expected = new BigDecimal(value.toString());
+            BigDecimal result = parseBigDecimal(value.toString());
+            assertEquals(value.toString(), expected, result);
+        }
+    }
+}
@@ -0,0 +1,439 @@
+package org.mariadb.jdbc.internal.queryresults.resultset;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.mariadb.jdbc.internal.MariaDbType;
+import org.mariadb.jdbc.internal.packet.dao.ColumnInformation;
+import org.mariadb.jdbc.internal.packet.result.BinaryRowPacket;
+import org.mariadb.jdbc.internal.packet.result.TextRowPacket;
+import org.mariadb.jdbc.internal.util.buffer.Buffer;
+
+import java.io.ByteArrayOutputStream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class RowArenaTest {
+
+    @Test
+    public void storeValues() throws Exception {
+        RowArena arena = new RowArena(3, 1);
+        for (int i = 0; i < 1000; i++) {
+            arena.addRow(new byte[][] {("value" + i).getBytes(), null, new byte[0]});
+        }
+        assertEquals(1000, arena.size());
+        for (int i = 0; i < 1000; i++) {
+            assertArrayEquals(("value" + i).getBytes(), arena.getBytes(i, 0));
+            assertEquals(("value" + i).length(), arena.getLength(i, 0));
+            assertTrue(arena.isNull(i, 1));
+            assertNull(arena.getBytes(i, 1));
+            assertEquals(-1, arena.getLength(i, 1));
+            assertFalse(arena.isNull(i, 2));
+            assertEquals(0, arena.getBytes(i, 2).length);
+        }
+    }
+
+    @Test
+    public void rowBiggerThanChunk() throws Exception {
+        RowArena arena = new RowArena(2);
+        byte[] small = "small".getBytes();
+        byte[] big = new byte[100000];
+        for (int i = 0; i < big.length; i++) {
+            big[i] = (byte) i;
+        }
+
+        arena.addRow(new byte[][] {small, small});
+
+        //row length is unknown when starting row : row must be moved to a bigger chunk
+        arena.startRow(0);
+        arena.append(small, 0, small.length);
+        arena.append(big, 0, big.length);
+        arena.endRow();
+
+        arena.addRow(new byte[][] {small, null});
+
+        assertArrayEquals(small, arena.getBytes(0, 0));
+        assertArrayEquals(small, arena.getBytes(0, 1));
+        assertArrayEquals(small, arena.getBytes(1, 0));
+        assertArrayEquals(big, arena.getBytes(1, 1));
+        assertArrayEquals(small, arena.getBytes(2, 0));
+        assertNull(arena.getBytes(2, 1));
+    }
+
+    @Test
+    public void clearReuseMemory() throws Exception {
+        RowArena arena = new RowArena(1);
+        arena.addRow(new byte[][] {"a".getBytes()});
+        long allocated = arena.getAllocatedMemory();
+        for (int i = 0; i < 100; i++) {
+            arena.clear();
+            arena.addRow(new byte[][] {("b" + i).getBytes()});
+            assertEquals(1, arena.size());
+            assertArrayEquals(("b" + i).getBytes(), arena.getBytes(0, 0));
+        }
+        assertEquals(allocated, arena.getAllocatedMemory());
+    }
+
+    @Test
+    public void addRows() throws Exception {
+        RowArena arena = new RowArena(2);
+        RowArena other = new RowArena(2);
+        arena.addRow(new byte[][] {"first".getBytes(), null});
+        for (int i = 0; i < 500; i++) {
+            other.addRow(new byte[][] {("value" + i).getBytes(), (i % 2 == 0) ? null : new byte[0]});
+        }
+        assertEquals(5, arena.getDataSize());
+
+        arena.addRows(other);
+        assertEquals(501, arena.size());
+        assertEquals(5 + other.getDataSize(), arena.getDataSize());
+        assertArrayEquals("first".getBytes(), arena.getBytes(0, 0));
+        for (int i = 0; i < 500; i++) {
+            assertArrayEquals(("value" + i).getBytes(), arena.getBytes(i + 1, 0));
+            assertEquals(i % 2 == 0, arena.isNull(i + 1, 1));
+        }
+
+        other.clear();
+        assertEquals(0, other.getDataSize());
+    }
+
+    @Test
+    public void lazyTextRow() throws Exception {
+        RowArena arena = new RowArena(4, 1, new TextRowPacket(4));
+        assertTrue(arena.isLazy());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(3);
+        out.write("abc".getBytes());
+        out.write(251); //NULL
+        out.write(0); //empty
+        out.write(252);
+        out.write(300 & 0xff);
+        out.write(300 >> 8);
+        for (int i = 0; i < 300; i++) {
+            out.write('x');
+        }
+        byte[] packet = out.toByteArray();
+        for (int i = 0; i < 100; i++) {
+            arena.appendRawRow(null, new Buffer(packet));
+        }
+
+        assertEquals(100, arena.size());
+        for (int i = 0; i < 100; i++) {
+            assertArrayEquals("abc".getBytes(), arena.getBytes(i, 0));
+            assertTrue(arena.isNull(i, 1));
+            assertEquals(0, arena.getLength(i, 2));
+            assertEquals(300, arena.getLength(i, 3));
+            assertEquals('x', arena.getChunk(i)[arena.getOffset(i, 3) + 299]);
+        }
+
+        RowArena copy = new RowArena(4, 1, new TextRowPacket(4));
+        copy.addRows(arena);
+        assertEquals(100, copy.size());
+        assertEquals(arena.getDataSize(), copy.getDataSize());
+        assertTrue(copy.isNull(99, 1));
+        assertEquals(300, copy.getLength(99, 3));
+    }
+
+    @Test
+    public void lazyBinaryRow() throws Exception {
+        ColumnInformation[] columns = new ColumnInformation[] {
+                ColumnInformation.create("id", MariaDbType.INTEGER),
+                ColumnInformation.create("txt", MariaDbType.VARCHAR),
+                ColumnInformation.create("nullable", MariaDbType.BIGINT),
+                ColumnInformation.create("tiny", MariaDbType.TINYINT)};
+        RowArena arena = new RowArena(4, 1, new BinaryRowPacket(columns, 4));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0); //header
+        out.write(1 << 4); //null bitmap : third column is null (offset 2)
+        out.write(new byte[] {1, 0, 0, 0});
+        out.write(2);
+        out.write("ab".getBytes());
+        out.write(5);
+        arena.appendRawRow(null, new Buffer(out.toByteArray()));
+
+        assertArrayEquals(new byte[] {1, 0, 0, 0}, arena.getBytes(0, 0));
+        assertArrayEquals("ab".getBytes(), arena.getBytes(0, 1));
+        assertTrue(arena.isNull(0, 2));
+        assertArrayEquals(new byte[] {5}, arena.getBytes(0, 3));
+    }
+
+    @Test
+    public void columnBoundaries() throws Exception {
+        RowArena eager = new RowArena(3, 1);
+        RowArena lazy = new RowArena(3, 1, new TextRowPacket(3));
+        for (int i = 0; i < 200; i++) {
+            byte[] value = ("v" + i).getBytes();
+            eager.addRow(new byte[][] {value, (i % 3 == 0) ? null : value, new byte[0]});
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            out.write(value.length);
+            out.write(value);
+            if (i % 3 == 0) {
+                out.write(251); //NULL
+            } else {
+                out.write(value.length);
+                out.write(value);
+            }
+            out.write(0);
+            lazy.appendRawRow(null, new Buffer(out.toByteArray()));
+        }
+
+        int[] offsets = new int[150];
+        int[] lengths = new int[150];
+        for (RowArena arena : new RowArena[] {eager, lazy}) {
+            for (int column = 0; column < 3; column++) {
+                arena.getColumnBoundaries(50, 200, column, offsets, lengths);
+                for (int row = 50; row < 200; row++) {
+                    assertEquals(arena.getLength(row, column), lengths[row - 50]);
+                    if (lengths[row - 50] > 0) {
+                        assertEquals(arena.getOffset(row, column), offsets[row - 50]);
+                        assertArrayEquals(arena.getBytes(row, column), Arrays.copyOfRange(arena.getChunk(row),
+                                offsets[row - 50], offsets[row - 50] + lengths[row - 50]));
+                    }
+                }
+            }
+        }
+
+        //range must not be reused after clear
+        lazy.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(251);
+        out.write(2);
+        out.write("ab".getBytes());
+        out.write(251);
+        lazy.appendRawRow(null, new Buffer(out.toByteArray()));
+        lazy.getColumnBoundaries(0, 1, 1, offsets, lengths);
+        assertEquals(2, lengths[0]);
+        lazy.getColumnBoundaries(0, 1, 2, offsets, lengths);
+        assertEquals(-1, lengths[0]);
+    }
+
+    @Test
+    public void columnBoundariesIndexBounded() throws Exception {
+        RowArena arena = new RowArena(3, 1, new TextRowPacket(3));
+        byte[] packet = new byte[] {1, 'a', (byte) 251, 2, 'b', 'c'};
+        for (int i = 0; i < 100000; i++) {
+            arena.appendRawRow(null, new Buffer(packet));
+        }
+
+        int window = MariaSelectResultSet.MAX_COLUMNAR_BATCH_ROWS;
+        int[] offsets = new int[window];
+        int[] lengths = new int[window];
+        for (int start = 0; start < arena.size(); start += window) {
+            int end = Math.min(arena.size(), start + window);
+            for (int column = 0; column < 3; column++) {
+                arena.getColumnBoundaries(start, end, column, offsets, lengths);
+            }
+            assertEquals(2, lengths[end - start - 1]);
+        }
+        //index only cover one window, not the whole result
+        assertEquals(window * 3, arena.getRangeIndexLength());
+    }
+
+    /**
+     * Heap usage comparison between arena and one array by column value.
+     */
+    @Test
+    public void heapUsageComparison() throws Exception {
+        final int rows = 100000;
+        final int columns = 20;
+        byte[] value = "some value".getBytes();
+
+        long before = usedMemory();
+        List<byte[][]> list = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            byte[][] row = new byte[columns][];
+            for (int j = 0; j < columns; j++) {
+                row[j] = new byte[value.length];
+                System.arraycopy(value, 0, row[j], 0, value.length);
+            }
+            list.add(row);
+        }
+        long listUsage = usedMemory() - before;
+        assertEquals(rows, list.size());
+        list = null;
+
+        before = usedMemory();
+        RowArena arena = new RowArena(columns);
+        for (int i = 0; i < rows; i++) {
+            arena.startRow(columns * value.length);
+            for (int j = 0; j < columns; j++) {
+                arena.append(value, 0, value.length);
+            }
+            arena.endRow();
+        }
+        long arenaUsage = usedMemory() - before;
+        assertEquals(rows, arena.size());
+
+        //arena use less memory than one array by value
+        assertTrue(arena.getAllocatedMemory() < listUsage);
+        assertTrue(arenaUsage < listUsage);
+
+        //arena data : 200 bytes by row + 4 bytes by value index + row index
+        assertTrue(arena.getAllocatedMemory() < rows * (columns * (value.length + 4) + 8) * 2);
+    }
+
+    @Test
+    public void recycleChunks() throws Exception {
+        RowArena arena = new RowArena(2, 10);
+        arena.setRecycleChunks(true);
+        byte[] value = new byte[3000];
+        fillBatch(arena, 100, value);
+        byte[] firstChunk = arena.getChunk(0);
+        byte[] lastChunk = arena.getChunk(99);
+        long allocated = arena.getAllocatedMemory();
+
+        for (int batch = 0; batch < 10; batch++) {
+            arena.clear();
+            assertEquals(0, arena.size());
+            fillBatch(arena, 100, value);
+            assertSame(firstChunk, arena.getChunk(0));
+            assertSame(lastChunk, arena.getChunk(99));
+            assertEquals(allocated, arena.getAllocatedMemory());
+        }
+
+        //smaller batch reuse first chunks only
+        arena.clear();
+        fillBatch(arena, 1, value);
+        assertSame(firstChunk, arena.getChunk(0));
+        assertArrayEquals(value, arena.getBytes(0, 1));
+    }
+
+    @Test
+    public void streamingAllocationComparison() throws Exception {
+        //thread allocation counter is only available on some JVM
+        try {
+            Class.forName("com.sun.management.ThreadMXBean");
+        } catch (ClassNotFoundException cnfe) {
+            Assume.assumeTrue(false);
+        }
+        java.lang.management.ThreadMXBean threadBean = java.lang.management.ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled());
+        final long threadId = Thread.currentThread().getId();
+        final int batches = 200;
+        final int fetchSize = 2000;
+        //2Mb by batch : more than one chunk of maximum size
+        byte[] value = new byte[1000];
+
+        long[] allocations = new long[2];
+        for (int mode = 0; mode < 2; mode++) {
+            RowArena arena = new RowArena(2, fetchSize);
+            arena.setRecycleChunks(mode == 1);
+            //first batch reach high-water mark
+            fillBatch(arena, fetchSize, value);
+            long before = allocationBean.getThreadAllocatedBytes(threadId);
+            for (int batch = 0; batch < batches; batch++) {
+                arena.clear();
+                fillBatch(arena, fetchSize, value);
+            }
+            allocations[mode] = allocationBean.getThreadAllocatedBytes(threadId) - before;
+        }
+
+        //steady state with recycled chunks allocate less than allocating new chunks for each batch
+        assertTrue(allocations[1] < allocations[0]);
+    }
+
+    @Test
+    public void spillToFile() throws Exception {
+        RowArena arena = new RowArena(2, 10);
+        arena.setMemoryBudget(256 * 1024);
+        final int rows = 5000;
+        for (int i = 0; i < rows; i++) {
+            byte[] value = rowValue(i);
+            arena.startRow(value.length);
+            arena.append(value, 0, value.length);
+            if (i % 7 == 0) {
+                arena.appendNull();
+            } else {
+                arena.append((byte) i);
+            }
+            arena.endRow();
+        }
+        assertTrue(arena.hasSpilled());
+        assertEquals(rows, arena.size());
+        //budget + current chunk + 2 cached chunks
+        assertTrue(arena.getAllocatedMemory() < 256 * 1024 + 3 * 1024 * 1024 + 4L * rows * 4);
+
+        //backward, random and forward access
+        for (int i = rows - 1; i >= 0; i -= 3) checkSpilledRow(arena, i);
+        java.util.Random random = new java.util.Random(0);
+        for (int i = 0; i < 2000; i++) checkSpilledRow(arena, random.nextInt(rows));
+        for (int i = 0; i < rows; i++) checkSpilledRow(arena, i);
+
+        arena.clear();
+        assertEquals(0, arena.size());
+        arena.addRow(new byte[][] {"a".getBytes(), null});
+        assertArrayEquals("a".getBytes(), arena.getBytes(0, 0));
+        arena.release();
+        assertFalse(arena.hasSpilled());
+    }
+
+    @Test
+    public void spillFileRandomAccessReadRowOnly() throws Exception {
+        ChunkSpillFile spillFile = ChunkSpillFile.create();
+        try {
+            byte[] chunk = new byte[1024 * 1024];
+            Arrays.fill(chunk, (byte) 1);
+            spillFile.write(0, chunk, chunk.length);
+            spillFile.write(1, chunk, chunk.length);
+
+            //random access : only row bytes are copied
+            byte[] data = spillFile.read(0, 1000, 10, false);
+            assertEquals(1, data[1000]);
+            assertEquals(1, data[1009]);
+            assertEquals(0, data[999]);
+            assertEquals(0, data[1010]);
+            //same row is read from cache
+            assertSame(data, spillFile.read(0, 1002, 5, false));
+
+            //sequential access load whole chunk
+            data = spillFile.read(1, 0, 10, true);
+            assertEquals(1, data[0]);
+            assertEquals(1, data[chunk.length - 1]);
+            assertSame(data, spillFile.read(1, 5000, 10, false));
+        } finally {
+            spillFile.close();
+        }
+    }
+
+    private static byte[] rowValue(int row) {
+        return ("row-" + row + "-" + new String(new char[row % 500]).replace('\0', 'x')).getBytes();
+    }
+
+    private static void checkSpilledRow(RowArena arena, int row) {
+        byte[] expected = rowValue(row);
+        assertEquals(expected.length, arena.getLength(row, 0));
+        byte[] chunk = arena.getChunk(row);
+        int offset = arena.getOffset(row, 0);
+        for (int j = 0; j < expected.length; j++) assertEquals(expected[j], chunk[offset + j]);
+        if (row % 7 == 0) {
+            assertTrue(arena.isNull(row, 1));
+        } else {
+            assertEquals((byte) row, arena.getChunk(row)[arena.getOffset(row, 1)]);
+        }
+    }
+
+    private static void fillBatch(RowArena arena, int rows, byte[] value) {
+        for (int i = 0; i < rows; i++) {
+            arena.startRow(2 * value.length);
+            arena.appendNull();
+            arena.append(value, 0, value.length);
+            arena.endRow();
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
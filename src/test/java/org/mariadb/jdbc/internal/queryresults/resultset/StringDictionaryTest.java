@@ -0,0 +1,56 @@
+package org.mariadb.jdbc.internal.queryresults.resultset;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.*;
+
+public class StringDictionaryTest {
+
+    @Test
+    public void sameInstanceForSameValue() throws Exception {
+        StringDictionary dictionary = new StringDictionary();
+        byte[] buf = "xxFRANCExxGERMANYxxFRANCE".getBytes(StandardCharsets.UTF_8);
+        String first = dictionary.decode(buf, 2, 6);
+        assertEquals("FRANCE", first);
+        assertEquals("GERMANY", dictionary.decode(buf, 10, 7));
+        assertSame(first, dictionary.decode(buf, 19, 6));
+        assertSame(first, dictionary.decode("FRANCE".getBytes(StandardCharsets.UTF_8), 0, 6));
+
+        //prefix must not match
+        assertEquals("FRANC", dictionary.decode(buf, 2, 5));
+        assertEquals("", dictionary.decode(buf, 0, 0));
+
+        byte[] utf8 = "été".getBytes(StandardCharsets.UTF_8);
+        assertEquals("été", dictionary.decode(utf8, 0, utf8.length));
+        assertSame(dictionary.decode(utf8, 0, utf8.length), dictionary.decode(utf8, 0, utf8.length));
+    }
+
+    @Test
+    public void longValuesNotCached() throws Exception {
+        StringDictionary dictionary = new StringDictionary();
+        byte[] buf = new String(new char[100]).replace('\0', 'a').getBytes(StandardCharsets.UTF_8);
+        String value = dictionary.decode(buf, 0, buf.length);
+        assertEquals(100, value.length());
+        assertNotSame(value, dictionary.decode(buf, 0, buf.length));
+        assertTrue(dictionary.isEnabled());
+    }
+
+    @Test
+    public void disabledOnLowHitRate() throws Exception {
+        StringDictionary dictionary = new StringDictionary();
+        for (int i = 0; i < 5000; i++) {
+            byte[] value = ("value-" + i).getBytes(StandardCharsets.UTF_8);
+            assertEquals("value-" + i, dictionary.decode(value, 0, value.length));
+        }
+        assertFalse(dictionary.isEnabled());
+
+        dictionary = new StringDictionary();
+        for (int i = 0; i < 5000; i++) {
+            byte[] value = ("value-" + (i % 20)).getBytes(StandardCharsets.UTF_8);
+            assertEquals("value-" + (i % 20), dictionary.decode(value, 0, value.length));
+        }
+        assertTrue(dictionary.isEnabled());
+    }
+}
@@ -0,0 +1,104 @@
+package org.mariadb.jdbc.internal.stream;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.stream.CompressionPolicy.PayloadStats;
+import org.mariadb.jdbc.internal.stream.CompressionPolicy.PayloadType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CompressionPolicyTest {
+
+    @Test
+    public void skipIncompressiblePayloads() {
+        CompressionPolicy policy = new CompressionPolicy(0.9f);
+        assertTrue(policy.shouldCompress(PayloadType.FILE));
+        policy.record(PayloadType.FILE, 100000, 100020, 1000000);
+        assertTrue(policy.getStats(PayloadType.FILE).isSkipping());
+
+        //other payload types are not affected
+        assertTrue(policy.shouldCompress(PayloadType.QUERY));
+
+        int compressed = 0;
+        for (int i = 0; i < 10 * CompressionPolicy.PROBE_INTERVAL; i++) {
+            if (policy.shouldCompress(PayloadType.FILE)) {
+                compressed++;
+                policy.record(PayloadType.FILE, 100000, 100020, 1000000);
+            }
+        }
+        PayloadStats stats = policy.getStats(PayloadType.FILE);
+        assertEquals(10, compressed);
+        assertEquals(10, stats.getProbes());
+        assertEquals(150, stats.getSkippedPayloads());
+        assertEquals(10.0, stats.getNanosPerByte(), 0.001);
+    }
+
+    @Test
+    public void probeEnableCompression() {
+        CompressionPolicy policy = new CompressionPolicy(0.9f);
+        policy.record(PayloadType.BINARY_PARAMETERS, 100000, 99000, 1000);
+        assertTrue(policy.getStats(PayloadType.BINARY_PARAMETERS).isSkipping());
+
+        int skipped = 0;
+        while (!policy.shouldCompress(PayloadType.BINARY_PARAMETERS)) {
+            skipped++;
+        }
+        assertEquals(CompressionPolicy.PROBE_INTERVAL - 1, skipped);
+
+        //data are now compressible
+        policy.record(PayloadType.BINARY_PARAMETERS, 100000, 20000, 1000);
+        PayloadStats stats = policy.getStats(PayloadType.BINARY_PARAMETERS);
+        assertFalse(stats.isSkipping());
+        assertEquals(0.2, stats.getRatio(), 0.0001);
+        assertTrue(policy.shouldCompress(PayloadType.BINARY_PARAMETERS));
+
+        //recent ratio : one bad result doesn't disable compression
+        policy.record(PayloadType.BINARY_PARAMETERS, 100000, 100000, 1000);
+        assertFalse(stats.isSkipping());
+        assertEquals(0.4, stats.getRatio(), 0.0001);
+    }
+
+    @Test
+    public void adaptiveFileCompression() throws IOException {
+        final byte[] data = new byte[64 * 100000];
+        new Random(5).nextBytes(data);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(out, false, 1024);
+        writer.setUseCompression(true);
+        writer.setAdaptiveCompression(true);
+
+        //read by 100000 bytes chunks : 64 packets
+        InputStream is = new ByteArrayInputStream(data) {
+            @Override
+            public synchronized int read(byte[] bytes, int off, int len) {
+                return super.read(bytes, off, Math.min(len, 100000));
+            }
+        };
+        writer.sendFile(is, 2);
+
+        PayloadStats stats = writer.getCompressionPolicy().getStats(PayloadType.FILE);
+        assertTrue(stats.isSkipping());
+        assertEquals(1 + 63 / CompressionPolicy.PROBE_INTERVAL, stats.getDeflatedPayloads());
+        assertEquals(63 - 63 / CompressionPolicy.PROBE_INTERVAL, stats.getSkippedPayloads());
+
+        //data received are unchanged
+        DecompressInputStream inputStream = new DecompressInputStream(new ByteArrayInputStream(out.toByteArray()));
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = inputStream.readHeader()) > 0) {
+            while (length > 0) {
+                int read = inputStream.read(buffer, 0, Math.min(buffer.length, length));
+                received.write(buffer, 0, read);
+                length -= read;
+            }
+        }
+        assertArrayEquals(data, received.toByteArray());
+    }
+}
@@ -0,0 +1,120 @@
+package org.mariadb.jdbc.internal.stream;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import static org.junit.Assert.*;
+
+public class DecompressInputStreamTest {
+
+    /**
+     * Create a compressed protocol packet containing one standard packet.
+     *
+     * @param out      stream to write to
+     * @param data     standard packet data
+     * @param compress must data be compressed
+     * @param seq      sequence number
+     */
+    private static void writeCompressedPacket(ByteArrayOutputStream out, byte[] data, boolean compress, int seq) {
+        byte[] packet = new byte[data.length + 4];
+        packet[0] = (byte) data.length;
+        packet[1] = (byte) (data.length >>> 8);
+        packet[2] = (byte) (data.length >>> 16);
+        packet[3] = (byte) seq;
+        System.arraycopy(data, 0, packet, 4, data.length);
+
+        byte[] payload = packet;
+        int initialLength = 0;
+        if (compress) {
+            Deflater deflater = new Deflater();
+            deflater.setInput(packet);
+            deflater.finish();
+            byte[] compressed = new byte[packet.length * 2 + 64];
+            int length = deflater.deflate(compressed);
+            deflater.end();
+            payload = new byte[length];
+            System.arraycopy(compressed, 0, payload, 0, length);
+            initialLength = packet.length;
+        }
+
+        out.write(payload.length & 0xff);
+        out.write((payload.length >>> 8) & 0xff);
+        out.write((payload.length >>> 16) & 0xff);
+        out.write(seq);
+        out.write(initialLength & 0xff);
+        out.write((initialLength >>> 8) & 0xff);
+        out.write((initialLength >>> 16) & 0xff);
+        out.write(payload, 0, payload.length);
+    }
+
+    private static byte[] readFully(DecompressInputStream stream, int length, int chunk) throws IOException {
+        byte[] data = new byte[length];
+        int read = 0;
+        while (read < length) {
+            read += stream.read(data, read, Math.min(chunk, length - read));
+        }
+        return data;
+    }
+
+    @Test
+    public void readPackets() throws IOException {
+        Random random = new Random(42);
+        byte[] small = "SELECT 1".getBytes();
+        byte[] repetitive = new byte[100000];
+        for (int i = 0; i < repetitive.length; i++) {
+            repetitive[i] = (byte) ('a' + i % 7);
+        }
+        byte[] randomData = new byte[50000];
+        random.nextBytes(randomData);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeCompressedPacket(out, small, false, 0);
+        writeCompressedPacket(out, repetitive, true, 1);
+        writeCompressedPacket(out, randomData, true, 2);
+        writeCompressedPacket(out, small, true, 3);
+
+        DecompressInputStream stream = new DecompressInputStream(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(small.length, stream.readHeader());
+        assertArrayEquals(small, readFully(stream, small.length, 3));
+
+        assertEquals(repetitive.length, stream.readHeader());
+        assertEquals(1, stream.getLastPacketSeq());
+        assertArrayEquals(repetitive, readFully(stream, repetitive.length, 1000));
+
+        assertEquals(randomData.length, stream.readHeader());
+        assertEquals(randomData[0] & 0xff, stream.read());
+        byte[] remaining = readFully(stream, randomData.length - 1, 70000);
+        for (int i = 1; i < randomData.length; i++) {
+            assertEquals(randomData[i], remaining[i - 1]);
+        }
+
+        assertEquals(small.length, stream.readHeader());
+        assertArrayEquals(small, readFully(stream, small.length, 100));
+        stream.close();
+    }
+
+    @Test
+    public void truncatedPacket() throws IOException {
+        byte[] data = new byte[10000];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeCompressedPacket(out, data, true, 0);
+        byte[] bytes = out.toByteArray();
+        byte[] truncated = new byte[bytes.length - 5];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+
+        DecompressInputStream stream = new DecompressInputStream(new ByteArrayInputStream(truncated));
+        try {
+            stream.readHeader();
+            readFully(stream, data.length, data.length);
+            fail("must have thrown an exception");
+        } catch (EOFException eof) {
+            //expected
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package org.mariadb.jdbc.internal.stream;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Send LOAD DATA LOCAL INFILE content with compression to an in-process stand-in server,
+ * that decompress and return received data.
+ */
+public class ParallelCompressionTest {
+
+    private static byte[] fileContent(int length) {
+        Random random = new Random(7);
+        byte[] data = new byte[length];
+        int position = 0;
+        while (position < length) {
+            //csv like lines, with some random data
+            String line = position + ";" + random.nextInt(1000) + ";name" + random.nextInt(50) + ";"
+                    + Long.toHexString(random.nextLong()) + "\n";
+            byte[] lineBytes = line.getBytes();
+            int lineLength = Math.min(lineBytes.length, length - position);
+            System.arraycopy(lineBytes, 0, data, position, lineLength);
+            position += lineLength;
+        }
+        return data;
+    }
+
+    /**
+     * Send data and return data received by stand-in server.
+     *
+     * @param data               file data
+     * @param executor           compression executor (null for sequential compression)
+     * @param compressionThreads compression threads
+     * @return data received by server
+     * @throws Exception if any error occur
+     */
+    private static byte[] sendFile(byte[] data, ExecutorService executor, int compressionThreads) throws Exception {
+        final ServerSocket serverSocket = new ServerSocket(0);
+        ExecutorService serverExecutor = Executors.newSingleThreadExecutor();
+        try {
+            Future<byte[]> received = serverExecutor.submit(new Callable<byte[]>() {
+                @Override
+                public byte[] call() throws IOException {
+                    Socket server = serverSocket.accept();
+                    try {
+                        DecompressInputStream inputStream = new DecompressInputStream(server.getInputStream());
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        byte[] buffer = new byte[65536];
+                        int length;
+                        while ((length = inputStream.readHeader()) > 0) {
+                            while (length > 0) {
+                                int read = inputStream.read(buffer, 0, Math.min(buffer.length, length));
+                                out.write(buffer, 0, read);
+                                length -= read;
+                            }
+                        }
+                        return out.toByteArray();
+                    } finally {
+                        server.close();
+                    }
+                }
+            });
+
+            Socket client = new Socket("localhost", serverSocket.getLocalPort());
+            try {
+                PacketOutputStream writer = new PacketOutputStream(client.getOutputStream(), false, 1024);
+                writer.setUseCompression(true);
+                writer.setParallelCompression(executor, compressionThreads);
+                writer.sendFile(new ByteArrayInputStream(data), 2);
+                return received.get();
+            } finally {
+                client.close();
+            }
+        } finally {
+            serverExecutor.shutdown();
+            serverSocket.close();
+        }
+    }
+
+    @Test
+    public void parallelCompressionContent() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            byte[] data = fileContent(40 * 1024 * 1024 + 1234);
+            assertArrayEquals(data, sendFile(data, executor, 4));
+
+            //incompressible data are send without compression
+            byte[] randomData = new byte[5 * 1024 * 1024];
+            new Random(3).nextBytes(randomData);
+            assertArrayEquals(randomData, sendFile(randomData, executor, 4));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void parallelMatchSequential() throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        Assume.assumeTrue(threads > 1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            byte[] data = fileContent(32 * 1024 * 1024);
+            byte[] sequential = sendFile(data, null, 0);
+            byte[] parallel = sendFile(data, executor, threads);
+            assertArrayEquals(sequential, parallel);
+            assertArrayEquals(data, parallel);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
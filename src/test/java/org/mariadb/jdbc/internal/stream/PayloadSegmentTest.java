@@ -0,0 +1,129 @@
+package org.mariadb.jdbc.internal.stream;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.packet.dao.parameters.ByteArrayParameter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.junit.Assert.*;
+
+public class PayloadSegmentTest {
+
+    private static byte[] data(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    /**
+     * Read packets, checking sequence, and return concatenated payload.
+     *
+     * @param bytes    data send to socket
+     * @param packets  expected packet number
+     * @return payload
+     */
+    private static byte[] payload(byte[] bytes, int packets) {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        int position = 0;
+        int seq = 0;
+        while (position < bytes.length) {
+            int length = (bytes[position] & 0xff) + ((bytes[position + 1] & 0xff) << 8) + ((bytes[position + 2] & 0xff) << 16);
+            assertEquals(seq++, bytes[position + 3]);
+            payload.write(bytes, position + 4, length);
+            position += 4 + length;
+        }
+        assertEquals(packets, seq);
+        return payload.toByteArray();
+    }
+
+    @Test
+    public void binaryArrayNotCopied() throws IOException {
+        ByteArrayOutputStream socket = new ByteArrayOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(socket, false, 1024);
+        int initialCapacity = writer.buffer.capacity();
+        byte[] data = data(200000);
+
+        writer.startPacket(0);
+        writer.writeByte((byte) 0x17);
+        writer.writeByteArrayLength(data);
+        writer.writeByte((byte) 1);
+        assertEquals(initialCapacity, writer.buffer.capacity());
+        assertFalse(writer.checkRewritableLength(Integer.MAX_VALUE - 200000));
+        writer.finishPacketWithoutRelease(false);
+
+        byte[] payload = payload(socket.toByteArray(), 1);
+        assertEquals(1 + 4 + 200000 + 1, payload.length);
+        assertEquals(0x17, payload[0]);
+        assertEquals((byte) 0xfd, payload[1]);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i], payload[i + 5]);
+        }
+        assertEquals(1, payload[payload.length - 1]);
+    }
+
+    @Test
+    public void segmentSplitInPackets() throws IOException {
+        ByteArrayOutputStream socket = new ByteArrayOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(socket, false, 1024);
+        writer.maxPacketSize = 100000;
+        final byte[] data = data(199994);
+
+        //1 + 5 + 199994 = 2 full packets : empty packet must be sent
+        writer.startPacket(0);
+        writer.writeByte((byte) 0x03);
+        writer.write(new byte[] {'a', 'b', 'c', 'd', 'e'});
+        writer.writeSegment(new PayloadSegment() {
+            public long length() {
+                return 199994;
+            }
+
+            public void writeTo(OutputStream out) throws IOException {
+                out.write(data[0]);
+                out.write(data, 1, data.length - 1);
+            }
+        });
+        writer.finishPacketWithoutRelease(false);
+
+        byte[] payload = payload(socket.toByteArray(), 3);
+        assertEquals(200000, payload.length);
+        assertEquals('e', payload[5]);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i], payload[i + 6]);
+        }
+    }
+
+    @Test
+    public void textArrayEscapedWhenSent() throws IOException {
+        byte[] data = new byte[100000];
+        data[10] = '\'';
+        data[20] = '\\';
+
+        ByteArrayOutputStream socket = new ByteArrayOutputStream();
+        PacketOutputStream writer = new PacketOutputStream(socket, false, 1024);
+        writer.startPacket(0);
+        writer.write(0x03);
+        new ByteArrayParameter(data, false).writeTo(writer);
+        assertTrue(writer.buffer.position() < 100);
+        writer.finishPacketWithoutRelease(false);
+        byte[] segmentPayload = payload(socket.toByteArray(), 1);
+
+        //expected escaped data, written into packet buffer
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        PacketOutputStream copyWriter = new PacketOutputStream(expected, false, 1024);
+        copyWriter.startPacket(0);
+        copyWriter.write(0x03);
+        copyWriter.write("_binary '".getBytes());
+        for (byte value : data) {
+            if (value == '\'' || value == '\\' || value == 0) copyWriter.write('\\');
+            copyWriter.write(value);
+        }
+        copyWriter.write('\'');
+        copyWriter.finishPacketWithoutRelease(false);
+
+        assertArrayEquals(payload(expected.toByteArray(), 1), segmentPayload);
+    }
+}
@@ -0,0 +1,220 @@
+package org.mariadb.jdbc.internal.stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mariadb.jdbc.internal.util.buffer.DirectBufferPool;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicReference;
+import java.nio.channels.SocketChannel;
+
+import static org.junit.Assert.*;
+
+public class SocketChannelTransportTest {
+    private ServerSocket serverSocket;
+    private Socket server;
+    private SocketChannelTransport transport;
+
+    /**
+     * Connect a SocketChannel to a local server socket.
+     *
+     * @throws IOException if connection fail
+     */
+    @Before
+    public void connect() throws IOException {
+        serverSocket = new ServerSocket(0);
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", serverSocket.getLocalPort()));
+        server = serverSocket.accept();
+        transport = new SocketChannelTransport(channel);
+    }
+
+    /**
+     * Close sockets.
+     *
+     * @throws IOException if any error occur
+     */
+    @After
+    public void close() throws IOException {
+        transport.close();
+        server.close();
+        serverSocket.close();
+    }
+
+    @Test
+    public void readPackets() throws IOException {
+        OutputStream out = server.getOutputStream();
+        out.write(new byte[] {3, 0, 0, 1, 'a', 'b', 'c', 1, 0, 0, 2, 'd'});
+        out.flush();
+
+        ChannelInputStream inputStream = new ChannelInputStream(transport, 16);
+        assertEquals(3, inputStream.readHeader());
+        assertEquals(1, inputStream.getLastPacketSeq());
+        byte[] data = new byte[3];
+        int read = 0;
+        while (read < 3) {
+            read += inputStream.read(data, read, 3 - read);
+        }
+        assertArrayEquals(new byte[] {'a', 'b', 'c'}, data);
+        assertEquals(1, inputStream.readHeader());
+        assertEquals(2, inputStream.getLastPacketSeq());
+        assertEquals('d', inputStream.read());
+
+        server.shutdownOutput();
+        assertEquals(-1, inputStream.read());
+    }
+
+    @Test
+    public void writeChunks() throws IOException {
+        ChannelOutputStream outputStream = new ChannelOutputStream(transport, 16);
+        byte[] data = new byte[100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        outputStream.write(new byte[] {100, 0, 0, 0}, 4, data, 0, data.length);
+
+        InputStream in = server.getInputStream();
+        byte[] received = new byte[104];
+        int read = 0;
+        while (read < received.length) {
+            read += in.read(received, read, received.length - read);
+        }
+        assertEquals(100, received[0]);
+        for (int i = 0; i < data.length; i++) {
+            assertEquals(data[i], received[i + 4]);
+        }
+        assertEquals(104, transport.getBytesWritten());
+        assertTrue(transport.getWriteCalls() >= 7);
+    }
+
+    @Test
+    public void transferFile() throws IOException {
+        final byte[] data = new byte[1000000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        File file = File.createTempFile("transferFile", ".tmp");
+        try {
+            try (FileOutputStream fileOutputStream = new FileOutputStream(file)) {
+                fileOutputStream.write(data);
+            }
+
+            final byte[] received = new byte[data.length - 10];
+            Thread reader = new Thread() {
+                public void run() {
+                    try {
+                        InputStream in = server.getInputStream();
+                        int read = 0;
+                        while (read < received.length) {
+                            read += in.read(received, read, received.length - read);
+                        }
+                    } catch (IOException ioe) {
+                        //assertion will fail
+                    }
+                }
+            };
+            reader.start();
+
+            try (FileInputStream is = new FileInputStream(file)) {
+                FileChannel fileChannel = is.getChannel();
+                new ChannelOutputStream(transport, 16).transferFrom(fileChannel, 10, data.length - 10);
+                try {
+                    transport.transferFrom(fileChannel, data.length - 1, 2);
+                    fail("must have thrown EOF exception");
+                } catch (EOFException eof) {
+                    //expected
+                }
+            }
+            reader.join(10000);
+            for (int i = 0; i < received.length; i++) {
+                assertEquals(data[i + 10], received[i]);
+            }
+        } catch (InterruptedException ie) {
+            fail("interrupted");
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void readTimeout() throws IOException {
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress("localhost", serverSocket.getLocalPort()));
+        Socket otherServer = serverSocket.accept();
+        SocketChannelTransport timeoutTransport = new SocketChannelTransport(channel);
+        try {
+            channel.socket().setSoTimeout(100);
+            ChannelInputStream inputStream = new ChannelInputStream(timeoutTransport, 16);
+            long start = System.currentTimeMillis();
+            try {
+                inputStream.readHeader();
+                fail("must have thrown timeout exception");
+            } catch (SocketTimeoutException timeout) {
+                assertTrue(System.currentTimeMillis() - start >= 90);
+            }
+        } finally {
+            timeoutTransport.close();
+            otherServer.close();
+        }
+    }
+
+    @Test
+    public void buffersReturnedToPool() throws IOException {
+        DirectBufferPool pool = DirectBufferPool.getInstance();
+        ChannelInputStream inputStream = new ChannelInputStream(transport, 12345);
+        ChannelOutputStream outputStream = new ChannelOutputStream(transport, 12346);
+        long hits = pool.getHits();
+        outputStream.close();
+        inputStream.close();
+        try {
+            inputStream.read();
+            fail("must have thrown exception");
+        } catch (EOFException eof) {
+            //normal exception
+        }
+
+        new ChannelInputStream(transport, 12345);
+        new ChannelOutputStream(transport, 12346);
+        assertEquals(hits + 2, pool.getHits());
+    }
+
+    @Test
+    public void drainUntilEndOfStream() throws IOException {
+        OutputStream out = server.getOutputStream();
+        out.write(new byte[5000]);
+        server.shutdownOutput();
+        transport.drain();
+        assertEquals(5000, transport.getBytesRead());
+    }
+
+    @Test
+    public void closeWakesUpWaitingReader() throws Exception {
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread reader = new Thread() {
+            public void run() {
+                try {
+                    transport.read(ByteBuffer.allocate(10));
+                } catch (Throwable throwable) {
+                    error.set(throwable);
+                }
+            }
+        };
+        reader.start();
+        Thread.sleep(100);
+        transport.close();
+        reader.join(10000);
+        assertFalse(reader.isAlive());
+        assertTrue(error.get() instanceof IOException);
+    }
+}
@@ -0,0 +1,133 @@
+package org.mariadb.jdbc.internal.util.buffer;
+
+import org.junit.Test;
+import org.mariadb.jdbc.internal.packet.read.ReadPacketFetcher;
+import org.mariadb.jdbc.internal.stream.MariaDbBufferedInputStream;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class BufferPoolTest {
+
+    @Test
+    public void sizeClasses() {
+        BufferPool pool = new BufferPool(1024 * 1024);
+        assertEquals(8192, pool.acquire(1).length);
+        assertEquals(8192, pool.acquire(8192).length);
+        assertEquals(16384, pool.acquire(8193).length);
+        assertEquals(16 * 1024 * 1024, pool.acquire(0xffffff).length);
+        //bigger than biggest class : exact size
+        assertEquals(16 * 1024 * 1024 + 1, pool.acquire(16 * 1024 * 1024 + 1).length);
+        assertEquals(0, pool.getHits());
+        assertEquals(5, pool.getMisses());
+    }
+
+    @Test
+    public void reuse() {
+        BufferPool pool = new BufferPool(1024 * 1024);
+        byte[] array = pool.acquire(10000);
+        pool.release(array);
+        assertEquals(16384, pool.getRetainedBytes());
+        assertSame(array, pool.acquire(12000));
+        assertEquals(1, pool.getHits());
+        assertEquals(0, pool.getRetainedBytes());
+
+        //not a size class length
+        pool.release(new byte[10000]);
+        pool.release(new byte[4096]);
+        assertEquals(0, pool.getRetainedBytes());
+    }
+
+    @Test
+    public void retainedLimit() {
+        BufferPool pool = new BufferPool(20000);
+        pool.release(new byte[16384]);
+        pool.release(new byte[16384]);
+        assertEquals(16384, pool.getRetainedBytes());
+        assertEquals(1, pool.getDrops());
+    }
+
+    @Test
+    public void concurrentUse() throws Exception {
+        final BufferPool pool = new BufferPool(64 * 1024 * 1024);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int i = 0; i < 8; i++) {
+                final int size = 8192 << (i % 4);
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int j = 0; j < 10000; j++) {
+                            byte[] array = pool.acquire(size);
+                            assertEquals(size, array.length);
+                            pool.release(array);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(80000, pool.getHits() + pool.getMisses());
+        assertTrue(pool.getHits() > pool.getMisses());
+        assertTrue(pool.getRetainedBytes() <= 8 * (8192 << 3));
+    }
+
+    @Test
+    public void fetcherReleasesBufferAtResultEnd() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int seq = 0; seq < 2; seq++) {
+            out.write(10000 & 0xff);
+            out.write(10000 >> 8);
+            out.write(0);
+            out.write(seq);
+            out.write(new byte[10000]);
+        }
+        BufferPool pool = new BufferPool(1024 * 1024);
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(
+                new MariaDbBufferedInputStream(new ByteArrayInputStream(out.toByteArray()), 16384), 1024);
+        fetcher.setBufferPool(pool);
+
+        assertEquals(10000, fetcher.getReusableBuffer().limit);
+        assertEquals(10000, fetcher.getReusableBuffer().limit);
+        //same array is used while packets are big
+        assertEquals(1, pool.getMisses());
+        assertEquals(0, pool.getRetainedBytes());
+
+        fetcher.releaseBuffers();
+        assertEquals(16384, pool.getRetainedBytes());
+    }
+
+    @Test
+    public void fetcherReleasesRowArray() throws Exception {
+        byte[] data = new byte[30000];
+        BufferPool pool = new BufferPool(1024 * 1024);
+        ReadPacketFetcher fetcher = new ReadPacketFetcher(
+                new MariaDbBufferedInputStream(new ByteArrayInputStream(data), 16384), 1024);
+        fetcher.setBufferPool(pool);
+
+        byte[] rowArray = fetcher.getReusableBuffer(20000, null).buf;
+        assertEquals(32768, rowArray.length);
+        //small packet use fetcher own array, that is never given to pool
+        byte[] smallArray = fetcher.getReusableBuffer(100, rowArray).buf;
+        fetcher.releaseBuffer(smallArray);
+        assertEquals(0, pool.getRetainedBytes());
+
+        fetcher.releaseBuffer(rowArray);
+        assertEquals(32768, pool.getRetainedBytes());
+    }
+}